@@ -0,0 +1,66 @@
+package com.dl7.drag.benchmark;
+
+import com.dl7.drag.StackBlur;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created by long on 2016/11/30.
+ * StackBlur 模糊一次主视图的耗时，尺寸按 DragSlopLayout 默认的采样因数 4 缩小并对齐到 4 的倍数
+ * StackBlur 的计算和像素内容无关，所以每次直接模糊上一次的结果
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BlurBenchmark {
+
+    private static final int SAMPLE_FACTOR = 4;
+
+    // 屏幕尺寸
+    @Param({"720x1280", "1080x1920", "1440x2560"})
+    public String mResolution;
+
+    @Param({"5", "25"})
+    public int mRadius;
+
+    private final StackBlur mStackBlur = new StackBlur();
+    private int[] mPixels;
+    private int mWidth;
+    private int mHeight;
+
+    @Setup
+    public void setUp() {
+        final String[] size = mResolution.split("x");
+        mWidth = _scale(Integer.parseInt(size[0]));
+        mHeight = _scale(Integer.parseInt(size[1]));
+        mPixels = new int[mWidth * mHeight];
+        Random random = new Random(0);
+        for (int i = 0; i < mPixels.length; i++) {
+            mPixels[i] = random.nextInt();
+        }
+    }
+
+    /**
+     * 和 DragSlopLayout._blurView() 的缩小方式一致
+     */
+    private static int _scale(int size) {
+        final int scaled = size / SAMPLE_FACTOR;
+        return scaled - scaled % 4 + 4;
+    }
+
+    @Benchmark
+    public int stackBlur() {
+        mStackBlur.blur(mPixels, mWidth, mHeight, mRadius);
+        return mPixels[0];
+    }
+}
@@ -0,0 +1,118 @@
+package com.dl7.drag.benchmark;
+
+import com.dl7.drag.DragMath;
+import com.dl7.drag.animate.KeyframeSpec;
+import com.dl7.drag.animate.KeyframeSpecs;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created by long on 2016/11/30.
+ * 和 ViewPager 联动时每帧的计算，每次调用计算 FRAME_COUNT 帧
+ * drag/dragOutside：隐藏百分比 -> DragView 位置 -> 拖拽百分比 -> 模糊 level -> 视差位移
+ * animate：退出动画关键帧在当前进度的所有属性值，即 AnimatorPresenter.handleAnimateFrame() 中除了设置属性之外的部分
+ * 布局尺寸按 1080x1920 的屏幕，DragView 高 600，固定高度 200
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DragFrameBenchmark {
+
+    private static final int FRAME_COUNT = 64;
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final int CHILD_HEIGHT = 600;
+    private static final int FIX_HEIGHT = 200;
+
+    @Param({"drag", "dragOutside", "animate.slideBottom", "animate.flipX", "animate.zoomLeft"})
+    public String mMode;
+
+    private float[] mPagerPercents;
+    private KeyframeSpec mOutSpec;
+    private final float[] mUnitScale = new float[KeyframeSpec.UNIT_COUNT];
+    private final float[] mFrameValues = new float[KeyframeSpec.PROPERTY_COUNT];
+    private int mFixHeight;
+    private int mCollapsedTop;
+    private int mExpandedTop;
+
+    @Setup
+    public void setUp() {
+        switch (mMode) {
+            case "drag":
+                mFixHeight = FIX_HEIGHT;
+                break;
+            case "dragOutside":
+                // MODE_DRAG_OUTSIDE 的固定高度为 0
+                mFixHeight = 0;
+                break;
+            case "animate.slideBottom":
+                mOutSpec = KeyframeSpecs.SLIDE_BOTTOM_OUT;
+                break;
+            case "animate.flipX":
+                mOutSpec = KeyframeSpecs.FLIP_X_OUT;
+                break;
+            case "animate.zoomLeft":
+                mOutSpec = KeyframeSpecs.ZOOM_LEFT_OUT;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown mode: " + mMode);
+        }
+        mExpandedTop = DragMath.expandedTop(HEIGHT, CHILD_HEIGHT);
+        mCollapsedTop = DragMath.collapsedTop(HEIGHT, mFixHeight);
+        mUnitScale[KeyframeSpec.UNIT_NONE] = 1;
+        mUnitScale[KeyframeSpec.UNIT_TARGET_WIDTH] = WIDTH;
+        mUnitScale[KeyframeSpec.UNIT_TARGET_HEIGHT] = CHILD_HEIGHT;
+        mUnitScale[KeyframeSpec.UNIT_PARENT_WIDTH] = WIDTH;
+        mUnitScale[KeyframeSpec.UNIT_PARENT_HEIGHT] = HEIGHT;
+        mPagerPercents = new float[FRAME_COUNT];
+        for (int i = 0; i < FRAME_COUNT; i++) {
+            // 只取完全隐藏之前的 1/3 页
+            mPagerPercents[i] = (i + 0.37f) / FRAME_COUNT / DragMath.PAGER_HIDE_SPEED;
+        }
+    }
+
+    @Benchmark
+    public float pagerFrames() {
+        float sum = 0;
+        if (mOutSpec != null) {
+            for (float pagerPercent : mPagerPercents) {
+                mOutSpec.evaluateFrame(DragMath.pagerHidePercent(pagerPercent), mUnitScale, mFrameValues);
+                sum += mFrameValues[KeyframeSpec.ALPHA];
+            }
+            return sum;
+        }
+        for (float pagerPercent : mPagerPercents) {
+            final float hidePercent = DragMath.pagerHidePercent(pagerPercent);
+            final int top = DragMath.pagerHideTop(mCollapsedTop, hidePercent, mCollapsedTop, mFixHeight);
+            final int visibleHeight = HEIGHT - top;
+            sum += DragMath.dragPercent(top, mCollapsedTop, mExpandedTop);
+            sum += DragMath.blurLevel(visibleHeight, HEIGHT);
+            sum += DragMath.parallaxTranslation(visibleHeight, 0.5f);
+        }
+        return sum;
+    }
+
+    /**
+     * 每次布局计算锚点，DragView 高度每次都变化，相当于锚点缓存失效
+     */
+    @Benchmark
+    public int layoutAnchors() {
+        int sum = 0;
+        for (int i = 0; i < FRAME_COUNT; i++) {
+            final int childHeight = CHILD_HEIGHT + i;
+            sum += DragMath.criticalTop(HEIGHT, childHeight, mFixHeight);
+            sum += DragMath.expandedTop(HEIGHT, childHeight);
+            sum += DragMath.collapsedTop(HEIGHT, mFixHeight);
+        }
+        return sum;
+    }
+}
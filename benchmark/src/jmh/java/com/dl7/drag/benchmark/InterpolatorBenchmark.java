@@ -0,0 +1,84 @@
+package com.dl7.drag.benchmark;
+
+import android.view.animation.Interpolator;
+
+import com.dl7.drag.animate.LutInterpolator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created by long on 2016/11/26.
+ * 对比原插值器和 LutInterpolator 计算一段动画所有帧的耗时
+ * 每次调用计算 FRAME_COUNT 个均匀分布的进度，相当于一次 60fps 下 1 秒左右的动画
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InterpolatorBenchmark {
+
+    private static final int FRAME_COUNT = 64;
+
+    @Param({"linear", "accelerateDecelerate", "bounce", "anticipateOvershoot", "path"})
+    public String mInterpolatorName;
+
+    private Interpolator mOriginal;
+    private Interpolator mLut;
+    private float[] mInputs;
+
+    @Setup
+    public void setUp() {
+        switch (mInterpolatorName) {
+            case "linear":
+                mOriginal = new FrameworkInterpolators.Linear();
+                break;
+            case "accelerateDecelerate":
+                mOriginal = new FrameworkInterpolators.AccelerateDecelerate();
+                break;
+            case "bounce":
+                mOriginal = new FrameworkInterpolators.Bounce();
+                break;
+            case "anticipateOvershoot":
+                mOriginal = new FrameworkInterpolators.AnticipateOvershoot();
+                break;
+            case "path":
+                // 和 FastOutSlowInInterpolator 相同的控制点
+                mOriginal = new FrameworkInterpolators.CubicPath(0.4f, 0f, 0.2f, 1f);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown interpolator: " + mInterpolatorName);
+        }
+        mLut = new LutInterpolator(mOriginal);
+        mInputs = new float[FRAME_COUNT];
+        for (int i = 0; i < FRAME_COUNT; i++) {
+            // 错开采样点，避免正好落在表的采样位置上
+            mInputs[i] = (i + 0.37f) / FRAME_COUNT;
+        }
+    }
+
+    @Benchmark
+    public float original() {
+        return _run(mOriginal);
+    }
+
+    @Benchmark
+    public float lut() {
+        return _run(mLut);
+    }
+
+    private float _run(Interpolator interpolator) {
+        float sum = 0;
+        for (float input : mInputs) {
+            sum += interpolator.getInterpolation(input);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,73 @@
+package com.dl7.drag.benchmark;
+
+import android.view.animation.Interpolator;
+
+import com.dl7.drag.DragMath;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created by long on 2016/11/30.
+ * 释放后自动滚动的每帧计算，和 Scroller.computeScrollOffset() 一样按时间取插值再取整，然后计算拖拽百分比
+ * viewDragHelper：ViewDragHelper 的五次曲线；fallBound：收缩时的回弹；decelerate：MODE_DRAG_OUTSIDE 的惯性滚动
+ * 每次调用计算一次 500ms 的滚动，60fps 下 FRAME_COUNT 帧
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SettleBenchmark {
+
+    private static final int FRAME_COUNT = 30;
+    private static final int EXPANDED_TOP = 1320;
+    private static final int COLLAPSED_TOP = 1720;
+
+    @Param({"viewDragHelper", "fallBound", "decelerate"})
+    public String mScroller;
+
+    private Interpolator mInterpolator;
+    private float[] mFractions;
+
+    @Setup
+    public void setUp() {
+        switch (mScroller) {
+            case "viewDragHelper":
+                mInterpolator = new FrameworkInterpolators.Quintic();
+                break;
+            case "fallBound":
+                mInterpolator = new FrameworkInterpolators.Bounce();
+                break;
+            case "decelerate":
+                mInterpolator = new FrameworkInterpolators.Decelerate();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown scroller: " + mScroller);
+        }
+        mFractions = new float[FRAME_COUNT];
+        for (int i = 0; i < FRAME_COUNT; i++) {
+            mFractions[i] = (i + 1f) / FRAME_COUNT;
+        }
+    }
+
+    @Benchmark
+    public float settle() {
+        // 从展开位置释放，按速度估算终点后滚动过去
+        final int startTop = EXPANDED_TOP + 50;
+        final int finalTop = DragMath.flingFinalTop(startTop, 1200f, 0.3f, EXPANDED_TOP, COLLAPSED_TOP);
+        final int delta = finalTop - startTop;
+        float sum = 0;
+        for (float fraction : mFractions) {
+            final int top = startTop + Math.round(mInterpolator.getInterpolation(fraction) * delta);
+            sum += DragMath.dragPercent(top, COLLAPSED_TOP, EXPANDED_TOP);
+        }
+        return sum;
+    }
+}
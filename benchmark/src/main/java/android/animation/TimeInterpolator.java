@@ -0,0 +1,9 @@
+package android.animation;
+
+/**
+ * 框架接口的替身，只用于在 JVM 上运行基准测试
+ */
+public interface TimeInterpolator {
+
+    float getInterpolation(float input);
+}
@@ -0,0 +1,9 @@
+package android.view.animation;
+
+import android.animation.TimeInterpolator;
+
+/**
+ * 框架接口的替身，只用于在 JVM 上运行基准测试
+ */
+public interface Interpolator extends TimeInterpolator {
+}
@@ -0,0 +1,154 @@
+package com.dl7.drag.benchmark;
+
+import android.view.animation.Interpolator;
+
+/**
+ * Created by long on 2016/11/26.
+ * 框架插值器在 JVM 上的移植，计算过程和 AOSP 的实现一致，用来和 LutInterpolator 对比
+ */
+public final class FrameworkInterpolators {
+
+    private FrameworkInterpolators() {
+        throw new Error("Do not need instantiate!");
+    }
+
+    /**
+     * android.view.animation.LinearInterpolator
+     */
+    public static final class Linear implements Interpolator {
+        @Override
+        public float getInterpolation(float input) {
+            return input;
+        }
+    }
+
+    /**
+     * android.view.animation.DecelerateInterpolator，factor 为 1
+     */
+    public static final class Decelerate implements Interpolator {
+        @Override
+        public float getInterpolation(float input) {
+            return 1.0f - (1.0f - input) * (1.0f - input);
+        }
+    }
+
+    /**
+     * ViewDragHelper 滚动使用的五次曲线
+     */
+    public static final class Quintic implements Interpolator {
+        @Override
+        public float getInterpolation(float t) {
+            t -= 1.0f;
+            return t * t * t * t * t + 1.0f;
+        }
+    }
+
+    /**
+     * android.view.animation.AccelerateDecelerateInterpolator
+     */
+    public static final class AccelerateDecelerate implements Interpolator {
+        @Override
+        public float getInterpolation(float input) {
+            return (float) (Math.cos((input + 1) * Math.PI) / 2.0f) + 0.5f;
+        }
+    }
+
+    /**
+     * android.view.animation.BounceInterpolator
+     */
+    public static final class Bounce implements Interpolator {
+
+        private static float bounce(float t) {
+            return t * t * 8.0f;
+        }
+
+        @Override
+        public float getInterpolation(float t) {
+            t *= 1.1226f;
+            if (t < 0.3535f) return bounce(t);
+            else if (t < 0.7408f) return bounce(t - 0.54719f) + 0.7f;
+            else if (t < 0.9644f) return bounce(t - 0.8526f) + 0.9f;
+            else return bounce(t - 1.0435f) + 0.95f;
+        }
+    }
+
+    /**
+     * android.view.animation.AnticipateOvershootInterpolator，tension 为 2 * 1.5
+     */
+    public static final class AnticipateOvershoot implements Interpolator {
+
+        private final float mTension = 2.0f * 1.5f;
+
+        private static float a(float t, float s) {
+            return t * t * ((s + 1) * t - s);
+        }
+
+        private static float o(float t, float s) {
+            return t * t * ((s + 1) * t + s);
+        }
+
+        @Override
+        public float getInterpolation(float t) {
+            if (t < 0.5f) return 0.5f * a(t * 2.0f, mTension);
+            else return 0.5f * (o(t * 2.0f - 2.0f, mTension) + 2.0f);
+        }
+    }
+
+    /**
+     * android.view.animation.PathInterpolator 的三次贝塞尔曲线形式
+     * 框架通过 Path.approximate(0.002f) 把曲线拆成折线，每帧二分查找 x 再线性插值 y，这里用同样的查找过程
+     */
+    public static final class CubicPath implements Interpolator {
+
+        private static final float PRECISION = 0.002f;
+
+        private final float[] mX;
+        private final float[] mY;
+
+        public CubicPath(float controlX1, float controlY1, float controlX2, float controlY2) {
+            // 按精度估算折线段数，Path.approximate 对三次曲线的结果在同一量级
+            final int count = (int) Math.ceil(1 / Math.sqrt(PRECISION)) * 4 + 1;
+            mX = new float[count];
+            mY = new float[count];
+            for (int i = 0; i < count; i++) {
+                final float t = (float) i / (count - 1);
+                mX[i] = _cubic(t, controlX1, controlX2);
+                mY[i] = _cubic(t, controlY1, controlY2);
+            }
+        }
+
+        private static float _cubic(float t, float p1, float p2) {
+            final float u = 1 - t;
+            return 3 * u * u * t * p1 + 3 * u * t * t * p2 + t * t * t;
+        }
+
+        @Override
+        public float getInterpolation(float t) {
+            if (t <= 0) {
+                return 0;
+            } else if (t >= 1) {
+                return 1;
+            }
+            // Do a binary search for the correct x to interpolate between.
+            int startIndex = 0;
+            int endIndex = mX.length - 1;
+            while (endIndex - startIndex > 1) {
+                int midIndex = (startIndex + endIndex) / 2;
+                if (t < mX[midIndex]) {
+                    endIndex = midIndex;
+                } else {
+                    startIndex = midIndex;
+                }
+            }
+            float xRange = mX[endIndex] - mX[startIndex];
+            if (xRange == 0) {
+                return mY[startIndex];
+            }
+            float tInRange = t - mX[startIndex];
+            float fraction = tInRange / xRange;
+            float startY = mY[startIndex];
+            float endY = mY[endIndex];
+            return startY + (fraction * (endY - startY));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.dl7.drag;
+
+import android.os.Debug;
+import android.test.InstrumentationTestCase;
+import android.test.UiThreadTest;
+import android.view.View;
+import android.view.animation.Interpolator;
+import android.view.animation.LinearInterpolator;
+import android.widget.FrameLayout;
+
+import com.dl7.drag.animate.BaseViewAnimator;
+import com.dl7.drag.animate.KeyframeSpec;
+import com.dl7.drag.animate.KeyframeSpecs;
+import com.dl7.drag.animate.SpecViewAnimator;
+
+/**
+ * Created by long on 2016/11/23.
+ * 验证重复启动进入和退出动画时，动画的构建过程不再分配内存
+ */
+public class AnimatorAllocationTest extends InstrumentationTestCase {
+
+    private static final int REPEAT_COUNT = 100;
+
+    private View mTarget;
+    private Interpolator mInterpolator = new LinearInterpolator();
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        FrameLayout parent = new FrameLayout(getInstrumentation().getContext());
+        mTarget = new View(getInstrumentation().getContext());
+        parent.addView(mTarget, new FrameLayout.LayoutParams(1080, 300));
+        parent.measure(View.MeasureSpec.makeMeasureSpec(1080, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(1920, View.MeasureSpec.EXACTLY));
+        parent.layout(0, 0, 1080, 1920);
+    }
+
+    private void _prepare(BaseViewAnimator animator) {
+        animator.setTarget(mTarget)
+                .setStartDelay(0)
+                .setDuration(400)
+                .setInterpolator(mInterpolator);
+    }
+
+    @SuppressWarnings("deprecation")
+    private void _assertNoAllocation(String name, KeyframeSpec inSpec, KeyframeSpec outSpec) {
+        final BaseViewAnimator inAnimator = new SpecViewAnimator(inSpec);
+        final BaseViewAnimator outAnimator = new SpecViewAnimator(outSpec);
+        _prepare(inAnimator);
+        _prepare(outAnimator);
+        final int inChildCount = inAnimator.getAnimatorAgent().getChildAnimations().size();
+        final int outChildCount = outAnimator.getAnimatorAgent().getChildAnimations().size();
+
+        Debug.resetThreadAllocCount();
+        Debug.startAllocCounting();
+        for (int i = 0; i < REPEAT_COUNT; i++) {
+            _prepare(inAnimator);
+            _prepare(outAnimator);
+        }
+        Debug.stopAllocCounting();
+        final int allocCount = Debug.getThreadAllocCount();
+
+        assertEquals(name, 0, allocCount);
+        // 重复构建不会往 AnimatorSet 累积子动画
+        assertEquals(inChildCount, inAnimator.getAnimatorAgent().getChildAnimations().size());
+        assertEquals(outChildCount, outAnimator.getAnimatorAgent().getChildAnimations().size());
+    }
+
+    @UiThreadTest
+    public void testBuiltInAnimators() {
+        _assertNoAllocation("SLIDE_BOTTOM", KeyframeSpecs.SLIDE_BOTTOM_IN, KeyframeSpecs.SLIDE_BOTTOM_OUT);
+        _assertNoAllocation("SLIDE_LEFT", KeyframeSpecs.SLIDE_LEFT_IN, KeyframeSpecs.SLIDE_LEFT_OUT);
+        _assertNoAllocation("SLIDE_RIGHT", KeyframeSpecs.SLIDE_RIGHT_IN, KeyframeSpecs.SLIDE_RIGHT_OUT);
+        _assertNoAllocation("FADE", KeyframeSpecs.FADE_IN, KeyframeSpecs.FADE_OUT);
+        _assertNoAllocation("FLIP_X", KeyframeSpecs.FLIP_X_IN, KeyframeSpecs.FLIP_X_OUT);
+        _assertNoAllocation("FLIP_Y", KeyframeSpecs.FLIP_Y_IN, KeyframeSpecs.FLIP_Y_OUT);
+        _assertNoAllocation("ZOOM", KeyframeSpecs.ZOOM_IN, KeyframeSpecs.ZOOM_OUT);
+        _assertNoAllocation("ZOOM_LEFT", KeyframeSpecs.ZOOM_LEFT_IN, KeyframeSpecs.ZOOM_LEFT_OUT);
+        _assertNoAllocation("ZOOM_RIGHT", KeyframeSpecs.ZOOM_RIGHT_IN, KeyframeSpecs.ZOOM_RIGHT_OUT);
+    }
+}
@@ -0,0 +1,63 @@
+package com.dl7.drag;
+
+import android.os.Debug;
+import android.test.InstrumentationTestCase;
+import android.test.UiThreadTest;
+import android.view.View;
+import android.view.animation.LinearInterpolator;
+
+import com.dl7.drag.animate.BatchViewAnimator;
+import com.dl7.drag.animate.KeyframeSpec;
+
+/**
+ * Created by long on 2016/11/28.
+ * 验证批量动画的错开效果和按进度定位
+ */
+public class BatchViewAnimatorTest extends InstrumentationTestCase {
+
+    private static final float DELTA = 0.01f;
+
+    private View[] mTargets;
+    private BatchViewAnimator mAnimator;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mTargets = new View[4];
+        for (int i = 0; i < mTargets.length; i++) {
+            mTargets[i] = new View(getInstrumentation().getContext());
+        }
+        // 每个轨道 100ms，依次错开 100ms，总时长 400ms
+        mAnimator = new BatchViewAnimator()
+                .setTrackDuration(100)
+                .setTrackInterpolator(new LinearInterpolator())
+                .addStaggered(KeyframeSpec.TRANSLATION_X, 100, new float[]{0, 100}, mTargets);
+    }
+
+    @UiThreadTest
+    public void testSeekStaggersTracks() {
+        mAnimator.seek(0.375f);
+        assertEquals(100, mTargets[0].getTranslationX(), DELTA);
+        assertEquals(50, mTargets[1].getTranslationX(), DELTA);
+        assertEquals(0, mTargets[2].getTranslationX(), DELTA);
+        assertEquals(0, mTargets[3].getTranslationX(), DELTA);
+
+        mAnimator.seek(1);
+        for (View target : mTargets) {
+            assertEquals(100, target.getTranslationX(), DELTA);
+        }
+    }
+
+    @UiThreadTest
+    @SuppressWarnings("deprecation")
+    public void testSeekDoesNotAllocate() {
+        mAnimator.seek(0);
+        Debug.resetThreadAllocCount();
+        Debug.startAllocCounting();
+        for (int i = 0; i <= 100; i++) {
+            mAnimator.seek(i / 100f);
+        }
+        Debug.stopAllocCounting();
+        assertEquals(0, Debug.getThreadAllocCount());
+    }
+}
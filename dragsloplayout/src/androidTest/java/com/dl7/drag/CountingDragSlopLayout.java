@@ -0,0 +1,35 @@
+package com.dl7.drag;
+
+import android.content.Context;
+import android.util.AttributeSet;
+
+/**
+ * Created by long on 2016/11/21.
+ * 统计测量和布局次数的 DragSlopLayout，用于性能测试
+ */
+public class CountingDragSlopLayout extends DragSlopLayout {
+
+    int measureCount;
+    int layoutCount;
+
+    public CountingDragSlopLayout(Context context, AttributeSet attrs) {
+        super(context, attrs);
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        measureCount++;
+        super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        layoutCount++;
+        super.onLayout(changed, l, t, r, b);
+    }
+
+    void resetCount() {
+        measureCount = 0;
+        layoutCount = 0;
+    }
+}
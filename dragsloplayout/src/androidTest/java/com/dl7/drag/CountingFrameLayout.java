@@ -0,0 +1,36 @@
+package com.dl7.drag;
+
+import android.content.Context;
+import android.util.AttributeSet;
+import android.widget.FrameLayout;
+
+/**
+ * Created by long on 2016/11/21.
+ * 统计测量和布局次数的 FrameLayout，用作 DragView
+ */
+public class CountingFrameLayout extends FrameLayout {
+
+    int measureCount;
+    int layoutCount;
+
+    public CountingFrameLayout(Context context, AttributeSet attrs) {
+        super(context, attrs);
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        measureCount++;
+        super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+        layoutCount++;
+        super.onLayout(changed, left, top, right, bottom);
+    }
+
+    void resetCount() {
+        measureCount = 0;
+        layoutCount = 0;
+    }
+}
@@ -0,0 +1,62 @@
+package com.dl7.drag;
+
+import android.os.Debug;
+import android.test.InstrumentationTestCase;
+import android.test.UiThreadTest;
+import android.util.Log;
+import android.view.LayoutInflater;
+
+import com.dl7.drag.test.R;
+
+/**
+ * Created by long on 2016/11/22.
+ * 统计各个模式下加载 DragSlopLayout 的耗时和内存分配，模拟列表中大量创建的场景
+ */
+public class InflateBenchmark extends InstrumentationTestCase {
+
+    private static final String TAG = "InflateBenchmark";
+    private static final int WARM_UP_COUNT = 20;
+    private static final int INFLATE_COUNT = 200;
+
+    private LayoutInflater mInflater;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mInflater = LayoutInflater.from(getInstrumentation().getContext());
+    }
+
+    @SuppressWarnings("deprecation")
+    private void _benchmark(String mode, int layoutId) {
+        for (int i = 0; i < WARM_UP_COUNT; i++) {
+            mInflater.inflate(layoutId, null);
+        }
+        Debug.resetThreadAllocCount();
+        Debug.resetThreadAllocSize();
+        Debug.startAllocCounting();
+        long startTime = System.nanoTime();
+        for (int i = 0; i < INFLATE_COUNT; i++) {
+            mInflater.inflate(layoutId, null);
+        }
+        long costTime = System.nanoTime() - startTime;
+        Debug.stopAllocCounting();
+        Log.i(TAG, mode + ": " + (costTime / INFLATE_COUNT / 1000) + " us/inflate, "
+                + (Debug.getThreadAllocCount() / INFLATE_COUNT) + " objects/inflate, "
+                + (Debug.getThreadAllocSize() / INFLATE_COUNT) + " bytes/inflate");
+    }
+
+    @UiThreadTest
+    public void testInflateModeDrag() {
+        _benchmark("drag", R.layout.bench_mode_drag);
+    }
+
+    @UiThreadTest
+    public void testInflateModeAnimate() {
+        _benchmark("animate", R.layout.bench_mode_animate);
+    }
+
+    @UiThreadTest
+    public void testInflateModeDragOutside() {
+        _benchmark("drag_outside", R.layout.bench_mode_drag_outside);
+    }
+}
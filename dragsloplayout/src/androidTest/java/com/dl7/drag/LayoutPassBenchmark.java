@@ -0,0 +1,165 @@
+package com.dl7.drag;
+
+import android.os.SystemClock;
+import android.support.v4.view.PagerAdapter;
+import android.support.v4.view.ViewPager;
+import android.test.InstrumentationTestCase;
+import android.test.UiThreadTest;
+import android.util.Log;
+import android.view.LayoutInflater;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.dl7.drag.test.R;
+
+/**
+ * Created by long on 2016/11/21.
+ * 统计一次典型的拖拽和 ViewPager 滑动过程中的测量和布局次数
+ */
+public class LayoutPassBenchmark extends InstrumentationTestCase {
+
+    private static final String TAG = "LayoutPassBenchmark";
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    // 模拟的帧数
+    private static final int FRAME_COUNT = 120;
+
+    private CountingDragSlopLayout mDragLayout;
+    private CountingFrameLayout mDragView;
+    private ViewPager mViewPager;
+
+    private void _inflate(int layoutId) {
+        mDragLayout = (CountingDragSlopLayout) LayoutInflater.from(getInstrumentation().getContext())
+                .inflate(layoutId, null);
+        mDragView = (CountingFrameLayout) mDragLayout.findViewById(R.id.fl_drag);
+        mViewPager = (ViewPager) mDragLayout.findViewById(R.id.vp_bench);
+        mViewPager.setAdapter(new PagerAdapter() {
+            @Override
+            public int getCount() {
+                return 5;
+            }
+
+            @Override
+            public boolean isViewFromObject(View view, Object object) {
+                return view == object;
+            }
+
+            @Override
+            public Object instantiateItem(ViewGroup container, int position) {
+                View view = new View(container.getContext());
+                container.addView(view);
+                return view;
+            }
+
+            @Override
+            public void destroyItem(ViewGroup container, int position, Object object) {
+                container.removeView((View) object);
+            }
+        });
+        _traversal();
+        mDragLayout.resetCount();
+        mDragView.resetCount();
+    }
+
+    /**
+     * 模拟一次 ViewRootImpl 的测量和布局
+     */
+    private void _traversal() {
+        mDragLayout.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        mDragLayout.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    /**
+     * 模拟一帧：滚动计算后如果有布局请求则重新测量布局
+     */
+    private void _frame() {
+        mDragLayout.computeScroll();
+        mViewPager.computeScroll();
+        if (mDragLayout.isLayoutRequested()) {
+            _traversal();
+        }
+    }
+
+    private void _touch(int action, long downTime, float y) {
+        MotionEvent event = MotionEvent.obtain(downTime, SystemClock.uptimeMillis(), action, WIDTH / 2, y, 0);
+        mDragLayout.dispatchTouchEvent(event);
+        event.recycle();
+    }
+
+    private void _dragSession() {
+        float y = mDragView.getTop() + 10;
+        long downTime = SystemClock.uptimeMillis();
+        _touch(MotionEvent.ACTION_DOWN, downTime, y);
+        for (int i = 0; i < 20; i++) {
+            y -= 15;
+            _touch(MotionEvent.ACTION_MOVE, downTime, y);
+            _frame();
+        }
+        _touch(MotionEvent.ACTION_UP, downTime, y);
+        for (int i = 0; i < FRAME_COUNT; i++) {
+            _frame();
+        }
+    }
+
+    private void _pagerSession() {
+        mViewPager.beginFakeDrag();
+        for (int i = 0; i < 30; i++) {
+            mViewPager.fakeDragBy(-20);
+            _frame();
+        }
+        mViewPager.endFakeDrag();
+        for (int i = 0; i < FRAME_COUNT; i++) {
+            _frame();
+        }
+    }
+
+    private void _report(String session) {
+        Log.i(TAG, session + ": layout measure=" + mDragLayout.measureCount + ", layout=" + mDragLayout.layoutCount
+                + "; dragView measure=" + mDragView.measureCount + ", layout=" + mDragView.layoutCount);
+    }
+
+    @UiThreadTest
+    public void testDragSession() {
+        _inflate(R.layout.bench_drag);
+        mDragLayout.attachViewPager(mViewPager);
+        _dragSession();
+        _report("drag");
+        // 拖拽和回弹通过 offsetTopAndBottom 完成，不应该触发重新布局
+        assertEquals(0, mDragView.measureCount);
+    }
+
+    @UiThreadTest
+    public void testPagerSession() {
+        _inflate(R.layout.bench_drag);
+        mDragLayout.attachViewPager(mViewPager);
+        _pagerSession();
+        _report("pager");
+    }
+
+    @UiThreadTest
+    public void testDragOutsideRemeasureCached() {
+        _inflate(R.layout.bench_drag_outside);
+        for (int i = 0; i < FRAME_COUNT; i++) {
+            // 只有父布局重新测量，DragView 内容不变，应跳过二次测量
+            mDragLayout.requestLayout();
+            _traversal();
+        }
+        _report("drag_outside remeasure cached");
+        // 系统的测量缓存可能再省掉一部分测量，所以只限定上限：每帧最多测量一次
+        assertTrue("dragView measure=" + mDragView.measureCount, mDragView.measureCount <= FRAME_COUNT);
+    }
+
+    @UiThreadTest
+    public void testDragOutsideRemeasureContentChanged() {
+        _inflate(R.layout.bench_drag_outside);
+        for (int i = 0; i < FRAME_COUNT; i++) {
+            // DragView 自身请求重新布局，内容可能变化，不能使用缓存，需要正常测量和二次测量
+            mDragView.requestLayout();
+            _traversal();
+        }
+        _report("drag_outside remeasure content changed");
+        assertEquals(FRAME_COUNT * 2, mDragView.measureCount);
+    }
+}
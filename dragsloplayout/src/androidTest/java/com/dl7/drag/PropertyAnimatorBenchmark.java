@@ -0,0 +1,79 @@
+package com.dl7.drag;
+
+import android.animation.ObjectAnimator;
+import android.test.InstrumentationTestCase;
+import android.test.UiThreadTest;
+import android.util.Log;
+import android.view.View;
+
+/**
+ * Created by long on 2016/11/24.
+ * 对比属性名字符串和 Property 对象两种方式创建的 ObjectAnimator 的启动耗时和每帧耗时
+ */
+public class PropertyAnimatorBenchmark extends InstrumentationTestCase {
+
+    private static final String TAG = "PropertyAnimatorBench";
+    private static final int START_COUNT = 500;
+    private static final int FRAME_COUNT = 2000;
+    private static final long DURATION = 400;
+
+    private View mTarget;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mTarget = new View(getInstrumentation().getContext());
+    }
+
+    private ObjectAnimator _createByName() {
+        return ObjectAnimator.ofFloat(mTarget, "translationX", 0, 100).setDuration(DURATION);
+    }
+
+    private ObjectAnimator _createByProperty() {
+        return ObjectAnimator.ofFloat(mTarget, View.TRANSLATION_X, 0, 100).setDuration(DURATION);
+    }
+
+    /**
+     * 启动耗时：创建、启动并取消，包含第一次查找 setter 的开销
+     */
+    private long _startLatency(boolean byProperty) {
+        long startTime = System.nanoTime();
+        for (int i = 0; i < START_COUNT; i++) {
+            ObjectAnimator animator = byProperty ? _createByProperty() : _createByName();
+            animator.start();
+            animator.cancel();
+        }
+        return (System.nanoTime() - startTime) / START_COUNT;
+    }
+
+    /**
+     * 每帧耗时：通过 setCurrentPlayTime 逐帧计算并设置属性值
+     */
+    private long _frameCost(boolean byProperty) {
+        ObjectAnimator animator = byProperty ? _createByProperty() : _createByName();
+        long startTime = System.nanoTime();
+        for (int i = 0; i < FRAME_COUNT; i++) {
+            animator.setCurrentPlayTime(i % DURATION);
+        }
+        return (System.nanoTime() - startTime) / FRAME_COUNT;
+    }
+
+    @UiThreadTest
+    public void testStartLatency() {
+        // 预热
+        _startLatency(false);
+        _startLatency(true);
+        long byName = _startLatency(false);
+        long byProperty = _startLatency(true);
+        Log.i(TAG, "start latency: name=" + byName + " ns, property=" + byProperty + " ns");
+    }
+
+    @UiThreadTest
+    public void testFrameCost() {
+        _frameCost(false);
+        _frameCost(true);
+        long byName = _frameCost(false);
+        long byProperty = _frameCost(true);
+        Log.i(TAG, "frame cost: name=" + byName + " ns, property=" + byProperty + " ns");
+    }
+}
@@ -0,0 +1,83 @@
+package com.dl7.drag;
+
+import android.test.InstrumentationTestCase;
+import android.test.UiThreadTest;
+import android.util.Log;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import com.dl7.drag.animate.AnimatorPresenter;
+import com.dl7.drag.animate.KeyframeSpec;
+import com.dl7.drag.animate.KeyframeSpecs;
+import com.dl7.drag.animate.SpecViewAnimator;
+
+/**
+ * Created by long on 2016/11/24.
+ * 测量库实际使用的关键帧动画的启动耗时，以及 ViewPager 联动时按进度计算一帧的耗时
+ */
+public class SpecAnimatorBenchmark extends InstrumentationTestCase {
+
+    private static final String TAG = "SpecAnimatorBench";
+    private static final int START_COUNT = 500;
+    private static final int FRAME_COUNT = 2000;
+    private static final long DURATION = 400;
+
+    private View mTarget;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        FrameLayout parent = new FrameLayout(getInstrumentation().getContext());
+        mTarget = new View(getInstrumentation().getContext());
+        parent.addView(mTarget, new FrameLayout.LayoutParams(1080, 300));
+        parent.measure(View.MeasureSpec.makeMeasureSpec(1080, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(1920, View.MeasureSpec.EXACTLY));
+        parent.layout(0, 0, 1080, 1920);
+    }
+
+    /**
+     * 启动耗时：绑定目标、启动并取消，第一次绑定时创建内部的 ValueAnimator
+     */
+    private long _startLatency(KeyframeSpec spec) {
+        SpecViewAnimator animator = new SpecViewAnimator(spec);
+        long startTime = System.nanoTime();
+        for (int i = 0; i < START_COUNT; i++) {
+            animator.setTarget(mTarget)
+                    .setDuration(DURATION);
+            animator.start();
+            animator.cancel();
+        }
+        return (System.nanoTime() - startTime) / START_COUNT;
+    }
+
+    /**
+     * 每帧耗时：按进度计算并设置一帧，和 ViewPager 联动时走同一条路径
+     */
+    private long _frameCost(AnimatorPresenter presenter) {
+        long startTime = System.nanoTime();
+        for (int i = 0; i < FRAME_COUNT; i++) {
+            presenter.handleAnimateFrame(mTarget, (i % DURATION) / (float) DURATION);
+        }
+        return (System.nanoTime() - startTime) / FRAME_COUNT;
+    }
+
+    @UiThreadTest
+    public void testStartLatency() {
+        // 预热
+        _startLatency(KeyframeSpecs.SLIDE_BOTTOM_IN);
+        long slide = _startLatency(KeyframeSpecs.SLIDE_BOTTOM_IN);
+        long zoomLeft = _startLatency(KeyframeSpecs.ZOOM_LEFT_IN);
+        Log.i(TAG, "start latency: slide=" + slide + " ns, zoomLeft=" + zoomLeft + " ns");
+    }
+
+    @UiThreadTest
+    public void testFrameCost() {
+        AnimatorPresenter slide = new AnimatorPresenter();
+        AnimatorPresenter zoomLeft = new AnimatorPresenter();
+        zoomLeft.setAnimatorMode(DragSlopLayout.ZOOM_LEFT);
+        _frameCost(slide);
+        long slideCost = _frameCost(slide);
+        long zoomLeftCost = _frameCost(zoomLeft);
+        Log.i(TAG, "frame cost: slide=" + slideCost + " ns, zoomLeft=" + zoomLeftCost + " ns");
+    }
+}
@@ -0,0 +1,54 @@
+package com.dl7.drag;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.view.Choreographer;
+
+/**
+ * Created by long on 2016/11/29.
+ * Choreographer 只在 API 16 以上存在，单独放在一个类中避免低版本加载，调用前先判断 {@link #isSupported()}
+ */
+final class ChoreographerCompat {
+
+    private ChoreographerCompat() {
+        throw new Error("Do not need instantiate!");
+    }
+
+    /**
+     * 帧回调
+     */
+    interface FrameCallback {
+
+        /**
+         * @param frameTimeNanos 帧时间，和 System.nanoTime() 同一时基
+         */
+        void doFrame(long frameTimeNanos);
+    }
+
+    static boolean isSupported() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN;
+    }
+
+    /**
+     * 创建 Choreographer.FrameCallback，创建一次之后重复使用
+     */
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    static Object createCallback(final FrameCallback callback) {
+        return new Choreographer.FrameCallback() {
+            @Override
+            public void doFrame(long frameTimeNanos) {
+                callback.doFrame(frameTimeNanos);
+            }
+        };
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    static void post(Object callback) {
+        Choreographer.getInstance().postFrameCallback((Choreographer.FrameCallback) callback);
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    static void remove(Object callback) {
+        Choreographer.getInstance().removeFrameCallback((Choreographer.FrameCallback) callback);
+    }
+}
@@ -0,0 +1,154 @@
+package com.dl7.drag;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.view.View;
+
+/**
+ * Created by long on 2016/11/30.
+ * 绘制在 DragSlopLayout 上层的调试信息：文字信息和最近的帧间隔柱状图
+ * 帧间隔只在运动期间通过 Choreographer 记录，静止时不占用资源；API 16 以下没有帧间隔
+ */
+final class DebugOverlay implements ChoreographerCompat.FrameCallback {
+
+    // 记录的帧数
+    private static final int FRAME_HISTORY = 60;
+
+    private final View mHost;
+    // 屏幕刷新间隔，柱状图以它为基准
+    private final long mRefreshIntervalNanos;
+    private final float mDensity;
+    // 环形数组保存最近的帧间隔
+    private final long[] mFrameIntervals = new long[FRAME_HISTORY];
+    private int mFrameIndex;
+    private int mFrameCount;
+    private long mLastFrameNanos;
+    private boolean mIsRecording = false;
+    // Choreographer.FrameCallback，第一次使用时创建
+    private Object mFrameCallback;
+
+    private final Paint mTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint mBackgroundPaint = new Paint();
+    private final Paint mBarPaint = new Paint();
+    private final Paint mJankBarPaint = new Paint();
+    private final Paint mLinePaint = new Paint();
+    // 文字内容，每行以 '\n' 分隔，绘制前由 DragSlopLayout 填充
+    private final StringBuilder mText = new StringBuilder();
+
+    /**
+     * @param host                 宿主视图
+     * @param refreshIntervalNanos 屏幕刷新间隔，和 {@link FrameMonitor} 使用同一个值
+     */
+    DebugOverlay(View host, long refreshIntervalNanos) {
+        mHost = host;
+        mRefreshIntervalNanos = refreshIntervalNanos;
+        mDensity = host.getResources().getDisplayMetrics().density;
+        mTextPaint.setColor(Color.WHITE);
+        mTextPaint.setTextSize(11 * mDensity);
+        mBackgroundPaint.setColor(0x99000000);
+        mBarPaint.setColor(0xFF4CAF50);
+        mJankBarPaint.setColor(0xFFF44336);
+        mLinePaint.setColor(0xFFFFEB3B);
+        mLinePaint.setStrokeWidth(mDensity);
+    }
+
+    /**
+     * 清空并返回文字内容
+     */
+    StringBuilder beginText() {
+        mText.setLength(0);
+        return mText;
+    }
+
+    /**
+     * 开始记录帧间隔，在开始运动时调用
+     */
+    void startRecording() {
+        if (mIsRecording || !ChoreographerCompat.isSupported()) {
+            return;
+        }
+        mIsRecording = true;
+        mLastFrameNanos = 0;
+        if (mFrameCallback == null) {
+            mFrameCallback = ChoreographerCompat.createCallback(this);
+        }
+        ChoreographerCompat.post(mFrameCallback);
+    }
+
+    void stopRecording() {
+        if (!mIsRecording) {
+            return;
+        }
+        mIsRecording = false;
+        ChoreographerCompat.remove(mFrameCallback);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!mIsRecording) {
+            return;
+        }
+        if (mLastFrameNanos != 0) {
+            mFrameIntervals[mFrameIndex] = frameTimeNanos - mLastFrameNanos;
+            mFrameIndex = (mFrameIndex + 1) % FRAME_HISTORY;
+            mFrameCount = Math.min(mFrameCount + 1, FRAME_HISTORY);
+        }
+        mLastFrameNanos = frameTimeNanos;
+        mHost.invalidate();
+        ChoreographerCompat.post(mFrameCallback);
+    }
+
+    /**
+     * 绘制文字和帧间隔柱状图
+     */
+    void draw(Canvas canvas) {
+        final float padding = 6 * mDensity;
+        final float lineHeight = mTextPaint.getTextSize() * 1.3f;
+        final float graphHeight = 40 * mDensity;
+        int lineCount = 1;
+        for (int i = 0; i < mText.length(); i++) {
+            if (mText.charAt(i) == '\n') {
+                lineCount++;
+            }
+        }
+        final float width = mHost.getWidth();
+        final float height = padding * 3 + lineHeight * lineCount + graphHeight;
+        canvas.drawRect(0, 0, width, height, mBackgroundPaint);
+        // 文字
+        float y = padding + mTextPaint.getTextSize();
+        int start = 0;
+        for (int i = 0; i <= mText.length(); i++) {
+            if (i == mText.length() || mText.charAt(i) == '\n') {
+                canvas.drawText(mText, start, i, padding, y, mTextPaint);
+                y += lineHeight;
+                start = i + 1;
+            }
+        }
+        // 帧间隔，高度 graphHeight 对应 3 个刷新间隔
+        final float graphBottom = height - padding;
+        final float barWidth = (width - padding * 2) / FRAME_HISTORY;
+        final float scale = graphHeight / (mRefreshIntervalNanos * 3);
+        for (int i = 0; i < mFrameCount; i++) {
+            // 从最早的一帧开始
+            final int index = (mFrameIndex - mFrameCount + i + FRAME_HISTORY) % FRAME_HISTORY;
+            final long interval = mFrameIntervals[index];
+            final float barHeight = Math.min(interval * scale, graphHeight);
+            final float left = padding + i * barWidth;
+            canvas.drawRect(left, graphBottom - barHeight, left + barWidth * 0.8f, graphBottom,
+                    interval * 2 >= mRefreshIntervalNanos * 3 ? mJankBarPaint : mBarPaint);
+        }
+        final float refreshLine = graphBottom - mRefreshIntervalNanos * scale;
+        canvas.drawLine(padding, refreshLine, width - padding, refreshLine, mLinePaint);
+    }
+
+    /**
+     * 最近一帧的间隔(毫秒)，没有记录返回 0
+     */
+    float getLastFrameMillis() {
+        if (mFrameCount == 0) {
+            return 0;
+        }
+        return mFrameIntervals[(mFrameIndex - 1 + FRAME_HISTORY) % FRAME_HISTORY] / 1000000f;
+    }
+}
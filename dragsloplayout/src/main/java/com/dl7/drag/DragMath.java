@@ -0,0 +1,96 @@
+package com.dl7.drag;
+
+/**
+ * Created by long on 2016/11/30.
+ * DragSlopLayout 中和视图无关的位置计算：布局锚点、拖拽百分比、ViewPager 联动、模糊和视差
+ * 注意：这个类不依赖 Android 框架，可以直接在 JVM 上测试和做基准测试
+ */
+public final class DragMath {
+
+    // ViewPager 滑动 1/3 页时 DragView 完全隐藏
+    public static final float PAGER_HIDE_SPEED = 3.0f;
+    // ClipDrawable 的最大 level
+    public static final int MAX_LEVEL = 10000;
+
+    private DragMath() {
+        throw new Error("Do not need instantiate!");
+    }
+
+    /**
+     * 展开时 DragView 的 Top 值
+     *
+     * @param bottom      布局底部
+     * @param childHeight DragView 高度
+     */
+    public static int expandedTop(int bottom, int childHeight) {
+        return bottom - childHeight;
+    }
+
+    /**
+     * 收缩时 DragView 的 Top 值
+     *
+     * @param bottom    布局底部
+     * @param fixHeight 固定高度
+     */
+    public static int collapsedTop(int bottom, int fixHeight) {
+        return bottom - fixHeight;
+    }
+
+    /**
+     * 释放时决定展开还是收缩的临界 Top 值，位于展开和收缩的中间
+     */
+    public static int criticalTop(int bottom, int childHeight, int fixHeight) {
+        return bottom - (childHeight - fixHeight) / 2 - fixHeight;
+    }
+
+    /**
+     * DragView 在收缩和展开之间的百分比，收缩为 0，展开为 1
+     */
+    public static float dragPercent(int top, int collapsedTop, int expandedTop) {
+        return (collapsedTop - top) * 1.0f / (collapsedTop - expandedTop);
+    }
+
+    /**
+     * ViewPager 滑动百分比换算成 DragView 隐藏的百分比，超过 1 表示已经完全隐藏
+     */
+    public static float pagerHidePercent(float pagerPercent) {
+        return pagerPercent * PAGER_HIDE_SPEED;
+    }
+
+    /**
+     * 和 ViewPager 联动隐藏时 DragView 的 Top 值
+     *
+     * @param curTop      开始滑动时 DragView 的 Top 值
+     * @param hidePercent 隐藏的百分比
+     */
+    public static int pagerHideTop(int curTop, float hidePercent, int collapsedTop, int fixHeight) {
+        return (int) ((collapsedTop + fixHeight - curTop) * hidePercent + curTop);
+    }
+
+    /**
+     * 局部模糊时 ClipDrawable 的 level，和 DragView 可见高度占主视图的比例一致
+     */
+    public static int blurLevel(int visibleHeight, int mainViewHeight) {
+        return (int) ((visibleHeight * 1.0f / mainViewHeight) * MAX_LEVEL);
+    }
+
+    /**
+     * 主视图的视差位移
+     *
+     * @param parallax 视差系数，1 表示主视图不动
+     */
+    public static float parallaxTranslation(int visibleHeight, float parallax) {
+        return -visibleHeight * (1 - parallax);
+    }
+
+    /**
+     * 按释放速度估算自动滚动的终点，限定在展开和收缩之间
+     *
+     * @param duration 按速度滚动的时间(秒)
+     */
+    public static int flingFinalTop(int top, float yvel, float duration, int expandedTop, int collapsedTop) {
+        int finalTop = (int) (yvel * duration + top);
+        finalTop = Math.max(expandedTop, finalTop);
+        return Math.min(collapsedTop, finalTop);
+    }
+}
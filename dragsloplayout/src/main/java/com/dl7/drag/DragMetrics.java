@@ -0,0 +1,267 @@
+package com.dl7.drag;
+
+import java.io.PrintWriter;
+import java.util.Locale;
+
+/**
+ * Created by long on 2016/11/30.
+ * DragSlopLayout 的运行统计，每个实例一份，同时累加到所有实例共用的 {@link #global()}
+ * 记录时不分配内存，可以在任意线程调用；通过 {@link #snapshot()} 获取快照导出，或者 {@link #dump(PrintWriter)} 输出到 bug report
+ */
+public final class DragMetrics {
+
+    // 计数器
+    public static final int COUNTER_BLUR = 0;
+    public static final int COUNTER_BLUR_CACHE_HIT = 1;
+    public static final int COUNTER_TOUCH_INTERCEPTED = 2;
+    public static final int COUNTER_TOUCH_PASSED = 3;
+    public static final int COUNTER_SETTLE = 4;
+    public static final int COUNTER_ANIMATOR_START = 5;
+    public static final int COUNTER_ANIMATOR_CANCEL = 6;
+    public static final int COUNTER_COUNT = 7;
+
+    // 延迟直方图
+    public static final int HISTOGRAM_BLUR_LATENCY = 0;
+    public static final int HISTOGRAM_SETTLE_DURATION = 1;
+    public static final int HISTOGRAM_COUNT = 2;
+
+    private static final String[] COUNTER_NAMES = {
+            "blur", "blurCacheHit", "touchIntercepted", "touchPassed", "settle", "animatorStart", "animatorCancel"
+    };
+    private static final String[] HISTOGRAM_NAMES = {"blurLatency", "settleDuration"};
+
+    // 直方图分组的上限(毫秒)，按 2 的幂增长，最后一组不设上限
+    static final int[] BUCKET_UPPER_MILLIS = {1, 2, 4, 8, 16, 32, 64, 128, 256, 512, 1024};
+    public static final int BUCKET_COUNT = BUCKET_UPPER_MILLIS.length + 1;
+
+    private static final DragMetrics sGlobal = new DragMetrics(null);
+
+    private final DragMetrics mParent;
+    private final long[] mCounters = new long[COUNTER_COUNT];
+    private final long[][] mBuckets = new long[HISTOGRAM_COUNT][BUCKET_COUNT];
+    private final long[] mLatencyCount = new long[HISTOGRAM_COUNT];
+    private final long[] mLatencySumNanos = new long[HISTOGRAM_COUNT];
+    private final long[] mLatencyMaxNanos = new long[HISTOGRAM_COUNT];
+
+    DragMetrics(DragMetrics parent) {
+        mParent = parent;
+    }
+
+    /**
+     * 创建累加到 {@link #global()} 的统计
+     */
+    static DragMetrics create() {
+        return new DragMetrics(sGlobal);
+    }
+
+    /**
+     * 所有 DragSlopLayout 的累计统计
+     */
+    public static DragMetrics global() {
+        return sGlobal;
+    }
+
+    /**
+     * 计数器加 1
+     *
+     * @param counter COUNTER_ 开头的常量
+     */
+    void increment(int counter) {
+        synchronized (this) {
+            mCounters[counter]++;
+        }
+        if (mParent != null) {
+            mParent.increment(counter);
+        }
+    }
+
+    /**
+     * 记录一次延迟
+     *
+     * @param histogram     HISTOGRAM_ 开头的常量
+     * @param latencyNanos  延迟
+     */
+    void recordLatency(int histogram, long latencyNanos) {
+        if (latencyNanos < 0) {
+            return;
+        }
+        final int bucket = _bucketOf(latencyNanos);
+        synchronized (this) {
+            mBuckets[histogram][bucket]++;
+            mLatencyCount[histogram]++;
+            mLatencySumNanos[histogram] += latencyNanos;
+            if (latencyNanos > mLatencyMaxNanos[histogram]) {
+                mLatencyMaxNanos[histogram] = latencyNanos;
+            }
+        }
+        if (mParent != null) {
+            mParent.recordLatency(histogram, latencyNanos);
+        }
+    }
+
+    private static int _bucketOf(long latencyNanos) {
+        final long millis = latencyNanos / 1000000;
+        for (int i = 0; i < BUCKET_UPPER_MILLIS.length; i++) {
+            if (millis < BUCKET_UPPER_MILLIS[i]) {
+                return i;
+            }
+        }
+        return BUCKET_UPPER_MILLIS.length;
+    }
+
+    /**
+     * 清空统计，不影响 {@link #global()}
+     */
+    public synchronized void reset() {
+        for (int i = 0; i < COUNTER_COUNT; i++) {
+            mCounters[i] = 0;
+        }
+        for (int i = 0; i < HISTOGRAM_COUNT; i++) {
+            for (int j = 0; j < BUCKET_COUNT; j++) {
+                mBuckets[i][j] = 0;
+            }
+            mLatencyCount[i] = 0;
+            mLatencySumNanos[i] = 0;
+            mLatencyMaxNanos[i] = 0;
+        }
+    }
+
+    /**
+     * 获取当前统计的快照
+     */
+    public synchronized Snapshot snapshot() {
+        Histogram[] histograms = new Histogram[HISTOGRAM_COUNT];
+        for (int i = 0; i < HISTOGRAM_COUNT; i++) {
+            histograms[i] = new Histogram(mBuckets[i].clone(), mLatencyCount[i], mLatencySumNanos[i],
+                    mLatencyMaxNanos[i]);
+        }
+        return new Snapshot(mCounters.clone(), histograms);
+    }
+
+    /**
+     * 输出统计，用于 dumpsys 或 bug report
+     */
+    public void dump(PrintWriter writer) {
+        snapshot().dump(writer, this == sGlobal ? "DragMetrics (global)" : "DragMetrics");
+    }
+
+    /**
+     * 统计快照
+     */
+    public static final class Snapshot {
+
+        private final long[] mCounters;
+        private final Histogram[] mHistograms;
+
+        Snapshot(long[] counters, Histogram[] histograms) {
+            mCounters = counters;
+            mHistograms = histograms;
+        }
+
+        /**
+         * @param counter COUNTER_ 开头的常量
+         */
+        public long getCounter(int counter) {
+            return mCounters[counter];
+        }
+
+        /**
+         * @param histogram HISTOGRAM_ 开头的常量
+         */
+        public Histogram getHistogram(int histogram) {
+            return mHistograms[histogram];
+        }
+
+        /**
+         * 模糊时复用缓存 Bitmap 的比例，没有模糊过返回 0
+         */
+        public float getBlurCacheHitRate() {
+            final long count = mCounters[COUNTER_BLUR];
+            return count == 0 ? 0 : mCounters[COUNTER_BLUR_CACHE_HIT] * 1.0f / count;
+        }
+
+        /**
+         * 被拦截的触摸事件比例，没有触摸事件返回 0
+         */
+        public float getTouchInterceptRate() {
+            final long count = mCounters[COUNTER_TOUCH_INTERCEPTED] + mCounters[COUNTER_TOUCH_PASSED];
+            return count == 0 ? 0 : mCounters[COUNTER_TOUCH_INTERCEPTED] * 1.0f / count;
+        }
+
+        void dump(PrintWriter writer, String title) {
+            writer.println(title + ":");
+            for (int i = 0; i < COUNTER_COUNT; i++) {
+                writer.println("  " + COUNTER_NAMES[i] + "=" + mCounters[i]);
+            }
+            writer.println(String.format(Locale.US, "  blurCacheHitRate=%.1f%%", getBlurCacheHitRate() * 100));
+            writer.println(String.format(Locale.US, "  touchInterceptRate=%.1f%%", getTouchInterceptRate() * 100));
+            for (int i = 0; i < HISTOGRAM_COUNT; i++) {
+                writer.println("  " + HISTOGRAM_NAMES[i] + ": " + mHistograms[i]);
+            }
+            writer.flush();
+        }
+    }
+
+    /**
+     * 延迟直方图快照，分组上限为 1、2、4 ... 1024 毫秒，最后一组不设上限
+     */
+    public static final class Histogram {
+
+        private final long[] mBuckets;
+        private final long mCount;
+        private final long mSumNanos;
+        private final long mMaxNanos;
+
+        Histogram(long[] buckets, long count, long sumNanos, long maxNanos) {
+            mBuckets = buckets;
+            mCount = count;
+            mSumNanos = sumNanos;
+            mMaxNanos = maxNanos;
+        }
+
+        public long getCount() {
+            return mCount;
+        }
+
+        public float getMeanMillis() {
+            return mCount == 0 ? 0 : mSumNanos / 1000000f / mCount;
+        }
+
+        public float getMaxMillis() {
+            return mMaxNanos / 1000000f;
+        }
+
+        /**
+         * 各分组的次数，长度为 {@link DragMetrics#BUCKET_COUNT}
+         */
+        public long[] getBuckets() {
+            return mBuckets.clone();
+        }
+
+        /**
+         * 百分位数的近似值，返回所在分组的上限，落在最后一组则返回最大值
+         *
+         * @param percentile 0~100
+         */
+        public float getPercentileMillis(float percentile) {
+            if (mCount == 0) {
+                return 0;
+            }
+            final long target = (long) Math.ceil(mCount * percentile / 100);
+            long count = 0;
+            for (int i = 0; i < BUCKET_UPPER_MILLIS.length; i++) {
+                count += mBuckets[i];
+                if (count >= target) {
+                    return Math.min(BUCKET_UPPER_MILLIS[i], getMaxMillis());
+                }
+            }
+            return getMaxMillis();
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "count=%d mean=%.2fms p50<=%.0fms p90<=%.0fms max=%.2fms",
+                    mCount, getMeanMillis(), getPercentileMillis(50), getPercentileMillis(90), getMaxMillis());
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.dl7.drag;
+
+import android.support.v4.view.ViewCompat;
+import android.view.View;
+
+import com.dl7.drag.DragSlopLayout.OnDragFrameListener;
+import com.dl7.drag.DragSlopLayout.OnDragPositionListener;
+
+/**
+ * Created by long on 2016/11/29.
+ * 拖拽位置的分发，支持多个监听器
+ * 1. 监听器保存在数组中，添加和删除时复制数组，分发时直接遍历当前数组，不分配内存，在回调中添加或删除监听器也是安全的
+ * 2. OnDragPositionListener 每次位置变化都会回调，一帧内可能回调多次
+ * 3. OnDragFrameListener 每帧最多回调一次，带上这一帧最新的位置和帧时间
+ */
+final class DragPositionDispatcher {
+
+    private static final OnDragPositionListener[] EMPTY_POSITION_LISTENERS = new OnDragPositionListener[0];
+    private static final OnDragFrameListener[] EMPTY_FRAME_LISTENERS = new OnDragFrameListener[0];
+
+    private final View mHost;
+    private OnDragPositionListener[] mPositionListeners = EMPTY_POSITION_LISTENERS;
+    private OnDragFrameListener[] mFrameListeners = EMPTY_FRAME_LISTENERS;
+    // 这一帧最新的位置
+    private int mVisibleHeight;
+    private float mPercent;
+    private boolean mIsUp;
+    // 是否已经请求了下一帧
+    private boolean mIsFrameScheduled = false;
+    // API 16 以上为 Choreographer.FrameCallback，第一次使用时创建
+    private Object mFrameCallback;
+    // API 16 以下通过 postOnAnimation 调度
+    private final Runnable mFrameRunnable = new Runnable() {
+        @Override
+        public void run() {
+            dispatchFrame(System.nanoTime());
+        }
+    };
+
+    /**
+     * @param host 用于 API 16 以下调度帧回调的视图
+     */
+    DragPositionDispatcher(View host) {
+        mHost = host;
+    }
+
+    void addPositionListener(OnDragPositionListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener can not be null.");
+        }
+        if (_indexOf(mPositionListeners, listener) >= 0) {
+            return;
+        }
+        final int count = mPositionListeners.length;
+        OnDragPositionListener[] listeners = new OnDragPositionListener[count + 1];
+        System.arraycopy(mPositionListeners, 0, listeners, 0, count);
+        listeners[count] = listener;
+        mPositionListeners = listeners;
+    }
+
+    void removePositionListener(OnDragPositionListener listener) {
+        final int index = _indexOf(mPositionListeners, listener);
+        if (index < 0) {
+            return;
+        }
+        final int count = mPositionListeners.length;
+        if (count == 1) {
+            mPositionListeners = EMPTY_POSITION_LISTENERS;
+            return;
+        }
+        OnDragPositionListener[] listeners = new OnDragPositionListener[count - 1];
+        System.arraycopy(mPositionListeners, 0, listeners, 0, index);
+        System.arraycopy(mPositionListeners, index + 1, listeners, index, count - index - 1);
+        mPositionListeners = listeners;
+    }
+
+    void addFrameListener(OnDragFrameListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener can not be null.");
+        }
+        if (_indexOf(mFrameListeners, listener) >= 0) {
+            return;
+        }
+        final int count = mFrameListeners.length;
+        OnDragFrameListener[] listeners = new OnDragFrameListener[count + 1];
+        System.arraycopy(mFrameListeners, 0, listeners, 0, count);
+        listeners[count] = listener;
+        mFrameListeners = listeners;
+    }
+
+    void removeFrameListener(OnDragFrameListener listener) {
+        final int index = _indexOf(mFrameListeners, listener);
+        if (index < 0) {
+            return;
+        }
+        final int count = mFrameListeners.length;
+        if (count == 1) {
+            mFrameListeners = EMPTY_FRAME_LISTENERS;
+            return;
+        }
+        OnDragFrameListener[] listeners = new OnDragFrameListener[count - 1];
+        System.arraycopy(mFrameListeners, 0, listeners, 0, index);
+        System.arraycopy(mFrameListeners, index + 1, listeners, index, count - index - 1);
+        mFrameListeners = listeners;
+    }
+
+    /**
+     * 分发位置变化
+     *
+     * @param visibleHeight 可见高度
+     * @param percent       可见百分比
+     * @param isUp          是否向上拖拽
+     */
+    void dispatch(int visibleHeight, float percent, boolean isUp) {
+        final OnDragPositionListener[] listeners = mPositionListeners;
+        for (int i = 0; i < listeners.length; i++) {
+            listeners[i].onDragPosition(visibleHeight, percent, isUp);
+        }
+        if (mFrameListeners.length > 0) {
+            mVisibleHeight = visibleHeight;
+            mPercent = percent;
+            mIsUp = isUp;
+            _scheduleFrame();
+        }
+    }
+
+    /**
+     * 分发这一帧最新的位置
+     *
+     * @param frameTimeNanos 帧时间，和 System.nanoTime() 同一时基
+     */
+    void dispatchFrame(long frameTimeNanos) {
+        mIsFrameScheduled = false;
+        final OnDragFrameListener[] listeners = mFrameListeners;
+        for (int i = 0; i < listeners.length; i++) {
+            listeners[i].onDragFrame(mVisibleHeight, mPercent, mIsUp, frameTimeNanos);
+        }
+    }
+
+    /**
+     * 取消还没执行的帧回调，在视图移除时调用
+     */
+    void cancelFrame() {
+        if (!mIsFrameScheduled) {
+            return;
+        }
+        mIsFrameScheduled = false;
+        if (mFrameCallback != null) {
+            ChoreographerCompat.remove(mFrameCallback);
+        } else {
+            mHost.removeCallbacks(mFrameRunnable);
+        }
+    }
+
+    private void _scheduleFrame() {
+        if (mIsFrameScheduled) {
+            return;
+        }
+        mIsFrameScheduled = true;
+        if (ChoreographerCompat.isSupported()) {
+            if (mFrameCallback == null) {
+                mFrameCallback = ChoreographerCompat.createCallback(new ChoreographerCompat.FrameCallback() {
+                    @Override
+                    public void doFrame(long frameTimeNanos) {
+                        dispatchFrame(frameTimeNanos);
+                    }
+                });
+            }
+            ChoreographerCompat.post(mFrameCallback);
+        } else {
+            ViewCompat.postOnAnimation(mHost, mFrameRunnable);
+        }
+    }
+
+    private static int _indexOf(Object[] array, Object item) {
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] == item) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,128 @@
+package com.dl7.drag;
+
+/**
+ * Created by long on 2016/11/29.
+ * 一次拖拽、滚动或动画过程的帧统计，从离开静止状态开始，到回到静止状态结束
+ * 帧间隔按掉帧数分为 {@link #BUCKET_COUNT} 组：0、1、2、3~4、5~9、10 以上
+ */
+public final class DragSession {
+
+    // 各分组的最小掉帧数
+    static final int[] BUCKET_DROPPED_FRAMES = {0, 1, 2, 3, 5, 10};
+    public static final int BUCKET_COUNT = BUCKET_DROPPED_FRAMES.length;
+
+    private final int mMode;
+    private final DragState mEndState;
+    private final long mDurationNanos;
+    private final long mRefreshIntervalNanos;
+    private final int mFrameCount;
+    private final int mJankFrameCount;
+    private final int mDroppedFrameCount;
+    private final long mMaxFrameIntervalNanos;
+    private final int[] mHistogram;
+
+    DragSession(int mode, DragState endState, long durationNanos, long refreshIntervalNanos, int frameCount,
+                int jankFrameCount, int droppedFrameCount, long maxFrameIntervalNanos, int[] histogram) {
+        mMode = mode;
+        mEndState = endState;
+        mDurationNanos = durationNanos;
+        mRefreshIntervalNanos = refreshIntervalNanos;
+        mFrameCount = frameCount;
+        mJankFrameCount = jankFrameCount;
+        mDroppedFrameCount = droppedFrameCount;
+        mMaxFrameIntervalNanos = maxFrameIntervalNanos;
+        mHistogram = histogram;
+    }
+
+    /**
+     * DragSlopLayout 的模式，MODE_DRAG、MODE_ANIMATE 或 MODE_DRAG_OUTSIDE
+     */
+    public int getMode() {
+        return mMode;
+    }
+
+    /**
+     * 结束时的状态
+     */
+    public DragState getEndState() {
+        return mEndState;
+    }
+
+    /**
+     * 第一帧到最后一帧的时长
+     */
+    public long getDurationNanos() {
+        return mDurationNanos;
+    }
+
+    /**
+     * 屏幕刷新间隔
+     */
+    public long getRefreshIntervalNanos() {
+        return mRefreshIntervalNanos;
+    }
+
+    /**
+     * 统计的帧间隔数
+     */
+    public int getFrameCount() {
+        return mFrameCount;
+    }
+
+    /**
+     * 掉帧的帧数，帧间隔达到 1.5 个刷新间隔算一次
+     */
+    public int getJankFrameCount() {
+        return mJankFrameCount;
+    }
+
+    /**
+     * 总共掉的帧数
+     */
+    public int getDroppedFrameCount() {
+        return mDroppedFrameCount;
+    }
+
+    public long getMaxFrameIntervalNanos() {
+        return mMaxFrameIntervalNanos;
+    }
+
+    /**
+     * 分组的最小掉帧数
+     *
+     * @param bucket 分组下标
+     */
+    public static int getBucketMinDroppedFrames(int bucket) {
+        return BUCKET_DROPPED_FRAMES[bucket];
+    }
+
+    /**
+     * 按掉帧数分组的帧数，长度为 {@link #BUCKET_COUNT}
+     */
+    public int[] getHistogram() {
+        return mHistogram.clone();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("DragSession{mode=").append(mMode)
+                .append(", endState=").append(mEndState)
+                .append(", durationMs=").append(mDurationNanos / 1000000)
+                .append(", frames=").append(mFrameCount)
+                .append(", janky=").append(mJankFrameCount)
+                .append(", dropped=").append(mDroppedFrameCount)
+                .append(", maxIntervalMs=").append(mMaxFrameIntervalNanos / 1000000f)
+                .append(", histogram=[");
+        for (int i = 0; i < mHistogram.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(BUCKET_DROPPED_FRAMES[i]);
+            if (i == mHistogram.length - 1) {
+                builder.append('+');
+            }
+            builder.append(':').append(mHistogram[i]);
+        }
+        return builder.append("]}").toString();
+    }
+}
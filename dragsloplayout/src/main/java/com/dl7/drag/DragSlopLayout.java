@@ -1,6 +1,7 @@
 package com.dl7.drag;
 
 import android.content.Context;
+import android.content.pm.ApplicationInfo;
 import android.content.res.TypedArray;
 import android.graphics.Bitmap;
 import android.graphics.Canvas;
@@ -11,6 +12,7 @@ import android.graphics.drawable.ColorDrawable;
 import android.graphics.drawable.Drawable;
 import android.os.Build;
 import android.support.annotation.IntDef;
+import android.support.annotation.RawRes;
 import android.support.v4.view.MotionEventCompat;
 import android.support.v4.view.ViewCompat;
 import android.support.v4.view.ViewPager;
@@ -19,9 +21,11 @@ import android.support.v4.widget.ScrollerCompat;
 import android.support.v4.widget.ViewDragHelper;
 import android.support.v8.renderscript.Allocation;
 import android.support.v8.renderscript.Element;
+import android.support.v8.renderscript.RSRuntimeException;
 import android.support.v8.renderscript.RenderScript;
 import android.support.v8.renderscript.ScriptIntrinsicBlur;
 import android.util.AttributeSet;
+import android.util.Log;
 import android.view.GestureDetector;
 import android.view.Gravity;
 import android.view.MotionEvent;
@@ -29,6 +33,9 @@ import android.view.View;
 import android.view.ViewConfiguration;
 import android.view.ViewGroup;
 import android.view.ViewParent;
+import android.view.ViewStub;
+import android.view.ViewTreeObserver;
+import android.view.WindowManager;
 import android.view.animation.BounceInterpolator;
 import android.view.animation.DecelerateInterpolator;
 import android.view.animation.Interpolator;
@@ -36,10 +43,15 @@ import android.widget.FrameLayout;
 import android.widget.ScrollView;
 
 import com.dl7.drag.animate.AnimatorPresenter;
+import com.dl7.drag.animate.AnimatorSpec;
+import com.dl7.drag.animate.AnimatorSpecLoader;
 import com.dl7.drag.animate.CustomViewAnimator;
+import com.dl7.drag.trace.GestureRecorder;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Created by long on 2016/9/6.
@@ -51,15 +63,6 @@ public class DragSlopLayout extends FrameLayout {
     public static final int MODE_ANIMATE = 2;
     public static final int MODE_DRAG_OUTSIDE = 3;
 
-    // 展开
-    static final int STATUS_EXPANDED = 1001;
-    // 收缩
-    static final int STATUS_COLLAPSED = 1002;
-    // 退出
-    static final int STATUS_EXIT = 1003;
-    // 滚动
-    static final int STATUS_SCROLL = 1004;
-
     // ViewDragHelper 的敏感度
     private static final float TOUCH_SLOP_SENSITIVITY = 1.0f;
     // 判断快速滑动的速率
@@ -69,6 +72,8 @@ public class DragSlopLayout extends FrameLayout {
 
     // 模式
     private int mMode;
+    // 模式策略，创建时根据模式选定，之后的事件和布局处理不再判断模式
+    private ModeStrategy mModeStrategy;
     // 固定高度
     private int mFixHeight;
     // 最大高度
@@ -86,8 +91,7 @@ public class DragSlopLayout extends FrameLayout {
     // 是否处于拖拽状态
     private boolean mIsDrag = false;
     // 拖拽状态
-    @DragStatus
-    private int mDragStatus = STATUS_EXPANDED;
+    private DragStateMachine mStateMachine;
     // 是否有 post 显示动画 Runnable
     private boolean mHasShowRunnable = false;
 
@@ -95,32 +99,53 @@ public class DragSlopLayout extends FrameLayout {
     private View mMainView;
     // 新增模糊视图，用来处理动态模糊效果，为布局的第2个子视图
     private View mBlurView;
-    // 可拖拽的视图，为布局的第3个子视图
+    // 可拖拽的视图，为布局文件中的第2个子视图
     private View mDragView;
+    // 布局文件中的第2个子视图为 ViewStub 时延迟加载 DragView，加载前用 fix_height 高度占位
+    private ViewStub mDragViewStub;
     // 拖拽帮助类
     private ViewDragHelper mDragHelper;
     // 下坠滚动辅助类
     private ScrollerCompat mFallBoundScroller;
     // 回升滚动辅助类
     private ScrollerCompat mDecelerateScroller;
-    // ViewPager 监听器
-    private ViewPager.OnPageChangeListener mViewPagerListener;
+    // 开始拖拽时的状态
+    private DragState mDragStartState;
+    // 联动的翻页控件驱动
+    private PagerDriver mPagerDriver;
+    // 联动的翻页控件是否在滑动
+    private boolean mIsPagerScrolling = false;
+    // 合并 ViewPager 联动的隐藏进度，每帧只应用一次
+    private final PagerHideCoalescer mPagerHideCoalescer = new PagerHideCoalescer(this,
+            new PagerHideCoalescer.Callback() {
+                @Override
+                public void onPagerHide(float percent, int curTop) {
+                    _hideDragView(percent, curTop);
+                    _checkMotion();
+                }
+            });
     // 动画持有者
     private AnimatorPresenter mAnimPresenter;
     // 和 ViewPager 联动时的自动执行进入动画的延迟时间，注意和动画的启动延迟时间区分
     private int mAutoAnimateDelay = 1000;
     // 是否手动执行了退出动画，如果为真则不再执行自动进入动画
     private boolean mIsDoOutAnim = false;
-    // 是否设置自定义动画，true 的话关闭 ViewPager 联动动画
-    private boolean mIsCustomAnimator = false;
     // 关联的 ScrollView，实现垂直方向的平滑滚动
     private View mAttachScrollView;
-    // 关联的 ViewPager，实现联动
-    private ViewPager mAttachViewPager;
     // 手势控制
     private GestureDetector mGestureDetector;
     // DragView的Top属性值
     private int mDragViewTop = 0;
+    // 测量缓存：上一次测量的 MeasureSpec 及 DragView 在父类测量后的尺寸
+    private int mLastWidthMeasureSpec;
+    private int mLastHeightMeasureSpec;
+    private int mLastDragMeasuredWidth = -1;
+    private int mLastDragMeasuredHeight = -1;
+    // 上一次对 DragView 的二次测量是否改变了它的尺寸
+    private boolean mIsDragRemeasured = true;
+    // 布局缓存：计算各临界 Top 值时的布局底部和 DragView 高度
+    private int mAnchorBottom = -1;
+    private int mAnchorChildHeight = -1;
 
 
     public DragSlopLayout(Context context) {
@@ -137,11 +162,7 @@ public class DragSlopLayout extends FrameLayout {
     }
 
     private void _init(Context context, AttributeSet attrs) {
-        mDragHelper = ViewDragHelper.create(this, TOUCH_SLOP_SENSITIVITY, callback);
-        mDragHelper.setEdgeTrackingEnabled(ViewDragHelper.EDGE_BOTTOM);
-        mGestureDetector = new GestureDetector(context, mGestureListener);
-        mFallBoundScroller = ScrollerCompat.create(context, new BounceInterpolator());
-        mDecelerateScroller = ScrollerCompat.create(context, new DecelerateInterpolator());
+        // ViewDragHelper、GestureDetector、Scroller 和模糊视图都在对应模式或功能第一次用到时才创建
         mMinTouchSlop = ViewConfiguration.get(context).getScaledTouchSlop();
 
         TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.DragSlopLayout, 0, 0);
@@ -150,14 +171,10 @@ public class DragSlopLayout extends FrameLayout {
         mCollapseParallax = a.getFloat(R.styleable.DragSlopLayout_collapse_parallax, 1.0f);
         mMode = a.getInt(R.styleable.DragSlopLayout_mode, MODE_DRAG);
         a.recycle();
-        if (mMode == MODE_DRAG) {
-            mDragStatus = STATUS_COLLAPSED;
-        } else if (mMode == MODE_ANIMATE) {
-            mAnimPresenter = new AnimatorPresenter();
-        } else if (mMode == MODE_DRAG_OUTSIDE) {
-            mDragStatus = STATUS_COLLAPSED;
-            mFixHeight = 0;
-        }
+        mModeStrategy = _createModeStrategy(mMode);
+        mModeStrategy.onInit();
+        mStateMachine = new DragStateMachine(mModeStrategy.getInitialState(), mModeStrategy.getSupportedStates(),
+                mStateCallback);
     }
 
     @Override
@@ -169,14 +186,66 @@ public class DragSlopLayout extends FrameLayout {
             throw new IllegalArgumentException("DragLayout must contains two sub-views.");
         }
 
-        mBlurView = new View(getContext());
-        mBlurView.setLayoutParams(new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT,
-                ViewGroup.LayoutParams.MATCH_PARENT));
-        addView(mBlurView, 1);
-        mBlurView.setVisibility(GONE);
-
         mMainView = getChildAt(0);
-        mDragView = getChildAt(2);
+        mDragView = getChildAt(1);
+        if (mDragView instanceof ViewStub) {
+            mDragViewStub = (ViewStub) mDragView;
+        }
+    }
+
+    /**
+     * 获取拖拽帮助类，MODE_ANIMATE 模式不会用到
+     */
+    private ViewDragHelper _getDragHelper() {
+        if (mDragHelper == null) {
+            mDragHelper = ViewDragHelper.create(this, TOUCH_SLOP_SENSITIVITY, callback);
+            mDragHelper.setEdgeTrackingEnabled(ViewDragHelper.EDGE_BOTTOM);
+        }
+        return mDragHelper;
+    }
+
+    /**
+     * 获取手势控制，只有 MODE_DRAG_OUTSIDE 模式会用到
+     */
+    private GestureDetector _getGestureDetector() {
+        if (mGestureDetector == null) {
+            mGestureDetector = new GestureDetector(getContext(), mGestureListener);
+        }
+        return mGestureDetector;
+    }
+
+    /**
+     * 获取下坠滚动辅助类
+     */
+    private ScrollerCompat _getFallBoundScroller() {
+        if (mFallBoundScroller == null) {
+            mFallBoundScroller = ScrollerCompat.create(getContext(), new BounceInterpolator());
+        }
+        return mFallBoundScroller;
+    }
+
+    /**
+     * 获取回升滚动辅助类
+     */
+    private ScrollerCompat _getDecelerateScroller() {
+        if (mDecelerateScroller == null) {
+            mDecelerateScroller = ScrollerCompat.create(getContext(), new DecelerateInterpolator());
+        }
+        return mDecelerateScroller;
+    }
+
+    /**
+     * 获取模糊视图，插入到主视图和 DragView 之间
+     */
+    private View _getBlurView() {
+        if (mBlurView == null) {
+            mBlurView = new View(getContext());
+            mBlurView.setLayoutParams(new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT,
+                    ViewGroup.LayoutParams.MATCH_PARENT));
+            mBlurView.setVisibility(GONE);
+            addView(mBlurView, 1);
+        }
+        return mBlurView;
     }
 
     @Override
@@ -187,81 +256,103 @@ public class DragSlopLayout extends FrameLayout {
 
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
-        super.onMeasure(widthMeasureSpec, heightMeasureSpec);
-        if (mMode == MODE_DRAG) {
-            if (mMaxHeight == 0) {
-                // 未设置最大高度则为布局高度的 2/3
-                mMaxHeight = getMeasuredHeight() * 2 / 3;
-            } else if (mMaxHeight > getMeasuredHeight()) {
-                // MODE_DRAG 模式最大高度不超过布局高度
-                mMaxHeight = getMeasuredHeight();
-            }
-            View childView = getChildAt(2);
-            MarginLayoutParams lp = (MarginLayoutParams) childView.getLayoutParams();
-            int childWidth = childView.getMeasuredWidth();
-            int childHeight = childView.getMeasuredHeight();
-            // 限定视图的最大高度
-            if (childHeight > mMaxHeight) {
-                childView.measure(MeasureSpec.makeMeasureSpec(childWidth - lp.leftMargin - lp.rightMargin, MeasureSpec.EXACTLY),
-                        MeasureSpec.makeMeasureSpec(mMaxHeight - lp.topMargin - lp.bottomMargin, MeasureSpec.EXACTLY));
-            }
-        } else if (mMode == MODE_DRAG_OUTSIDE) {
-            View childView = getChildAt(2);
-            MarginLayoutParams lp = (MarginLayoutParams) childView.getLayoutParams();
-            int childWidth = childView.getMeasuredWidth();
-            int childHeight = childView.getMeasuredHeight();
-            // 不限定视图的最大高度，设置MeasureSpec.UNSPECIFIED子视图才能超过父视图高度
-            childView.measure(MeasureSpec.makeMeasureSpec(childWidth - lp.leftMargin - lp.rightMargin, MeasureSpec.EXACTLY),
-                    MeasureSpec.makeMeasureSpec(childHeight - lp.topMargin - lp.bottomMargin, MeasureSpec.UNSPECIFIED));
+        DragTrace.begin("DSL:onMeasure");
+        try {
+            super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+            mModeStrategy.onMeasure(widthMeasureSpec, heightMeasureSpec);
+        } finally {
+            DragTrace.end();
         }
     }
 
+    /**
+     * 判断是否可以复用上一次对 DragView 的二次测量结果，并记录本次的测量条件
+     * DragView 内容变化时父类的测量结果可能仍被限制在父视图高度内，尺寸不变也不能复用
+     *
+     * @param widthMeasureSpec  宽度 MeasureSpec
+     * @param heightMeasureSpec 高度 MeasureSpec
+     * @param childWidth        父类测量后 DragView 的宽度
+     * @param childHeight       父类测量后 DragView 的高度
+     * @param isContentChanged  DragView 是否请求过重新布局
+     * @return
+     */
+    private boolean _isMeasureCached(int widthMeasureSpec, int heightMeasureSpec, int childWidth, int childHeight,
+                                     boolean isContentChanged) {
+        boolean isCached = !mIsDragRemeasured && !isContentChanged
+                && widthMeasureSpec == mLastWidthMeasureSpec && heightMeasureSpec == mLastHeightMeasureSpec
+                && childWidth == mLastDragMeasuredWidth && childHeight == mLastDragMeasuredHeight;
+        mLastWidthMeasureSpec = widthMeasureSpec;
+        mLastHeightMeasureSpec = heightMeasureSpec;
+        mLastDragMeasuredWidth = childWidth;
+        mLastDragMeasuredHeight = childHeight;
+        return isCached;
+    }
+
     @Override
     protected void onLayout(boolean changed, int l, int t, int r, int b) {
-        super.onLayout(changed, l, t, r, b);
-        MarginLayoutParams lp;
-        View childView = getChildAt(2);
-        lp = (MarginLayoutParams) childView.getLayoutParams();
-        int childWidth = childView.getMeasuredWidth();
-        int childHeight = childView.getMeasuredHeight();
-        if (mMode == MODE_ANIMATE) {
-            // 非拖拽模式固定高度为子视图高度
-            mFixHeight = childHeight;
-        } else if (mFixHeight > childHeight) {
-            // 固定高度超过子视图高度则设置为子视图高度
-            mFixHeight = childHeight;
-        }
-        mCriticalTop = b - (childHeight - mFixHeight) / 2 - mFixHeight;
-        mExpandedTop = b - childHeight;
-        mCollapsedTop = b - mFixHeight;
-        // 如果本身 mDragViewTop 已经有值，则直接使用，不然会出现突然闪一下的情况
-        if (mDragViewTop == 0 || mMode != MODE_DRAG_OUTSIDE) {
-            if (mDragStatus == STATUS_EXIT) {
-                // 对于 ViewPager 换页后会回调 onLayout()，需要进行处理
-                if (mMode == MODE_DRAG || mMode == MODE_DRAG_OUTSIDE) {
-                    mDragViewTop = b;
-                } else {
-                    mDragViewTop = b - mFixHeight;
-                    childView.setTranslationY(childHeight);
-                }
-            } else if (mDragStatus == STATUS_COLLAPSED) {
-                mDragViewTop = b - mFixHeight;
-            } else if (mDragStatus == STATUS_EXPANDED) {
-                mDragViewTop = b - childHeight;
-            } else {
-                mDragViewTop = b - mFixHeight;
+        DragTrace.begin("DSL:onLayout");
+        try {
+            super.onLayout(changed, l, t, r, b);
+            MarginLayoutParams lp;
+            View childView = mDragView;
+            lp = (MarginLayoutParams) childView.getLayoutParams();
+            int childWidth = childView.getMeasuredWidth();
+            int childHeight = childView.getMeasuredHeight();
+            if (mDragViewStub != null) {
+                // DragView 未加载时用 fix_height 高度占位
+                childWidth = getMeasuredWidth() - lp.leftMargin - lp.rightMargin;
+                childHeight = mFixHeight;
+            }
+            if (b != mAnchorBottom || childHeight != mAnchorChildHeight) {
+                // 只在尺寸改变时重新计算各临界 Top 值
+                mAnchorBottom = b;
+                mAnchorChildHeight = childHeight;
+                mModeStrategy.adjustFixHeight(childHeight);
+                mCriticalTop = DragMath.criticalTop(b, childHeight, mFixHeight);
+                mExpandedTop = DragMath.expandedTop(b, childHeight);
+                mCollapsedTop = DragMath.collapsedTop(b, mFixHeight);
             }
+            mDragViewTop = mModeStrategy.computeDragViewTop(b, childView, childHeight);
+            childView.layout(lp.leftMargin, mDragViewTop, lp.leftMargin + childWidth, mDragViewTop + childHeight);
+        } finally {
+            DragTrace.end();
         }
-        childView.layout(lp.leftMargin, mDragViewTop, lp.leftMargin + childWidth, mDragViewTop + childHeight);
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        _prepareAnimatorsOnIdle();
+        _inflateDragViewOnIdle();
     }
 
     @Override
     protected void onDetachedFromWindow() {
         super.onDetachedFromWindow();
         _stopAllScroller();
+        mPositionDispatcher.cancelFrame();
+        mPagerHideCoalescer.cancel();
+        if (mIdleScheduler != null) {
+            if (_isIdleTaskPending(mIdleShowTask)) {
+                // 等待空闲的自动显示被取消，重新联动时再自动显示
+                mHasShowRunnable = false;
+            }
+            mIdleScheduler.cancelAll();
+            mIdleShowTask = null;
+            mIdleBlurTask = null;
+            mIdleAnimatorTask = null;
+            mIdleInflateTask = null;
+        }
+        if (mFrameMonitor != null) {
+            mFrameMonitor.cancel();
+        }
+        if (mDebugOverlay != null) {
+            mDebugOverlay.stopRecording();
+        }
         if (mAnimPresenter != null) {
             mAnimPresenter.stopAllAnimator();
         }
+        _checkMotion();
         if (mBitmapToBlur != null) {
             mBitmapToBlur.recycle();
             mBitmapToBlur = null;
@@ -274,6 +365,9 @@ public class DragSlopLayout extends FrameLayout {
 
     @Override
     public boolean dispatchTouchEvent(MotionEvent ev) {
+        if (mGestureRecorder != null) {
+            mGestureRecorder.recordTouch(ev);
+        }
         switch (MotionEventCompat.getActionMasked(ev)) {
             case MotionEvent.ACTION_UP:
             case MotionEvent.ACTION_CANCEL:
@@ -287,33 +381,60 @@ public class DragSlopLayout extends FrameLayout {
     public boolean onInterceptTouchEvent(MotionEvent ev) {
         // 调用父类的方法，避免可能出现的 IllegalArgumentException: pointerIndex out of range
         super.onInterceptTouchEvent(ev);
-        boolean isIntercept = mDragHelper.shouldInterceptTouchEvent(ev);
+        final boolean isIntercepted = mModeStrategy.onInterceptTouchEvent(ev);
+        mMetrics.increment(isIntercepted ? DragMetrics.COUNTER_TOUCH_INTERCEPTED : DragMetrics.COUNTER_TOUCH_PASSED);
+        return isIntercepted;
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        return mModeStrategy.onTouchEvent(event);
+    }
+
+    /**
+     * 拖拽模式的拦截处理
+     *
+     * @param ev 点击事件
+     * @return
+     */
+    private boolean _interceptDrag(MotionEvent ev) {
+        boolean isIntercept = _getDragHelper().shouldInterceptTouchEvent(ev);
         if (_isNeedIntercept(ev)) {
             isIntercept = true;
-        } else if (mDragHelper.isViewUnder(mDragView, (int) ev.getX(), (int) ev.getY()) && mMode != MODE_ANIMATE) {
+        } else if (_isViewUnder(mDragView, (int) ev.getX(), (int) ev.getY())) {
             // 处于拖拽模式且点击到拖拽视图则停止滚动
             _stopAllScroller();
         }
-        if (mMode == MODE_DRAG_OUTSIDE && !mIsDrag) {
-            mGestureDetector.onTouchEvent(ev);
-        }
         return isIntercept;
     }
 
-    @Override
-    public boolean onTouchEvent(MotionEvent event) {
-        if (event.getActionMasked() == MotionEvent.ACTION_DOWN && (mMode == MODE_DRAG_OUTSIDE ||
-                mDragHelper.isViewUnder(mDragView, (int) event.getX(), (int) event.getY()))) {
+    /**
+     * 拖拽模式的点击处理
+     *
+     * @param event         点击事件
+     * @param isCaptureDown 按下时是否直接捕获 DragView
+     * @return
+     */
+    private boolean _touchDrag(MotionEvent event, boolean isCaptureDown) {
+        if (event.getActionMasked() == MotionEvent.ACTION_DOWN && isCaptureDown) {
             // 处理一些点击事件没被消费的情况
             _stopAllScroller();
-            mDragHelper.captureChildView(mDragView, 0);
+            _getDragHelper().captureChildView(mDragView, 0);
             mIsDrag = true;
         } else {
-            mDragHelper.processTouchEvent(event);
+            _getDragHelper().processTouchEvent(event);
         }
         return mIsDrag;
     }
 
+    /**
+     * 判断坐标是否落在视图内，同 {@link ViewDragHelper#isViewUnder}
+     */
+    private boolean _isViewUnder(View view, int x, int y) {
+        return view != null && x >= view.getLeft() && x < view.getRight()
+                && y >= view.getTop() && y < view.getBottom();
+    }
+
     /**
      * 手势监听
      */
@@ -333,7 +454,7 @@ public class DragSlopLayout extends FrameLayout {
                 // 如果为上下滑动则控制拖拽
                 if (Math.abs(distanceY) > Math.abs(distanceX)) {
                     _stopAllScroller();
-                    mDragHelper.captureChildView(mDragView, 0);
+                    _getDragHelper().captureChildView(mDragView, 0);
                     mIsDrag = true;
                 }
                 isDownTouch = false;
@@ -344,7 +465,6 @@ public class DragSlopLayout extends FrameLayout {
 
 
     private ViewDragHelper.Callback callback = new ViewDragHelper.Callback() {
-        private static final float SCROLL_DURATION = 0.3f;
 
         @Override
         public boolean tryCaptureView(View child, int pointerId) {
@@ -355,53 +475,27 @@ public class DragSlopLayout extends FrameLayout {
         @Override
         public void onViewReleased(View releasedChild, float xvel, float yvel) {
             super.onViewReleased(releasedChild, xvel, yvel);
-            float velocity = FLING_VELOCITY;
-            if (mMode != MODE_DRAG_OUTSIDE) {
-                velocity = FLING_VELOCITY / 2;
-            }
-            if (Math.abs(yvel) < velocity) {
-                // 在 MODE_DRAG_OUTSIDE 模式下才做自动滚动处理，其它模式做收缩滚动,快速滚动在任何模式都做
-                if (mMode == MODE_DRAG_OUTSIDE) {
-                    int finalTop = (int) (yvel * SCROLL_DURATION + mDragView.getTop());
-                    finalTop = Math.max(mExpandedTop, finalTop);
-                    finalTop = Math.min(mCollapsedTop, finalTop);
-                    mDecelerateScroller.startScroll(0, mDragView.getTop(), 0, finalTop - mDragView.getTop(), 500);
-                } else if (mDragView.getTop() > mCriticalTop) {
-                    if (mDragStatus == STATUS_EXPANDED) {
-                        mDragHelper.smoothSlideViewTo(mDragView, 0, mCollapsedTop);
-                    } else {
-                        mFallBoundScroller.startScroll(0, mDragView.getTop(), 0, mCollapsedTop - mDragView.getTop(),
-                                FALL_BOUND_DURATION);
-                    }
-                } else {
-                    mDragHelper.smoothSlideViewTo(mDragView, 0, mExpandedTop);
-                }
-                ViewCompat.postInvalidateOnAnimation(DragSlopLayout.this);
-            } else if (yvel > 0) {
-                if (!_flingScrollView(yvel)) {
-                    mDragHelper.settleCapturedViewAt(0, mCollapsedTop);
-                    ViewCompat.postInvalidateOnAnimation(DragSlopLayout.this);
-                }
-            } else {
-                if (!_flingScrollView(yvel)) {
-                    mDragHelper.settleCapturedViewAt(0, mExpandedTop);
-                    ViewCompat.postInvalidateOnAnimation(DragSlopLayout.this);
-                }
-            }
+            mModeStrategy.onViewReleased(yvel);
         }
 
         @Override
         public void onViewDragStateChanged(int state) {
             super.onViewDragStateChanged(state);
-            if (state == ViewDragHelper.STATE_IDLE) {
+            if (state == ViewDragHelper.STATE_DRAGGING) {
+                // 手指拖拽也是运动，记录开始拖拽时的状态，释放时据此选择回弹方式
+                mDragStartState = mStateMachine.getState();
+                mStateMachine.transitionTo(DragState.SCROLL);
+            } else if (state == ViewDragHelper.STATE_IDLE && !_isScrollerRunning()) {
+                // 释放时启动了自己的滚动则等滚动结束再切换，避免中途停在 INTERMEDIATE
                 _switchStatus();
             }
+            _checkMotion();
         }
 
         @Override
         public void onViewPositionChanged(View changedView, int left, int top, int dx, int dy) {
             super.onViewPositionChanged(changedView, left, top, dx, dy);
-            final float percent = (mCollapsedTop - top) * 1.0f / (mCollapsedTop - mExpandedTop);
+            final float percent = DragMath.dragPercent(top, mCollapsedTop, mExpandedTop);
             _dragPositionChanged(mHeight - top, percent);
         }
 
@@ -441,20 +535,32 @@ public class DragSlopLayout extends FrameLayout {
 
     @Override
     public void computeScroll() {
-        if (mDragHelper.continueSettling(true) ||
-                _continueSettling(mFallBoundScroller) || _continueSettling(mDecelerateScroller)) {
-            mDragStatus = STATUS_SCROLL;
-            final float percent = (mCollapsedTop - mDragView.getTop()) * 1.0f / (mCollapsedTop - mExpandedTop);
-            _dragPositionChanged(mHeight - mDragView.getTop(), percent);
-            ViewCompat.postInvalidateOnAnimation(this);
+        DragTrace.begin("DSL:computeScroll");
+        try {
+            if ((mDragHelper != null && mDragHelper.continueSettling(true)) ||
+                    _continueSettling(mFallBoundScroller) || _continueSettling(mDecelerateScroller)) {
+                mStateMachine.transitionTo(DragState.SCROLL);
+                if (mSettleStartNanos == 0) {
+                    mSettleStartNanos = System.nanoTime();
+                }
+                final float percent = DragMath.dragPercent(mDragView.getTop(), mCollapsedTop, mExpandedTop);
+                _dragPositionChanged(mHeight - mDragView.getTop(), percent);
+                ViewCompat.postInvalidateOnAnimation(this);
+            }
+            _checkMotion();
+            super.computeScroll();
+        } finally {
+            DragTrace.end();
         }
-        super.computeScroll();
     }
 
     /**
      * 处理自定义滚动动画
      */
     private boolean _continueSettling(ScrollerCompat scroller) {
+        if (scroller == null) {
+            return false;
+        }
         boolean keepGoing = scroller.computeScrollOffset();
         if (!keepGoing) {
             return false;
@@ -484,10 +590,10 @@ public class DragSlopLayout extends FrameLayout {
      * 停止所有滚动
      */
     private void _stopAllScroller() {
-        if (!mFallBoundScroller.isFinished()) {
+        if (mFallBoundScroller != null && !mFallBoundScroller.isFinished()) {
             mFallBoundScroller.abortAnimation();
         }
-        if (!mDecelerateScroller.isFinished()) {
+        if (mDecelerateScroller != null && !mDecelerateScroller.isFinished()) {
             mDecelerateScroller.abortAnimation();
         }
     }
@@ -499,7 +605,7 @@ public class DragSlopLayout extends FrameLayout {
      */
     public void scrollOutScreen(int duration) {
         mIsDoOutAnim = true;
-        mDecelerateScroller.startScroll(0, mDragView.getTop(), 0, mHeight - mDragView.getTop(), duration);
+        _getDecelerateScroller().startScroll(0, mDragView.getTop(), 0, mHeight - mDragView.getTop(), duration);
         ViewCompat.postInvalidateOnAnimation(DragSlopLayout.this);
     }
 
@@ -508,9 +614,18 @@ public class DragSlopLayout extends FrameLayout {
      *
      * @param duration 时间
      */
-    public void scrollInScreen(int duration) {
+    public void scrollInScreen(final int duration) {
         mIsDoOutAnim = false;
-        mDecelerateScroller.startScroll(0, mDragView.getTop(), 0, mCollapsedTop - mDragView.getTop(), duration);
+        if (inflateDragView()) {
+            _doOnNextPreDraw(new Runnable() {
+                @Override
+                public void run() {
+                    scrollInScreen(duration);
+                }
+            });
+            return;
+        }
+        _getDecelerateScroller().startScroll(0, mDragView.getTop(), 0, mCollapsedTop - mDragView.getTop(), duration);
         ViewCompat.postInvalidateOnAnimation(DragSlopLayout.this);
     }
 
@@ -518,26 +633,29 @@ public class DragSlopLayout extends FrameLayout {
      * Inside
      ********************************************/
 
-    @Retention(RetentionPolicy.SOURCE)
-    @IntDef({STATUS_EXPANDED, STATUS_COLLAPSED, STATUS_EXIT, STATUS_SCROLL})
-    @interface DragStatus {
-    }
-
     /**
      * 切换状态
      */
     private void _switchStatus() {
         if (mDragView.getTop() == mExpandedTop) {
-            mDragStatus = STATUS_EXPANDED;
+            mStateMachine.transitionTo(DragState.EXPANDED);
         } else if (mDragView.getTop() == mCollapsedTop) {
-            mDragStatus = STATUS_COLLAPSED;
+            mStateMachine.transitionTo(DragState.COLLAPSED);
         } else if (mDragView.getTop() == mHeight) {
-            mDragStatus = STATUS_EXIT;
+            mStateMachine.transitionTo(DragState.EXIT);
         } else {
-            mDragStatus = STATUS_SCROLL;
+            mStateMachine.transitionTo(DragState.INTERMEDIATE);
         }
     }
 
+    /**
+     * 下坠或回升滚动是否正在执行
+     */
+    private boolean _isScrollerRunning() {
+        return (mFallBoundScroller != null && !mFallBoundScroller.isFinished())
+                || (mDecelerateScroller != null && !mDecelerateScroller.isFinished());
+    }
+
     /**
      * 隐藏 DragView
      *
@@ -545,26 +663,15 @@ public class DragSlopLayout extends FrameLayout {
      */
     private void _hideDragView(float percent, int curTop) {
         if (!mHasShowRunnable && !mIsDoOutAnim) {
-            float hidePercent = percent * 3;
+            float hidePercent = DragMath.pagerHidePercent(percent);
             if (hidePercent > 1.0f) {
                 hidePercent = 1.0f;
-                mDragStatus = STATUS_EXIT;
+                mStateMachine.transitionTo(DragState.EXIT);
             } else {
-                mDragStatus = STATUS_SCROLL;
+                mStateMachine.transitionTo(DragState.SCROLL);
             }
 
-            if (mMode == MODE_ANIMATE) {
-                mAnimPresenter.handleAnimateFrame(mDragView, hidePercent);
-            } else {
-                _stopAllScroller();
-                final int y = (int) ((mCollapsedTop + mFixHeight - curTop) * hidePercent + curTop);
-                final int dy = y - mDragView.getTop();
-                if (dy != 0) {
-                    ViewCompat.offsetTopAndBottom(mDragView, dy);
-                    final float dragPercent = (mCollapsedTop - mDragView.getTop()) * 1.0f / (mCollapsedTop - mExpandedTop);
-                    _dragPositionChanged(mHeight - mDragView.getTop(), dragPercent);
-                }
-            }
+            mModeStrategy.onPagerHide(hidePercent, curTop);
         }
     }
 
@@ -579,19 +686,30 @@ public class DragSlopLayout extends FrameLayout {
     }
 
     /**
-     * 动画显示 Runnable
+     * 取消等待中的自动显示
+     */
+    private void _cancelShowDragView() {
+        removeCallbacks(mShowRunnable);
+        _cancelIdleTask(mIdleShowTask);
+        mIdleShowTask = null;
+    }
+
+    /**
+     * 动画显示 Runnable，延迟时间到了之后等主线程空闲再显示
      */
     private Runnable mShowRunnable = new Runnable() {
         @Override
         public void run() {
+            mIdleShowTask = _getIdleScheduler().schedule(mIdleShowAction);
+        }
+    };
+
+    private final Runnable mIdleShowAction = new Runnable() {
+        @Override
+        public void run() {
+            mIdleShowTask = null;
             mHasShowRunnable = false;
-            if (mMode == MODE_ANIMATE) {
-                startInAnim();
-                mDragStatus = STATUS_SCROLL;
-            } else {
-                mDecelerateScroller.startScroll(0, mDragView.getTop(), 0, mCollapsedTop - mDragView.getTop(), 500);
-                ViewCompat.postInvalidateOnAnimation(DragSlopLayout.this);
-            }
+            mModeStrategy.onShow();
         }
     };
 
@@ -602,193 +720,648 @@ public class DragSlopLayout extends FrameLayout {
      * @param percent       百分比
      */
     private void _dragPositionChanged(int visibleHeight, float percent) {
-        if (mDragViewTop == 0) {
-            mLastDragViewTop = mHeight - visibleHeight;
-        }
-        mDragViewTop = mHeight - visibleHeight;
-        // 拖拽距离超过最小滑动距离则进行判断
-        if (Math.abs(mDragViewTop - mLastDragViewTop) > mMinTouchSlop) {
-            mIsUp = (mDragViewTop < mLastDragViewTop);
-            mLastDragViewTop = mDragViewTop;
-        }
-        if (mEnableBlur && mBlurDrawable != null) {
-            if (visibleHeight < mFixHeight) {
-                return;
+        DragTrace.begin("DSL:dragPositionChanged");
+        try {
+            if (mDebugOverlay != null) {
+                mDragPercent = percent;
+                invalidate();
             }
-            if (mIsBlurFull) {
-                mBlurDrawable.setLevel(10000);
-            } else {
-                final int blurLevel = (int) ((visibleHeight * 1.0f / mMainView.getHeight()) * 10000);
-                mBlurDrawable.setLevel(blurLevel);
+            if (mDragViewTop == 0) {
+                mLastDragViewTop = mHeight - visibleHeight;
             }
-            mBlurDrawable.setAlpha((int) (percent * 255));
-        }
-        if (visibleHeight >= 0) {
-            ViewCompat.setTranslationY(mMainView, -visibleHeight * (1 - mCollapseParallax));
-        }
-        if (mDragPositionListener != null) {
-            mDragPositionListener.onDragPosition(visibleHeight, percent, mIsUp);
+            mDragViewTop = mHeight - visibleHeight;
+            // 拖拽距离超过最小滑动距离则进行判断
+            if (Math.abs(mDragViewTop - mLastDragViewTop) > mMinTouchSlop) {
+                mIsUp = (mDragViewTop < mLastDragViewTop);
+                mLastDragViewTop = mDragViewTop;
+            }
+            if (mEnableBlur && mBlurDrawable != null) {
+                if (visibleHeight < mFixHeight) {
+                    return;
+                }
+                if (mIsBlurFull) {
+                    mBlurDrawable.setLevel(DragMath.MAX_LEVEL);
+                } else {
+                    mBlurDrawable.setLevel(DragMath.blurLevel(visibleHeight, mMainView.getHeight()));
+                }
+                mBlurDrawable.setAlpha((int) (percent * 255));
+            }
+            if (visibleHeight >= 0) {
+                ViewCompat.setTranslationY(mMainView, DragMath.parallaxTranslation(visibleHeight, mCollapseParallax));
+            }
+            mPositionDispatcher.dispatch(visibleHeight, percent, mIsUp);
+        } finally {
+            DragTrace.end();
         }
     }
 
-    /*********************************** ScrollView ********************************************/
+    /*********************************** Mode ********************************************/
 
     /**
-     * 设置关联的 ScrollView 如果有的话，目前只支持 ScrollView 和 NestedScrollView 及其自视图
+     * 根据模式创建模式策略
      *
-     * @param attachScrollView ScrollView or NestedScrollView
+     * @param mode 模式
+     * @return
      */
-    public void setAttachScrollView(View attachScrollView) {
-        if (!_isScrollView(attachScrollView)) {
-            throw new IllegalArgumentException("The view must be ScrollView or NestedScrollView.");
+    private ModeStrategy _createModeStrategy(int mode) {
+        switch (mode) {
+            case MODE_ANIMATE:
+                return new AnimateModeStrategy();
+            case MODE_DRAG_OUTSIDE:
+                return new DragOutsideModeStrategy();
+            default:
+                return new DragModeStrategy();
         }
-        mAttachScrollView = attachScrollView;
     }
 
     /**
-     * 如果点击在关联的 ScrollView 区域则由父类 DragSlopLayout 中断事件接收，并全权控制处理 ScrollView
-     *
-     * @param ev 点击事件
-     * @return
+     * 模式策略，和模式相关的测量、布局、事件和联动处理，默认实现为拖拽模式的处理
      */
-    private boolean _isNeedIntercept(MotionEvent ev) {
-        if (mAttachScrollView == null) {
-            return false;
+    private abstract class ModeStrategy {
+
+        /**
+         * 初始化模式相关的设置
+         */
+        void onInit() {
         }
-        int y = (int) ev.getY() - mDragView.getTop();
-        if (mDragHelper.isViewUnder(mAttachScrollView, (int) ev.getX(), y) && mMode != MODE_ANIMATE) {
-            return true;
+
+        /**
+         * 初始状态
+         */
+        DragState getInitialState() {
+            return DragState.COLLAPSED;
         }
-        if (mEnableBlur && mDragStatus == STATUS_EXPANDED) {
-            return true;
+
+        /**
+         * 模式支持的状态
+         */
+        Set<DragState> getSupportedStates() {
+            return EnumSet.allOf(DragState.class);
         }
-        return false;
-    }
 
-    /**
-     * 滑动 ScrollView
-     *
-     * @param yvel 滑动速度
-     * @return
-     */
-    private boolean _flingScrollView(float yvel) {
-        if (mAttachScrollView == null || mAttachScrollView.getScrollY() == 0) {
-            return false;
+        /**
+         * 父类测量完成后调整 DragView 的测量
+         */
+        void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
         }
-        if (mAttachScrollView instanceof ScrollView) {
-            ((ScrollView) mAttachScrollView).fling((int) -yvel);
-        } else if (mAttachScrollView instanceof NestedScrollView) {
-            ((NestedScrollView) mAttachScrollView).fling((int) -yvel);
+
+        /**
+         * DragView 高度改变时调整固定高度
+         */
+        void adjustFixHeight(int childHeight) {
+            if (mFixHeight > childHeight) {
+                // 固定高度超过子视图高度则设置为子视图高度
+                mFixHeight = childHeight;
+            }
         }
-        return true;
-    }
 
-    /**
-     * 判断视图是否为 ScrollView or NestedScrollView 或它的子类
-     *
-     * @param view View
-     * @return
-     */
-    private boolean _isScrollView(View view) {
-        boolean isScrollView = false;
-        if (view instanceof ScrollView || view instanceof NestedScrollView) {
-            isScrollView = true;
-        } else {
-            ViewParent parent = view.getParent();
-            while (parent != null) {
-                if (parent instanceof ScrollView || parent instanceof NestedScrollView) {
-                    isScrollView = true;
-                    break;
-                }
+        /**
+         * 计算布局时 DragView 的 Top 值
+         */
+        int computeDragViewTop(int b, View childView, int childHeight) {
+            if (mStateMachine.is(DragState.EXIT)) {
+                // 对于 ViewPager 换页后会回调 onLayout()，需要进行处理
+                return computeExitTop(b, childView, childHeight);
+            } else if (mStateMachine.is(DragState.EXPANDED)) {
+                return b - childHeight;
+            } else {
+                return b - mFixHeight;
             }
         }
-        return isScrollView;
-    }
 
-    /*********************************** ViewPager ********************************************/
+        /**
+         * 计算退出状态时 DragView 的 Top 值
+         */
+        int computeExitTop(int b, View childView, int childHeight) {
+            return b;
+        }
 
+        abstract boolean onInterceptTouchEvent(MotionEvent ev);
 
-    /**
-     * 和 ViewPager 进行联动
-     *
-     * @param attachViewPager 关联 ViewPager
-     */
-    public void attachViewPager(ViewPager attachViewPager) {
-        if (!_isViewPager(attachViewPager)) {
-            throw new IllegalArgumentException("The first child view must be ViewPager.");
-        }
-        mAttachViewPager = attachViewPager;
-        if (mViewPagerListener != null) {
-            mAttachViewPager.removeOnPageChangeListener(mViewPagerListener);
+        abstract boolean onTouchEvent(MotionEvent event);
+
+        /**
+         * 释放拖拽的 DragView
+         *
+         * @param yvel 垂直速度
+         */
+        void onViewReleased(float yvel) {
         }
-        mViewPagerListener = new ViewPager.SimpleOnPageChangeListener() {
 
-            boolean isRightSlide = true;
-            float mLastOffset = 0;
-            int status = ViewPager.SCROLL_STATE_IDLE;
-            int curDragViewTop;
+        /**
+         * 和 ViewPager 联动时隐藏 DragView
+         *
+         * @param hidePercent 隐藏的百分比
+         * @param curTop      开始滑动时 DragView 的 Top 值
+         */
+        void onPagerHide(float hidePercent, int curTop) {
+            _stopAllScroller();
+            final int y = DragMath.pagerHideTop(curTop, hidePercent, mCollapsedTop, mFixHeight);
+            final int dy = y - mDragView.getTop();
+            if (dy != 0) {
+                ViewCompat.offsetTopAndBottom(mDragView, dy);
+                final float dragPercent = DragMath.dragPercent(mDragView.getTop(), mCollapsedTop, mExpandedTop);
+                _dragPositionChanged(mHeight - mDragView.getTop(), dragPercent);
+            }
+        }
 
-            @Override
-            public void onPageScrolled(int position, float positionOffset, int positionOffsetPixels) {
-                if (status != ViewPager.SCROLL_STATE_IDLE && !mIsCustomAnimator) {
-                    // 判断拖拽过界的方向
-                    if (Math.abs(positionOffset - mLastOffset) > 0.8f &&
-                            status == ViewPager.SCROLL_STATE_DRAGGING) {
-                        if (positionOffset > 0.5f) {
-                            isRightSlide = false;
-                        } else {
-                            isRightSlide = true;
-                        }
-                    }
-                    float percent;
-                    if (isRightSlide) {
-                        percent = positionOffset;
-                        if (positionOffset == 0 && status == ViewPager.SCROLL_STATE_SETTLING && mLastOffset > 0.5f) {
-                            percent = 1.0f;
-                        }
-                    } else {
-                        percent = 1 - positionOffset;
-                        if (positionOffset == 0 && status == ViewPager.SCROLL_STATE_SETTLING && mLastOffset > 0.5f) {
-                            percent = 0;
-                        }
-                    }
-                    _hideDragView(percent, curDragViewTop);
-                    mLastOffset = positionOffset;
+        /**
+         * ViewPager 停止滑动且 DragView 没有退出时，根据 DragView 的位置切换到静止状态
+         */
+        void onPagerSettled() {
+            _switchStatus();
+        }
+
+        /**
+         * ViewPager 停止滑动后自动显示 DragView
+         */
+        void onShow() {
+            if (mDragViewStub != null) {
+                // 占位的 ViewStub 没有内容，不做滚动，直接回到收缩位置，保证按下时仍然可以加载并拖拽
+                final int dy = mCollapsedTop - mDragView.getTop();
+                if (dy != 0) {
+                    ViewCompat.offsetTopAndBottom(mDragView, dy);
+                    _dragPositionChanged(mHeight - mDragView.getTop(), 0);
                 }
+                _switchStatus();
+                return;
             }
+            _getDecelerateScroller().startScroll(0, mDragView.getTop(), 0, mCollapsedTop - mDragView.getTop(), 500);
+            ViewCompat.postInvalidateOnAnimation(DragSlopLayout.this);
+        }
 
-            @Override
-            public void onPageScrollStateChanged(int state) {
-                if (state == ViewPager.SCROLL_STATE_IDLE && !mIsCustomAnimator) {
-                    isRightSlide = true;
-                    mLastOffset = 0;
-                    // 如果手动调用退出动画则不做自动启动动画
-                    if (mDragStatus == STATUS_EXIT && !mIsDoOutAnim && mMode != MODE_DRAG_OUTSIDE) {
-                        _showDragView(mAutoAnimateDelay);
-                    }
+        /**
+         * DragView 是否可以拖拽
+         */
+        boolean isDraggable() {
+            return true;
+        }
+
+        /**
+         * ViewPager 停止滑动后是否自动显示 DragView
+         */
+        boolean isAutoShowAfterPager() {
+            return true;
+        }
+
+        /**
+         * 快速滑动时滚动 ScrollView 或者让 DragView 展开/收缩
+         *
+         * @param yvel 垂直速度
+         */
+        void settleFling(float yvel) {
+            if (_flingScrollView(yvel)) {
+                return;
+            }
+            _getDragHelper().settleCapturedViewAt(0, yvel > 0 ? mCollapsedTop : mExpandedTop);
+            ViewCompat.postInvalidateOnAnimation(DragSlopLayout.this);
+        }
+    }
+
+    /**
+     * MODE_DRAG 模式：DragView 在固定高度和最大高度之间拖拽
+     */
+    private class DragModeStrategy extends ModeStrategy {
+
+        @Override
+        void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+            if (mMaxHeight == 0) {
+                // 未设置最大高度则为布局高度的 2/3
+                mMaxHeight = getMeasuredHeight() * 2 / 3;
+            } else if (mMaxHeight > getMeasuredHeight()) {
+                // MODE_DRAG 模式最大高度不超过布局高度
+                mMaxHeight = getMeasuredHeight();
+            }
+            View childView = mDragView;
+            MarginLayoutParams lp = (MarginLayoutParams) childView.getLayoutParams();
+            int childWidth = childView.getMeasuredWidth();
+            int childHeight = childView.getMeasuredHeight();
+            // 限定视图的最大高度
+            if (childHeight > mMaxHeight) {
+                childView.measure(MeasureSpec.makeMeasureSpec(childWidth - lp.leftMargin - lp.rightMargin, MeasureSpec.EXACTLY),
+                        MeasureSpec.makeMeasureSpec(mMaxHeight - lp.topMargin - lp.bottomMargin, MeasureSpec.EXACTLY));
+            }
+        }
+
+        @Override
+        boolean onInterceptTouchEvent(MotionEvent ev) {
+            if (mDragViewStub != null && ev.getActionMasked() == MotionEvent.ACTION_DOWN &&
+                    _isViewUnder(mDragView, (int) ev.getX(), (int) ev.getY())) {
+                // 开始拖拽时加载 DragView
+                _inflateDragViewOnTouch();
+            }
+            return _interceptDrag(ev);
+        }
+
+        @Override
+        boolean onTouchEvent(MotionEvent event) {
+            return _touchDrag(event, _isViewUnder(mDragView, (int) event.getX(), (int) event.getY()));
+        }
+
+        @Override
+        void onViewReleased(float yvel) {
+            if (Math.abs(yvel) >= FLING_VELOCITY / 2) {
+                settleFling(yvel);
+                return;
+            }
+            // 做收缩滚动
+            if (mDragView.getTop() > mCriticalTop) {
+                if (mDragStartState == DragState.EXPANDED) {
+                    mDragHelper.smoothSlideViewTo(mDragView, 0, mCollapsedTop);
                 } else {
-                    if (mDragStatus == STATUS_EXIT) {
-                        getHandler().removeCallbacks(mShowRunnable);
-                    }
-                    if (state == ViewPager.SCROLL_STATE_DRAGGING) {
-                        curDragViewTop = mDragView.getTop();
-                    }
+                    _getFallBoundScroller().startScroll(0, mDragView.getTop(), 0, mCollapsedTop - mDragView.getTop(),
+                            FALL_BOUND_DURATION);
+                }
+            } else {
+                mDragHelper.smoothSlideViewTo(mDragView, 0, mExpandedTop);
+            }
+            ViewCompat.postInvalidateOnAnimation(DragSlopLayout.this);
+        }
+    }
+
+    /**
+     * MODE_ANIMATE 模式：DragView 不能拖拽，通过动画进入和退出
+     */
+    private class AnimateModeStrategy extends ModeStrategy {
+
+        @Override
+        void onInit() {
+            _createAnimPresenter();
+        }
+
+        @Override
+        DragState getInitialState() {
+            return DragState.EXPANDED;
+        }
+
+        @Override
+        Set<DragState> getSupportedStates() {
+            // 没有收缩状态
+            return EnumSet.of(DragState.EXPANDED, DragState.EXIT, DragState.SCROLL, DragState.INTERMEDIATE);
+        }
+
+        @Override
+        void adjustFixHeight(int childHeight) {
+            // 非拖拽模式固定高度为子视图高度
+            mFixHeight = childHeight;
+        }
+
+        @Override
+        int computeExitTop(int b, View childView, int childHeight) {
+            // 退出时 DragView 位置不变，由退出动画或联动的动画帧隐藏
+            return b - mFixHeight;
+        }
+
+        @Override
+        boolean onInterceptTouchEvent(MotionEvent ev) {
+            // MODE_ANIMATE 模式的 DragView 不能拖动，不需要 ViewDragHelper
+            return _isNeedIntercept(ev);
+        }
+
+        @Override
+        boolean onTouchEvent(MotionEvent event) {
+            // 消费落在 DragView 上的点击事件
+            if (event.getActionMasked() == MotionEvent.ACTION_DOWN) {
+                mIsDrag = _isViewUnder(mDragView, (int) event.getX(), (int) event.getY());
+            }
+            return mIsDrag;
+        }
+
+        // 最近一次联动的隐藏百分比，DragView 的位置不变，只能由它判断隐藏程度
+        private float mPagerHidePercent = 0;
+
+        @Override
+        void onPagerHide(float hidePercent, int curTop) {
+            mPagerHidePercent = hidePercent;
+            DragTrace.begin("DSL:handleAnimateFrame");
+            try {
+                mAnimPresenter.handleAnimateFrame(mDragView, hidePercent);
+            } finally {
+                DragTrace.end();
+            }
+        }
+
+        @Override
+        void onPagerSettled() {
+            if (mPagerHidePercent <= 0) {
+                mStateMachine.transitionTo(DragState.EXPANDED);
+            } else if (mPagerHidePercent >= 1) {
+                mStateMachine.transitionTo(DragState.EXIT);
+            } else {
+                mStateMachine.transitionTo(DragState.INTERMEDIATE);
+            }
+        }
+
+        @Override
+        void onShow() {
+            startInAnim();
+        }
+
+        @Override
+        boolean isDraggable() {
+            return false;
+        }
+    }
+
+    /**
+     * MODE_DRAG_OUTSIDE 模式：在屏幕上垂直滑动就可以拖拽 DragView，DragView 可以超出布局高度
+     */
+    private class DragOutsideModeStrategy extends ModeStrategy {
+
+        private static final float SCROLL_DURATION = 0.3f;
+
+        @Override
+        void onInit() {
+            mFixHeight = 0;
+        }
+
+        @Override
+        void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+            if (mDragViewStub != null) {
+                return;
+            }
+            View childView = mDragView;
+            MarginLayoutParams lp = (MarginLayoutParams) childView.getLayoutParams();
+            int childWidth = childView.getMeasuredWidth();
+            int childHeight = childView.getMeasuredHeight();
+            // 测量后到布局前 isLayoutRequested() 仍为 true，说明 DragView 自身请求了重新布局
+            if (_isMeasureCached(widthMeasureSpec, heightMeasureSpec, childWidth, childHeight,
+                    childView.isLayoutRequested())) {
+                // 测量条件和上一次一致，内容没有变化，且上一次的二次测量没有改变尺寸，跳过二次测量
+                return;
+            }
+            // 不限定视图的最大高度，设置MeasureSpec.UNSPECIFIED子视图才能超过父视图高度
+            childView.measure(MeasureSpec.makeMeasureSpec(childWidth - lp.leftMargin - lp.rightMargin, MeasureSpec.EXACTLY),
+                    MeasureSpec.makeMeasureSpec(childHeight - lp.topMargin - lp.bottomMargin, MeasureSpec.UNSPECIFIED));
+            mIsDragRemeasured = childView.getMeasuredWidth() != childWidth || childView.getMeasuredHeight() != childHeight;
+        }
+
+        @Override
+        int computeDragViewTop(int b, View childView, int childHeight) {
+            // 如果本身 mDragViewTop 已经有值，则直接使用，不然会出现突然闪一下的情况
+            if (mDragViewTop != 0) {
+                return mDragViewTop;
+            }
+            return super.computeDragViewTop(b, childView, childHeight);
+        }
+
+        @Override
+        boolean onInterceptTouchEvent(MotionEvent ev) {
+            if (mDragViewStub != null && ev.getActionMasked() == MotionEvent.ACTION_DOWN) {
+                // 开始拖拽时加载 DragView
+                _inflateDragViewOnTouch();
+            }
+            boolean isIntercept = _interceptDrag(ev);
+            if (!mIsDrag) {
+                _getGestureDetector().onTouchEvent(ev);
+            }
+            return isIntercept;
+        }
+
+        @Override
+        boolean onTouchEvent(MotionEvent event) {
+            return _touchDrag(event, true);
+        }
+
+        @Override
+        void onViewReleased(float yvel) {
+            if (Math.abs(yvel) >= FLING_VELOCITY) {
+                settleFling(yvel);
+                return;
+            }
+            // 做自动滚动处理
+            final int finalTop = DragMath.flingFinalTop(mDragView.getTop(), yvel, SCROLL_DURATION, mExpandedTop,
+                    mCollapsedTop);
+            _getDecelerateScroller().startScroll(0, mDragView.getTop(), 0, finalTop - mDragView.getTop(), 500);
+            ViewCompat.postInvalidateOnAnimation(DragSlopLayout.this);
+        }
+
+        @Override
+        boolean isAutoShowAfterPager() {
+            return false;
+        }
+    }
+
+    /*********************************** Lazy DragView ********************************************/
+
+    /**
+     * 设置 DragView 工厂，布局文件中的第2个子视图为 ViewStub 时用工厂创建的视图替换它，而不是加载 ViewStub 指定的布局
+     *
+     * @param dragViewFactory DragView 工厂
+     */
+    public void setDragViewFactory(DragViewFactory dragViewFactory) {
+        mDragViewFactory = dragViewFactory;
+    }
+
+    /**
+     * 设置 DragView 加载监听
+     *
+     * @param listener
+     */
+    public void setOnDragViewInflateListener(OnDragViewInflateListener listener) {
+        mDragViewInflateListener = listener;
+    }
+
+    /**
+     * DragView 是否已经加载
+     *
+     * @return
+     */
+    public boolean isDragViewInflated() {
+        return mDragViewStub == null;
+    }
+
+    /**
+     * 加载延迟的 DragView，首次展开或开始拖拽时会自动调用
+     *
+     * @return 本次调用是否加载了 DragView，已经加载过则返回 false
+     */
+    public boolean inflateDragView() {
+        if (mDragViewStub == null) {
+            return false;
+        }
+        final ViewStub stub = mDragViewStub;
+        mDragViewStub = null;
+        if (mDragViewFactory != null) {
+            View dragView = mDragViewFactory.onCreateDragView(this);
+            final int index = indexOfChild(stub);
+            removeViewAt(index);
+            if (dragView.getLayoutParams() != null) {
+                addView(dragView, index);
+            } else {
+                addView(dragView, index, stub.getLayoutParams());
+            }
+            mDragView = dragView;
+        } else {
+            mDragView = stub.inflate();
+        }
+        // 重新计算各临界 Top 值
+        mAnchorChildHeight = -1;
+        if (mDragViewInflateListener != null) {
+            mDragViewInflateListener.onDragViewInflated(mDragView);
+        }
+        _prepareAnimatorsOnIdle();
+        return true;
+    }
+
+    /**
+     * 按下时加载 DragView 并立即完成测量和布局，等到下一次布局时 DragView 尺寸还为 0，这一次拖拽就会丢失
+     */
+    private void _inflateDragViewOnTouch() {
+        if (inflateDragView() && getWidth() > 0) {
+            measure(MeasureSpec.makeMeasureSpec(getWidth(), MeasureSpec.EXACTLY),
+                    MeasureSpec.makeMeasureSpec(getHeight(), MeasureSpec.EXACTLY));
+            layout(getLeft(), getTop(), getRight(), getBottom());
+        }
+    }
+
+    /**
+     * 在下一次绘制前执行，此时新加载的 DragView 已经完成布局
+     *
+     * @param action
+     */
+    private void _doOnNextPreDraw(final Runnable action) {
+        getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                getViewTreeObserver().removeOnPreDrawListener(this);
+                action.run();
+                return true;
+            }
+        });
+    }
+
+    /*********************************** ScrollView ********************************************/
+
+    /**
+     * 设置关联的 ScrollView 如果有的话，目前只支持 ScrollView 和 NestedScrollView 及其自视图
+     *
+     * @param attachScrollView ScrollView or NestedScrollView
+     */
+    public void setAttachScrollView(View attachScrollView) {
+        if (!_isScrollView(attachScrollView)) {
+            throw new IllegalArgumentException("The view must be ScrollView or NestedScrollView.");
+        }
+        mAttachScrollView = attachScrollView;
+    }
+
+    /**
+     * 如果点击在关联的 ScrollView 区域则由父类 DragSlopLayout 中断事件接收，并全权控制处理 ScrollView
+     *
+     * @param ev 点击事件
+     * @return
+     */
+    private boolean _isNeedIntercept(MotionEvent ev) {
+        if (mAttachScrollView == null) {
+            return false;
+        }
+        int y = (int) ev.getY() - mDragView.getTop();
+        if (mModeStrategy.isDraggable() && _isViewUnder(mAttachScrollView, (int) ev.getX(), y)) {
+            return true;
+        }
+        if (mEnableBlur && mStateMachine.is(DragState.EXPANDED)) {
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 滑动 ScrollView
+     *
+     * @param yvel 滑动速度
+     * @return
+     */
+    private boolean _flingScrollView(float yvel) {
+        if (mAttachScrollView == null || mAttachScrollView.getScrollY() == 0) {
+            return false;
+        }
+        if (mAttachScrollView instanceof ScrollView) {
+            ((ScrollView) mAttachScrollView).fling((int) -yvel);
+        } else if (mAttachScrollView instanceof NestedScrollView) {
+            ((NestedScrollView) mAttachScrollView).fling((int) -yvel);
+        }
+        return true;
+    }
+
+    /**
+     * 判断视图是否为 ScrollView or NestedScrollView 或它的子类
+     *
+     * @param view View
+     * @return
+     */
+    private boolean _isScrollView(View view) {
+        boolean isScrollView = false;
+        if (view instanceof ScrollView || view instanceof NestedScrollView) {
+            isScrollView = true;
+        } else {
+            ViewParent parent = view.getParent();
+            while (parent != null) {
+                if (parent instanceof ScrollView || parent instanceof NestedScrollView) {
+                    isScrollView = true;
+                    break;
                 }
-                status = state;
+                parent = parent.getParent();
             }
-        };
-        mAttachViewPager.addOnPageChangeListener(mViewPagerListener);
+        }
+        return isScrollView;
+    }
+
+    /*********************************** ViewPager ********************************************/
+
+
+    /**
+     * 和 ViewPager 进行联动
+     *
+     * @param attachViewPager 关联 ViewPager
+     */
+    public void attachViewPager(ViewPager attachViewPager) {
+        if (!_isViewPager(attachViewPager)) {
+            throw new IllegalArgumentException("The first child view must be ViewPager.");
+        }
+        attachPager(new ViewPagerDriver(attachViewPager));
+    }
+
+    /**
+     * 和翻页控件进行联动，ViewPager 直接使用 {@link #attachViewPager}，
+     * 翻页的 RecyclerView 使用 {@link RecyclerViewPagerDriver}，其它控件实现 {@link PagerDriver}
+     *
+     * @param pagerDriver 翻页控件的驱动
+     */
+    public void attachPager(PagerDriver pagerDriver) {
+        if (pagerDriver == null) {
+            throw new IllegalArgumentException("PagerDriver can not be null.");
+        }
+        detachPager();
+        mPagerDriver = pagerDriver;
+        // 每次关联使用新的状态
+        mPagerDriver.attach(new PagerCallback());
     }
 
     /**
      * 取消 ViewPager 关联
      */
     public void detachViewPager() {
-        if (mViewPagerListener != null && mAttachViewPager != null) {
-            mAttachViewPager.removeOnPageChangeListener(mViewPagerListener);
+        detachPager();
+    }
+
+    /**
+     * 取消翻页控件关联
+     */
+    public void detachPager() {
+        if (mPagerDriver != null) {
+            mPagerDriver.detach();
+            mPagerDriver = null;
         }
-        mViewPagerListener = null;
-        mAttachViewPager = null;
+        mPagerHideCoalescer.cancel();
+        mIsPagerScrolling = false;
+        _checkMotion();
+    }
+
+    /**
+     * ViewPager 联动的监听器，回放手势轨迹时直接调用，没有和 ViewPager 联动返回 null
+     */
+    ViewPager.OnPageChangeListener getViewPagerListener() {
+        return mPagerDriver instanceof ViewPagerDriver ? (ViewPagerDriver) mPagerDriver : null;
     }
 
     /**
@@ -801,70 +1374,65 @@ public class DragSlopLayout extends FrameLayout {
         if (!_isViewPager(mMainView)) {
             throw new IllegalArgumentException("The first child view must be ViewPager.");
         }
-        if (mViewPagerListener != null) {
-            ((ViewPager) mMainView).removeOnPageChangeListener(mViewPagerListener);
-        }
-        if (!isInteract) {
-            mViewPagerListener = null;
-            return;
+        if (isInteract) {
+            attachPager(new ViewPagerDriver((ViewPager) mMainView));
+        } else {
+            detachPager();
         }
-        mViewPagerListener = new ViewPager.SimpleOnPageChangeListener() {
+    }
 
-            boolean isRightSlide = true;
-            float mLastOffset = 0;
-            int status = ViewPager.SCROLL_STATE_IDLE;
-            int curDragViewTop;
+    /**
+     * 所有翻页控件共用的联动处理：判断方向、换算百分比后按帧隐藏 DragView，停止滑动后自动显示
+     */
+    private class PagerCallback implements PagerDriver.Callback {
 
-            @Override
-            public void onPageScrolled(int position, float positionOffset, int positionOffsetPixels) {
-                if (status != ViewPager.SCROLL_STATE_IDLE && !mIsCustomAnimator) {
-                    // 判断拖拽过界的方向
-                    if (Math.abs(positionOffset - mLastOffset) > 0.8f &&
-                            status == ViewPager.SCROLL_STATE_DRAGGING) {
-                        if (positionOffset > 0.5f) {
-                            isRightSlide = false;
-                        } else {
-                            isRightSlide = true;
-                        }
-                    }
-                    float percent;
-                    if (isRightSlide) {
-                        percent = positionOffset;
-                        if (positionOffset == 0 && status == ViewPager.SCROLL_STATE_SETTLING && mLastOffset > 0.5f) {
-                            percent = 1.0f;
-                        }
-                    } else {
-                        percent = 1 - positionOffset;
-                        if (positionOffset == 0 && status == ViewPager.SCROLL_STATE_SETTLING && mLastOffset > 0.5f) {
-                            percent = 0;
-                        }
-                    }
-                    _hideDragView(percent, curDragViewTop);
-                    mLastOffset = positionOffset;
+        private final PagerOffsetTracker mTracker = new PagerOffsetTracker();
+        // 开始拖拽时 DragView 的 Top 值
+        private int mCurDragViewTop;
+
+        @Override
+        public void onPageScrolled(int position, float positionOffset) {
+            DragTrace.begin("DSL:onPageScrolled");
+            try {
+                final float percent = mTracker.onPageScrolled(positionOffset);
+                if (percent != PagerOffsetTracker.NO_PERCENT) {
+                    mPagerHideCoalescer.post(percent, mCurDragViewTop);
                 }
+            } finally {
+                DragTrace.end();
             }
+        }
 
-            @Override
-            public void onPageScrollStateChanged(int state) {
-                if (state == ViewPager.SCROLL_STATE_IDLE && !mIsCustomAnimator) {
-                    isRightSlide = true;
-                    mLastOffset = 0;
+        @Override
+        public void onPageScrollStateChanged(int state) {
+            DragTrace.begin("DSL:onPageScrollStateChanged");
+            try {
+                // 先应用这一帧还没应用的进度
+                mPagerHideCoalescer.flush();
+                if (state == PagerDriver.SCROLL_STATE_IDLE) {
                     // 如果手动调用退出动画则不做自动启动动画
-                    if (mDragStatus == STATUS_EXIT && !mIsDoOutAnim && mMode != MODE_DRAG_OUTSIDE) {
+                    if (mStateMachine.is(DragState.EXIT) && !mIsDoOutAnim && mModeStrategy.isAutoShowAfterPager()) {
                         _showDragView(mAutoAnimateDelay);
+                    } else if (mStateMachine.is(DragState.SCROLL) && !_isScrollerRunning() && !mIsDoOutAnim
+                            && !mHasShowRunnable && (mAnimPresenter == null || !mAnimPresenter.isAnimating())) {
+                        // 滑回原来的页面等情况，联动停止后从 SCROLL 切换到和位置对应的静止状态
+                        mModeStrategy.onPagerSettled();
                     }
                 } else {
-                    if (mDragStatus == STATUS_EXIT) {
-                        getHandler().removeCallbacks(mShowRunnable);
+                    if (mStateMachine.is(DragState.EXIT)) {
+                        _cancelShowDragView();
                     }
-                    if (state == ViewPager.SCROLL_STATE_DRAGGING) {
-                        curDragViewTop = mDragView.getTop();
+                    if (state == PagerDriver.SCROLL_STATE_DRAGGING) {
+                        mCurDragViewTop = mDragView.getTop();
                     }
                 }
-                status = state;
+                mTracker.onPageScrollStateChanged(state);
+                mIsPagerScrolling = state != PagerDriver.SCROLL_STATE_IDLE;
+                _checkMotion();
+            } finally {
+                DragTrace.end();
             }
-        };
-        ((ViewPager) mMainView).addOnPageChangeListener(mViewPagerListener);
+        }
     }
 
     public int getAutoAnimateDelay() {
@@ -892,6 +1460,7 @@ public class DragSlopLayout extends FrameLayout {
                     isViewPager = true;
                     break;
                 }
+                parent = parent.getParent();
             }
         }
         return isViewPager;
@@ -910,22 +1479,67 @@ public class DragSlopLayout extends FrameLayout {
     public static final int ZOOM = 107;
     public static final int ZOOM_LEFT = 108;
     public static final int ZOOM_RIGHT = 109;
+    // 由 AnimatorSpec 描述的动画，通过 setAnimatorSpec() 设置
+    public static final int SPEC = 110;
 
     @Retention(RetentionPolicy.SOURCE)
-    @IntDef({SLIDE_BOTTOM, SLIDE_LEFT, SLIDE_RIGHT, FADE, FLIP_X, FLIP_Y, ZOOM, ZOOM_LEFT, ZOOM_RIGHT})
+    @IntDef({SLIDE_BOTTOM, SLIDE_LEFT, SLIDE_RIGHT, FADE, FLIP_X, FLIP_Y, ZOOM, ZOOM_LEFT, ZOOM_RIGHT, SPEC})
     public @interface AnimatorMode {
     }
 
+    /**
+     * 创建动画持有者，动画结束时切换状态
+     */
+    private void _createAnimPresenter() {
+        mAnimPresenter = new AnimatorPresenter();
+        mAnimPresenter.setOnAnimateListener(new AnimatorPresenter.OnAnimateListener() {
+            @Override
+            public void onAnimateEnd(boolean isEnter) {
+                mStateMachine.transitionTo(isEnter ? DragState.EXPANDED : DragState.EXIT);
+                _checkMotion();
+            }
+
+            @Override
+            public void onAnimateCancel(boolean isEnter) {
+                mMetrics.increment(DragMetrics.COUNTER_ANIMATOR_CANCEL);
+                _checkMotion();
+            }
+        });
+    }
+
     public int getAnimatorMode() {
         return mAnimPresenter.getAnimatorMode();
     }
 
     public void setAnimatorMode(@AnimatorMode int animatorMode) {
-        mIsCustomAnimator = false;
         if (mAnimPresenter == null) {
-            mAnimPresenter = new AnimatorPresenter();
+            _createAnimPresenter();
         }
         mAnimPresenter.setAnimatorMode(animatorMode);
+        _prepareAnimatorsOnIdle();
+    }
+
+    /**
+     * 设置由 JSON 等方式描述的动画模式，一般通过 {@link AnimatorSpecLoader} 加载
+     * 其中的时长、启动延迟和插值器只在这个模式下生效，不会改变 {@link #setAnimatorMode} 等模式使用的设置
+     *
+     * @param spec 动画模式
+     */
+    public void setAnimatorSpec(AnimatorSpec spec) {
+        if (mAnimPresenter == null) {
+            _createAnimPresenter();
+        }
+        mAnimPresenter.setAnimatorSpec(spec);
+        _prepareAnimatorsOnIdle();
+    }
+
+    /**
+     * 设置 res/raw 中 JSON 描述的动画模式，同一个资源只解析一次
+     *
+     * @param rawId 资源ID
+     */
+    public void setAnimatorSpec(@RawRes int rawId) {
+        setAnimatorSpec(AnimatorSpecLoader.fromRaw(getContext(), rawId));
     }
 
     public int getStartDelay() {
@@ -948,6 +1562,9 @@ public class DragSlopLayout extends FrameLayout {
         return mAnimPresenter.getInterpolator();
     }
 
+    /**
+     * 设置动画插值器，PathInterpolator 等计算量大的插值器可以用 {@link com.dl7.drag.animate.LutInterpolator} 包装
+     */
     public void setInterpolator(Interpolator interpolator) {
         mAnimPresenter.setInterpolator(interpolator);
     }
@@ -957,7 +1574,20 @@ public class DragSlopLayout extends FrameLayout {
      */
     public void startInAnim() {
         mIsDoOutAnim = false;
+        if (inflateDragView()) {
+            // 刚加载的 DragView 还没布局，等布局完成再执行动画
+            _doOnNextPreDraw(new Runnable() {
+                @Override
+                public void run() {
+                    startInAnim();
+                }
+            });
+            return;
+        }
+        mStateMachine.transitionTo(DragState.SCROLL);
+        mMetrics.increment(DragMetrics.COUNTER_ANIMATOR_START);
         mAnimPresenter.startInAnim(mDragView);
+        _checkMotion();
     }
 
     /**
@@ -966,18 +1596,21 @@ public class DragSlopLayout extends FrameLayout {
      */
     public void startOutAnim() {
         mIsDoOutAnim = true;
+        mStateMachine.transitionTo(DragState.SCROLL);
+        mMetrics.increment(DragMetrics.COUNTER_ANIMATOR_START);
         mAnimPresenter.startOutAnim(mDragView);
+        _checkMotion();
     }
 
     /**
-     * 设置自定义动画
+     * 设置自定义动画，和 ViewPager 联动时退出动画会按滑动进度定位
      *
      * @param inAnimator  进入动画
      * @param outAnimator 退出动画
      */
     public void setCustomAnimator(CustomViewAnimator inAnimator, CustomViewAnimator outAnimator) {
-        mIsCustomAnimator = true;
         mAnimPresenter.setCustomAnimator(inAnimator, outAnimator);
+        _prepareAnimatorsOnIdle();
     }
 
     /*************************************
@@ -996,6 +1629,9 @@ public class DragSlopLayout extends FrameLayout {
     private RenderScript mRenderScript;
     private ScriptIntrinsicBlur mBlurScript;
     private Allocation mBlurInput, mBlurOutput;
+    // RenderScript 不可用时使用的纯 Java 模糊，以及读写 Bitmap 的像素数组
+    private StackBlur mStackBlur;
+    private int[] mBlurPixels;
     private int mBlurredViewWidth, mBlurredViewHeight;
     // 采样因数，降低需要模糊处理图片的像素，提高处理速度
     private int mSampleFactor = DEFAULT_SAMPLE_FACTOR;
@@ -1003,6 +1639,8 @@ public class DragSlopLayout extends FrameLayout {
     private int mBlurRadius = DEFAULT_BLUR_RADIUS;
     // 是否全图模糊，默认为局部模糊即只模糊 DragView 部分
     private boolean mIsBlurFull = false;
+    // 模糊任务编号，用于区分异步的 trace 段
+    private int mBlurJobId;
 
     public int getSampleFactor() {
         return mSampleFactor;
@@ -1038,20 +1676,27 @@ public class DragSlopLayout extends FrameLayout {
         }
         mEnableBlur = enableBlur;
         if (mEnableBlur) {
-            mBlurView.setVisibility(VISIBLE);
-            if (mRenderScript == null || mBlurScript == null) {
-                mRenderScript = RenderScript.create(getContext());
-                mBlurScript = ScriptIntrinsicBlur.create(mRenderScript, Element.U8_4(mRenderScript));
-                mBlurScript.setRadius(mBlurRadius);
-            }
-            mMainView.post(new Runnable() {
-                @Override
-                public void run() {
-                    _handleBlurInThread();
+            _getBlurView().setVisibility(VISIBLE);
+            if ((mRenderScript == null || mBlurScript == null) && mStackBlur == null) {
+                try {
+                    mRenderScript = RenderScript.create(getContext());
+                    mBlurScript = ScriptIntrinsicBlur.create(mRenderScript, Element.U8_4(mRenderScript));
+                    mBlurScript.setRadius(mBlurRadius);
+                } catch (RSRuntimeException e) {
+                    // 部分设备缺少 RenderScript 的 so 库，改用 StackBlur
+                    Log.w(TAG, "RenderScript is unavailable, fall back to StackBlur.", e);
+                    mRenderScript = null;
+                    mBlurScript = null;
+                    mStackBlur = new StackBlur();
                 }
-            });
+            }
+            _prefetchBlurOnIdle();
         } else {
-            mBlurView.setVisibility(GONE);
+            _cancelIdleTask(mIdleBlurTask);
+            mIdleBlurTask = null;
+            if (mBlurView != null) {
+                mBlurView.setVisibility(GONE);
+            }
             if (mBitmapToBlur != null) {
                 mBitmapToBlur.recycle();
                 mBitmapToBlur = null;
@@ -1068,10 +1713,31 @@ public class DragSlopLayout extends FrameLayout {
     public void updateBlurView() {
         if (mEnableBlur) {
             mBlurDrawable = null;
-            _handleBlurInThread();
+            _prefetchBlurOnIdle();
+        }
+    }
+
+    /**
+     * 在主线程空闲时开始模糊，工作线程截取主视图时不和拖拽、动画的帧争用
+     * 还没执行时重复调用只模糊一次
+     */
+    private void _prefetchBlurOnIdle() {
+        if (_isIdleTaskPending(mIdleBlurTask)) {
+            return;
         }
+        mIdleBlurTask = _getIdleScheduler().schedule(mIdleBlurAction);
     }
 
+    private final Runnable mIdleBlurAction = new Runnable() {
+        @Override
+        public void run() {
+            mIdleBlurTask = null;
+            if (mEnableBlur) {
+                _handleBlurInThread();
+            }
+        }
+    };
+
     /**
      * 模糊视图
      *
@@ -1083,8 +1749,13 @@ public class DragSlopLayout extends FrameLayout {
         if (width == 0 || height == 0) {
             return;
         }
+        final long startNanos = System.nanoTime();
+        // 尺寸不变时复用 Bitmap 和 Allocation
+        boolean isCacheHit = true;
         if (mBlurringCanvas == null || mBitmapToBlur == null
                 || mBlurredViewWidth != width || mBlurredViewHeight != height) {
+            DragTrace.begin("DSL:blur.allocate");
+            isCacheHit = false;
 
             mBlurredViewWidth = width;
             mBlurredViewHeight = height;
@@ -1101,9 +1772,13 @@ public class DragSlopLayout extends FrameLayout {
             }
             mBlurringCanvas = new Canvas(mBitmapToBlur);
             mBlurringCanvas.scale(1.0f / mSampleFactor, 1.0f / mSampleFactor);
-            mBlurInput = Allocation.createFromBitmap(mRenderScript, mBitmapToBlur,
-                    Allocation.MipmapControl.MIPMAP_NONE, Allocation.USAGE_SCRIPT);
-            mBlurOutput = Allocation.createTyped(mRenderScript, mBlurInput.getType());
+            if (mBlurScript != null) {
+                mBlurInput = Allocation.createFromBitmap(mRenderScript, mBitmapToBlur,
+                        Allocation.MipmapControl.MIPMAP_NONE, Allocation.USAGE_SCRIPT);
+                mBlurOutput = Allocation.createTyped(mRenderScript, mBlurInput.getType());
+            } else {
+                mBlurPixels = new int[scaledWidth * scaledHeight];
+            }
 
             // 背景为 ColorDrawable 则设置对应颜色，否则设为透明
             if (view.getBackground() != null && view.getBackground() instanceof ColorDrawable) {
@@ -1111,26 +1786,49 @@ public class DragSlopLayout extends FrameLayout {
             } else {
                 mBitmapToBlur.eraseColor(Color.TRANSPARENT);
             }
+            DragTrace.end();
         }
         // 将目标视图的背景绘制到 mBitmapToBlur
+        DragTrace.begin("DSL:blur.draw");
         view.draw(mBlurringCanvas);
+        DragTrace.end();
         // 模糊处理
-        mBlurInput.copyFrom(mBitmapToBlur);
-        mBlurScript.setInput(mBlurInput);
-        mBlurScript.forEach(mBlurOutput);
-        mBlurOutput.copyTo(mBitmapToBlur);
+        if (mBlurScript != null) {
+            DragTrace.begin("DSL:blur.renderScript");
+            mBlurInput.copyFrom(mBitmapToBlur);
+            mBlurScript.setInput(mBlurInput);
+            mBlurScript.forEach(mBlurOutput);
+            mBlurOutput.copyTo(mBitmapToBlur);
+            DragTrace.end();
+        } else {
+            DragTrace.begin("DSL:blur.stackBlur");
+            final int bitmapWidth = mBitmapToBlur.getWidth();
+            final int bitmapHeight = mBitmapToBlur.getHeight();
+            mBitmapToBlur.getPixels(mBlurPixels, 0, bitmapWidth, 0, 0, bitmapWidth, bitmapHeight);
+            mStackBlur.blur(mBlurPixels, bitmapWidth, bitmapHeight,
+                    Math.min(Math.max(mBlurRadius, 1), StackBlur.MAX_RADIUS));
+            mBitmapToBlur.setPixels(mBlurPixels, 0, bitmapWidth, 0, 0, bitmapWidth, bitmapHeight);
+            DragTrace.end();
+        }
         // 放大回原图大小
+        DragTrace.begin("DSL:blur.zoom");
         Bitmap blurredBitmap = BitmapUtils.zoom(mBitmapToBlur, width, height);
+        DragTrace.end();
+        mMetrics.increment(DragMetrics.COUNTER_BLUR);
+        if (isCacheHit) {
+            mMetrics.increment(DragMetrics.COUNTER_BLUR_CACHE_HIT);
+        }
+        mLastBlurNanos = System.nanoTime() - startNanos;
+        mMetrics.recordLatency(DragMetrics.HISTOGRAM_BLUR_LATENCY, mLastBlurNanos);
         // 将模糊的 Bitmap 转化为 ClipDrawable
         Drawable drawable = new BitmapDrawable(getResources(), blurredBitmap);
         mBlurDrawable = new ClipDrawable(drawable, Gravity.BOTTOM, ClipDrawable.VERTICAL);
-        if (mDragStatus == STATUS_EXPANDED) {
+        if (mStateMachine.is(DragState.EXPANDED)) {
             if (mIsBlurFull) {
-                mBlurDrawable.setLevel(10000);
+                mBlurDrawable.setLevel(DragMath.MAX_LEVEL);
             } else {
                 final int visibleHeight = mHeight - mDragView.getTop();
-                final int blurLevel = (int) ((visibleHeight * 1.0f / mMainView.getHeight()) * 10000);
-                mBlurDrawable.setLevel(blurLevel);
+                mBlurDrawable.setLevel(DragMath.blurLevel(visibleHeight, mMainView.getHeight()));
             }
             mBlurDrawable.setAlpha(255);
         } else {
@@ -1144,29 +1842,393 @@ public class DragSlopLayout extends FrameLayout {
      */
     @SuppressWarnings("deprecation")
     private void _handleBlurInThread() {
+        // 整个模糊任务从提交到设置背景用异步段标记，跨越主线程和工作线程
+        final int blurJobId = ++mBlurJobId;
+        DragTrace.beginAsync("DSL:blurJob", blurJobId);
         new Thread(new Runnable() {
             @Override
             public void run() {
-                _blurView(mMainView);
+                DragTrace.begin("DSL:blurView");
+                try {
+                    _blurView(mMainView);
+                } finally {
+                    DragTrace.end();
+                }
                 mBlurView.post(new Runnable() {
                     @Override
                     public void run() {
+                        DragTrace.begin("DSL:blur.apply");
                         // 设置模糊背景
                         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
                             mBlurView.setBackground(mBlurDrawable);
                         } else {
                             mBlurView.setBackgroundDrawable(mBlurDrawable);
                         }
+                        DragTrace.end();
+                        DragTrace.endAsync("DSL:blurJob", blurJobId);
+                        if (mDebugOverlay != null) {
+                            invalidate();
+                        }
                     }
                 });
             }
         }).start();
     }
 
+    /*********************************** Motion ********************************************/
+
+    // 最近一次检查时 DragView 是否在运动
+    private boolean mIsMoving = false;
+
+    /**
+     * DragView 是否真的在运动：拖拽中、滚动没有结束、进入或退出动画执行中、和翻页控件联动中，
+     * 或者还有联动的进度等待下一帧应用。和状态无关，停在各临界位置之间时不算运动
+     */
+    private boolean _isMoving() {
+        return (mDragHelper != null && mDragHelper.getViewDragState() != ViewDragHelper.STATE_IDLE)
+                || _isScrollerRunning()
+                || (mAnimPresenter != null && mAnimPresenter.isAnimating())
+                || mIsPagerScrolling
+                || mPagerHideCoalescer.isPending();
+    }
+
+    /**
+     * 检查运动是否开始或停止，变化时更新依赖运动的功能
+     * 在拖拽状态、滚动、动画和联动变化时调用，没有变化时不做任何事
+     */
+    private void _checkMotion() {
+        final boolean isMoving = _isMoving();
+        if (isMoving == mIsMoving) {
+            return;
+        }
+        mIsMoving = isMoving;
+        if (mEnableHardwareLayer || mEnableMainViewHardwareLayer) {
+            _updateHardwareLayers();
+        }
+        if (mDragSessionListener != null) {
+            _monitorSession(isMoving);
+        }
+        if (mDebugOverlay != null) {
+            if (isMoving) {
+                mDebugOverlay.startRecording();
+            } else {
+                mDebugOverlay.stopRecording();
+            }
+        }
+    }
+
+    /*********************************** Hardware Layer ********************************************/
+
+    // 是否在运动时给 DragView 开启硬件层
+    private boolean mEnableHardwareLayer = false;
+    // 是否在运动时给主视图开启硬件层
+    private boolean mEnableMainViewHardwareLayer = false;
+    // 开启硬件层之前的层类型，停止时恢复
+    private int mDragViewLayerType = -1;
+    private int mMainViewLayerType = -1;
+
+    /**
+     * 设置在拖拽、滚动和动画期间给 DragView 开启硬件层，停止时关闭，默认关闭
+     * 透明度、翻转和缩放动画直接合成缓存的纹理，不需要重新绘制整个视图树
+     * 注意：运动期间 DragView 的内容还在变化(如滚动列表)时每帧都要更新纹理，反而更慢
+     *
+     * @param enable
+     */
+    public void setEnableHardwareLayer(boolean enable) {
+        mEnableHardwareLayer = enable;
+        _updateHardwareLayers();
+    }
+
+    /**
+     * 设置在运动期间给主视图开启硬件层，主视图有视差滚动时(collapse_parallax 小于 1)才生效，默认关闭
+     *
+     * @param enable
+     */
+    public void setEnableMainViewHardwareLayer(boolean enable) {
+        mEnableMainViewHardwareLayer = enable;
+        _updateHardwareLayers();
+    }
+
+    /**
+     * 根据是否在运动开启或关闭硬件层
+     */
+    private void _updateHardwareLayers() {
+        final boolean isMoving = mIsMoving;
+        // DragView 未加载时不处理
+        final View dragView = mDragViewStub == null ? mDragView : null;
+        mDragViewLayerType = _switchHardwareLayer(dragView, isMoving && mEnableHardwareLayer, mDragViewLayerType);
+        mMainViewLayerType = _switchHardwareLayer(mMainView,
+                isMoving && mEnableMainViewHardwareLayer && mCollapseParallax != 1.0f, mMainViewLayerType);
+    }
+
+    /**
+     * 开启或关闭视图的硬件层，已经是硬件层的视图保持不变
+     *
+     * @param view          视图
+     * @param enable        是否开启
+     * @param savedType     开启之前的层类型，-1 表示当前没有开启
+     * @return 新的 savedType
+     */
+    private static int _switchHardwareLayer(View view, boolean enable, int savedType) {
+        if (view == null) {
+            return savedType;
+        }
+        if (enable && savedType == -1) {
+            savedType = ViewCompat.getLayerType(view);
+            if (savedType != ViewCompat.LAYER_TYPE_HARDWARE) {
+                ViewCompat.setLayerType(view, ViewCompat.LAYER_TYPE_HARDWARE, null);
+            }
+        } else if (!enable && savedType != -1) {
+            if (savedType != ViewCompat.LAYER_TYPE_HARDWARE) {
+                ViewCompat.setLayerType(view, savedType, null);
+            }
+            savedType = -1;
+        }
+        return savedType;
+    }
+
+    /*********************************** Metrics ********************************************/
+
+    // 运行统计
+    private final DragMetrics mMetrics = DragMetrics.create();
+    // 回弹或惯性滚动开始的时间，没有在滚动时为 0
+    private long mSettleStartNanos;
+
+    /**
+     * 获取这个 DragSlopLayout 的运行统计，所有实例的累计统计见 {@link DragMetrics#global()}
+     *
+     * @return
+     */
+    public DragMetrics getMetrics() {
+        return mMetrics;
+    }
+
+    /*********************************** Debug ********************************************/
+
+    private static final String TAG = "DragSlopLayout";
+    // 调试信息，开启时创建
+    private DebugOverlay mDebugOverlay;
+    // 最近一次拖拽的百分比，只在显示调试信息时记录
+    private float mDragPercent;
+    // 最近一次模糊的耗时，在工作线程写入
+    private volatile long mLastBlurNanos;
+
+    /**
+     * 设置在 DragSlopLayout 上层显示调试信息：状态、拖拽百分比、最近的帧间隔、最近一次模糊的耗时、模糊缓存大小和硬件层状态
+     * 只在 debuggable 的应用中生效，release 包中调用会被忽略
+     *
+     * @param enable
+     */
+    public void setDebugOverlayEnabled(boolean enable) {
+        if (enable && (getContext().getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) == 0) {
+            Log.w(TAG, "Debug overlay is only available in debuggable apps.");
+            return;
+        }
+        if (enable == (mDebugOverlay != null)) {
+            return;
+        }
+        if (enable) {
+            mDebugOverlay = new DebugOverlay(this, _getRefreshIntervalNanos());
+            if (mIsMoving) {
+                mDebugOverlay.startRecording();
+            }
+        } else {
+            mDebugOverlay.stopRecording();
+            mDebugOverlay = null;
+        }
+        invalidate();
+    }
+
+    @Override
+    protected void dispatchDraw(Canvas canvas) {
+        super.dispatchDraw(canvas);
+        if (mDebugOverlay != null) {
+            _fillDebugText(mDebugOverlay.beginText());
+            mDebugOverlay.draw(canvas);
+        }
+    }
+
+    private void _fillDebugText(StringBuilder text) {
+        text.append("state=").append(mStateMachine.getState())
+                .append("  percent=").append(Math.round(mDragPercent * 100)).append('%')
+                .append("  mode=").append(mMode == MODE_DRAG ? "drag" : mMode == MODE_ANIMATE ? "animate" : "dragOutside");
+        text.append('\n').append("lastFrame=").append(Math.round(mDebugOverlay.getLastFrameMillis() * 10) / 10f)
+                .append("ms");
+        text.append('\n').append("blur=");
+        if (!mEnableBlur) {
+            text.append("off");
+        } else {
+            text.append(mBlurScript != null ? "RenderScript" : "StackBlur").append("  last=").append(Math.round(mLastBlurNanos / 100000f) / 10f).append("ms");
+            final Bitmap cache = mBitmapToBlur;
+            if (cache != null) {
+                text.append("  cache=").append(cache.getWidth()).append('x').append(cache.getHeight())
+                        .append(' ').append(cache.getRowBytes() * cache.getHeight() / 1024).append("KB");
+            }
+        }
+        text.append('\n').append("hwLayer: drag=")
+                .append(mDragViewStub == null && ViewCompat.getLayerType(mDragView) == ViewCompat.LAYER_TYPE_HARDWARE)
+                .append("  main=").append(mMainView != null
+                        && ViewCompat.getLayerType(mMainView) == ViewCompat.LAYER_TYPE_HARDWARE);
+    }
+
+    /*********************************** Idle ********************************************/
+
+    // 主线程空闲时执行不紧急的准备工作，第一次提交时创建
+    private IdleScheduler mIdleScheduler;
+    // 等待空闲执行的任务：自动显示、模糊预取、动画准备和 DragView 加载
+    private IdleScheduler.Task mIdleShowTask;
+    private IdleScheduler.Task mIdleBlurTask;
+    private IdleScheduler.Task mIdleAnimatorTask;
+    private IdleScheduler.Task mIdleInflateTask;
+    // 是否在空闲时加载延迟的 DragView
+    private boolean mIsInflateOnIdle = false;
+
+    /**
+     * 设置是否在主线程空闲时加载延迟的 DragView，默认关闭，即首次展开或开始拖拽时才加载
+     * 开启后首屏布局完成、没有拖拽和动画时提前加载，首次展开时不用再在帧内加载
+     *
+     * @param enable
+     */
+    public void setInflateDragViewOnIdle(boolean enable) {
+        mIsInflateOnIdle = enable;
+        if (enable) {
+            _inflateDragViewOnIdle();
+        } else {
+            _cancelIdleTask(mIdleInflateTask);
+            mIdleInflateTask = null;
+        }
+    }
+
+    /**
+     * 获取空闲调度，DragView 真的在运动和等待布局时推迟执行，和状态无关
+     */
+    private IdleScheduler _getIdleScheduler() {
+        if (mIdleScheduler == null) {
+            mIdleScheduler = new IdleScheduler(new IdleScheduler.BusyCondition() {
+                @Override
+                public boolean isBusy() {
+                    return _isMoving() || isLayoutRequested();
+                }
+            });
+        }
+        return mIdleScheduler;
+    }
+
+    /**
+     * 测试用，获取空闲调度
+     */
+    IdleScheduler getIdleScheduler() {
+        return _getIdleScheduler();
+    }
+
+    private static boolean _isIdleTaskPending(IdleScheduler.Task task) {
+        return task != null && task.isPending();
+    }
+
+    private static void _cancelIdleTask(IdleScheduler.Task task) {
+        if (task != null) {
+            task.cancel();
+        }
+    }
+
+    /**
+     * 在空闲时创建动画并绑定 DragView，只在有动画持有者并且 DragView 已经加载时执行
+     */
+    private void _prepareAnimatorsOnIdle() {
+        if (mAnimPresenter == null || mDragViewStub != null || _isIdleTaskPending(mIdleAnimatorTask)) {
+            return;
+        }
+        mIdleAnimatorTask = _getIdleScheduler().schedule(mIdleAnimatorAction);
+    }
+
+    private final Runnable mIdleAnimatorAction = new Runnable() {
+        @Override
+        public void run() {
+            mIdleAnimatorTask = null;
+            DragTrace.begin("DSL:prepareAnimators");
+            try {
+                mAnimPresenter.prepare(mDragView);
+            } finally {
+                DragTrace.end();
+            }
+        }
+    };
+
+    private void _inflateDragViewOnIdle() {
+        if (!mIsInflateOnIdle || mDragViewStub == null || _isIdleTaskPending(mIdleInflateTask)) {
+            return;
+        }
+        mIdleInflateTask = _getIdleScheduler().schedule(mIdleInflateAction);
+    }
+
+    private final Runnable mIdleInflateAction = new Runnable() {
+        @Override
+        public void run() {
+            mIdleInflateTask = null;
+            inflateDragView();
+        }
+    };
+
+    /*********************************** Trace ********************************************/
+
+    /**
+     * 设置是否在 systrace/Perfetto 中标记测量、布局、滚动、拖拽分发、ViewPager 联动和模糊处理等耗时段，
+     * 段名称以 "DSL:" 开头，默认关闭，需要 API 18 以上
+     *
+     * @param enable
+     */
+    public static void setTraceEnabled(boolean enable) {
+        DragTrace.sEnabled = enable;
+    }
+
+    // 手势录制
+    private GestureRecorder mGestureRecorder;
+
+    /**
+     * 设置手势录制，录制所有分发给 DragSlopLayout 的触摸事件，ViewPager 的回调需要另外添加，见 {@link GestureRecorder}
+     *
+     * @param recorder 为 null 则取消录制
+     */
+    public void setGestureRecorder(GestureRecorder recorder) {
+        mGestureRecorder = recorder;
+    }
+
     /** ================================ 监听器 ================================ */
 
-    // 监听器
+    // DragView 工厂
+    private DragViewFactory mDragViewFactory;
+    // DragView 加载监听器
+    private OnDragViewInflateListener mDragViewInflateListener;
+
+    // 通过 setDragPositionListener() 设置的监听器
     private OnDragPositionListener mDragPositionListener;
+    // 拖拽位置分发
+    private final DragPositionDispatcher mPositionDispatcher = new DragPositionDispatcher(this);
+    // 状态监听器
+    private OnDragStateChangeListener mDragStateChangeListener;
+    // 帧统计监听器
+    private OnDragSessionListener mDragSessionListener;
+    // 帧统计，设置监听器时创建
+    private FrameMonitor mFrameMonitor;
+    // 状态变化回调
+    private DragStateMachine.Callback mStateCallback = new DragStateMachine.Callback() {
+        @Override
+        public void onStateChanged(DragState oldState, DragState newState) {
+            _checkMotion();
+            if (mDebugOverlay != null) {
+                // 刷新显示的状态
+                invalidate();
+            }
+            if (newState != DragState.SCROLL && mSettleStartNanos != 0) {
+                mMetrics.increment(DragMetrics.COUNTER_SETTLE);
+                mMetrics.recordLatency(DragMetrics.HISTOGRAM_SETTLE_DURATION, System.nanoTime() - mSettleStartNanos);
+                mSettleStartNanos = 0;
+            }
+            if (mDragStateChangeListener != null) {
+                mDragStateChangeListener.onDragStateChanged(oldState, newState);
+            }
+        }
+    };
     // 是否向上拖拽
     private boolean mIsUp = false;
     // 上一次比较时的拖拽高度
@@ -1175,11 +2237,96 @@ public class DragSlopLayout extends FrameLayout {
     private int mMinTouchSlop;
 
     /**
-     * 设置监听器
+     * 设置监听器，替换之前通过这个方法设置的监听器，不影响 {@link #addDragPositionListener} 添加的监听器
      * @param dragPositionListener
      */
     public void setDragPositionListener(OnDragPositionListener dragPositionListener) {
+        if (mDragPositionListener != null) {
+            mPositionDispatcher.removePositionListener(mDragPositionListener);
+        }
         mDragPositionListener = dragPositionListener;
+        if (dragPositionListener != null) {
+            mPositionDispatcher.addPositionListener(dragPositionListener);
+        }
+    }
+
+    /**
+     * 添加拖拽监听器，每次位置变化都会回调，一帧内可能回调多次
+     * @param listener
+     */
+    public void addDragPositionListener(OnDragPositionListener listener) {
+        mPositionDispatcher.addPositionListener(listener);
+    }
+
+    public void removeDragPositionListener(OnDragPositionListener listener) {
+        mPositionDispatcher.removePositionListener(listener);
+    }
+
+    /**
+     * 添加按帧合并的拖拽监听器，每帧最多回调一次，带上这一帧最新的位置，适合做比较重的界面更新
+     * @param listener
+     */
+    public void addDragFrameListener(OnDragFrameListener listener) {
+        mPositionDispatcher.addFrameListener(listener);
+    }
+
+    public void removeDragFrameListener(OnDragFrameListener listener) {
+        mPositionDispatcher.removeFrameListener(listener);
+    }
+
+    /**
+     * 设置帧统计监听器，设置后每次从静止状态开始运动到回到静止状态都会统计帧间隔，结束时回调，需要 API 16 以上
+     * @param listener 为 null 则停止统计
+     */
+    public void setOnDragSessionListener(OnDragSessionListener listener) {
+        mDragSessionListener = listener;
+        if (listener == null) {
+            if (mFrameMonitor != null) {
+                mFrameMonitor.cancel();
+            }
+        } else if (mFrameMonitor == null) {
+            mFrameMonitor = new FrameMonitor(_getRefreshIntervalNanos());
+        }
+    }
+
+    /**
+     * 运动开始时开始帧统计，运动停止时结束统计，状态此时已经切换到静止状态
+     */
+    private void _monitorSession(boolean isMoving) {
+        if (isMoving) {
+            mFrameMonitor.start(mMode);
+        } else {
+            DragSession session = mFrameMonitor.stop(mStateMachine.getState());
+            if (session != null) {
+                mDragSessionListener.onDragSession(session);
+            }
+        }
+    }
+
+    private long _getRefreshIntervalNanos() {
+        WindowManager windowManager = (WindowManager) getContext().getSystemService(Context.WINDOW_SERVICE);
+        final float refreshRate = windowManager.getDefaultDisplay().getRefreshRate();
+        if (refreshRate < 10) {
+            // 部分设备返回的刷新率不正确
+            return FrameMonitor.DEFAULT_REFRESH_INTERVAL_NANOS;
+        }
+        return (long) (1000000000L / refreshRate);
+    }
+
+    /**
+     * 设置状态监听器
+     * @param listener
+     */
+    public void setOnDragStateChangeListener(OnDragStateChangeListener listener) {
+        mDragStateChangeListener = listener;
+    }
+
+    /**
+     * 获取 DragView 当前的状态
+     * @return
+     */
+    public DragState getDragState() {
+        return mStateMachine.getState();
     }
 
     /**
@@ -1195,4 +2342,70 @@ public class DragSlopLayout extends FrameLayout {
          */
         void onDragPosition(int visibleHeight, float percent, boolean isUp);
     }
+
+    /**
+     * 按帧合并的拖拽监听器
+     */
+    public interface OnDragFrameListener {
+
+        /**
+         * 这一帧最新的拖拽位置
+         * @param visibleHeight 可见高度
+         * @param percent   可见百分比
+         * @param isUp  是否向上拖拽
+         * @param frameTimeNanos 帧时间，和 System.nanoTime() 同一时基
+         */
+        void onDragFrame(int visibleHeight, float percent, boolean isUp, long frameTimeNanos);
+    }
+
+    /**
+     * 状态监听器，两个静止状态之间的切换会先经过 {@link DragState#SCROLL}，
+     * SCROLL 只在运动期间出现，停在各临界位置之间时为 {@link DragState#INTERMEDIATE}
+     */
+    public interface OnDragStateChangeListener {
+
+        /**
+         * 状态变化
+         * @param oldState 之前的状态
+         * @param newState 新的状态
+         */
+        void onDragStateChanged(DragState oldState, DragState newState);
+    }
+
+    /**
+     * 帧统计监听器
+     */
+    public interface OnDragSessionListener {
+
+        /**
+         * 一次拖拽、滚动或动画结束，不足两帧的过程不回调
+         * @param session 帧统计结果
+         */
+        void onDragSession(DragSession session);
+    }
+
+    /**
+     * DragView 工厂
+     */
+    public interface DragViewFactory {
+
+        /**
+         * 创建 DragView，在首次展开或开始拖拽时调用
+         * @param parent DragSlopLayout
+         * @return DragView
+         */
+        View onCreateDragView(DragSlopLayout parent);
+    }
+
+    /**
+     * DragView 加载监听器
+     */
+    public interface OnDragViewInflateListener {
+
+        /**
+         * DragView 加载完成
+         * @param dragView 加载后的 DragView
+         */
+        void onDragViewInflated(View dragView);
+    }
 }
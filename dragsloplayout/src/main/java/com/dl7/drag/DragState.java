@@ -0,0 +1,37 @@
+package com.dl7.drag;
+
+/**
+ * Created by long on 2016/11/29.
+ * DragView 的状态
+ */
+public enum DragState {
+
+    /**
+     * 展开，MODE_ANIMATE 模式下表示 DragView 显示
+     */
+    EXPANDED,
+    /**
+     * 收缩到固定高度，MODE_ANIMATE 模式没有这个状态
+     */
+    COLLAPSED,
+    /**
+     * 退出屏幕
+     */
+    EXIT,
+    /**
+     * 拖拽、滚动、动画或和 ViewPager 联动中的过渡状态，停止运动后一定会离开
+     */
+    SCROLL,
+    /**
+     * 停在各临界位置之间，如 MODE_DRAG_OUTSIDE 模式释放后停在展开和收缩之间，
+     * 或 ViewPager 停止滑动时 DragView 只隐藏了一部分
+     */
+    INTERMEDIATE;
+
+    /**
+     * 是否为静止状态
+     */
+    public boolean isSettled() {
+        return this != SCROLL;
+    }
+}
@@ -0,0 +1,103 @@
+package com.dl7.drag;
+
+import java.util.ArrayDeque;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Created by long on 2016/11/29.
+ * DragView 的状态机，不依赖 Android 框架，可以直接在 JVM 上测试
+ * 1. 两个不同的静止状态之间的切换会经过 SCROLL，保证监听器收到的都是相邻的状态变化
+ * 2. 切换到当前状态不会通知监听器
+ * 3. 在监听器中切换状态会排队，在当前通知完成后再依次处理
+ */
+final class DragStateMachine {
+
+    private final Set<DragState> mSupportedStates;
+    private final Callback mCallback;
+    private DragState mState;
+    // 排队的目标状态
+    private final ArrayDeque<DragState> mPendingStates = new ArrayDeque<>();
+    // 是否正在通知监听器
+    private boolean mIsDispatching = false;
+
+    /**
+     * @param initialState    初始状态
+     * @param supportedStates 支持的状态
+     * @param callback        状态变化回调
+     */
+    DragStateMachine(DragState initialState, Set<DragState> supportedStates, Callback callback) {
+        if (!supportedStates.contains(initialState)) {
+            throw new IllegalArgumentException("Unsupported initial state: " + initialState);
+        }
+        if (!supportedStates.contains(DragState.SCROLL)) {
+            throw new IllegalArgumentException("SCROLL must be supported.");
+        }
+        mState = initialState;
+        mSupportedStates = EnumSet.copyOf(supportedStates);
+        mCallback = callback;
+    }
+
+    DragState getState() {
+        return mState;
+    }
+
+    boolean is(DragState state) {
+        return mState == state;
+    }
+
+    /**
+     * 切换状态
+     *
+     * @param state 目标状态
+     */
+    void transitionTo(DragState state) {
+        if (state == null) {
+            throw new IllegalArgumentException("State can not be null.");
+        }
+        if (!mSupportedStates.contains(state)) {
+            throw new IllegalStateException("Unsupported state " + state + " in current mode, from " + mState);
+        }
+        mPendingStates.add(state);
+        if (mIsDispatching) {
+            // 在监听器中切换，等当前通知完成后处理
+            return;
+        }
+        mIsDispatching = true;
+        try {
+            while (!mPendingStates.isEmpty()) {
+                _transition(mPendingStates.poll());
+            }
+        } finally {
+            mIsDispatching = false;
+            mPendingStates.clear();
+        }
+    }
+
+    private void _transition(DragState state) {
+        if (state == mState) {
+            return;
+        }
+        if (mState.isSettled() && state.isSettled()) {
+            // 静止状态之间经过 SCROLL
+            _dispatch(DragState.SCROLL);
+        }
+        _dispatch(state);
+    }
+
+    private void _dispatch(DragState state) {
+        final DragState oldState = mState;
+        mState = state;
+        if (mCallback != null) {
+            mCallback.onStateChanged(oldState, state);
+        }
+    }
+
+    /**
+     * 状态变化回调
+     */
+    interface Callback {
+
+        void onStateChanged(DragState oldState, DragState newState);
+    }
+}
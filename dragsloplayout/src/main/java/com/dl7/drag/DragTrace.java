@@ -0,0 +1,90 @@
+package com.dl7.drag;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Trace;
+
+import java.lang.reflect.Method;
+
+/**
+ * Created by long on 2016/11/29.
+ * 在 systrace/Perfetto 中标记库内的耗时段，默认关闭，关闭时每次调用只读一个静态变量
+ * 同步段需要 API 18 以上；异步段用于跨线程的任务，公开的接口在 API 29 才有，之前的版本通过反射调用隐藏的接口，调用失败则忽略
+ */
+final class DragTrace {
+
+    private static final boolean IS_SUPPORTED = Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2;
+    // 和 Trace.TRACE_TAG_APP 一致
+    private static final long TRACE_TAG_APP = 1L << 12;
+
+    static volatile boolean sEnabled = false;
+
+    private static Method sAsyncTraceBegin;
+    private static Method sAsyncTraceEnd;
+    private static boolean sIsAsyncResolved = false;
+
+    private DragTrace() {
+        throw new Error("Do not need instantiate!");
+    }
+
+    /**
+     * 开始同步段，必须和 {@link #end()} 在同一个线程配对调用
+     *
+     * @param name 段名称，使用常量避免分配内存
+     */
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    static void begin(String name) {
+        if (sEnabled && IS_SUPPORTED) {
+            Trace.beginSection(name);
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    static void end() {
+        if (sEnabled && IS_SUPPORTED) {
+            Trace.endSection();
+        }
+    }
+
+    /**
+     * 开始异步段，可以在其它线程结束
+     *
+     * @param name   段名称
+     * @param cookie 区分同名的异步段
+     */
+    static void beginAsync(String name, int cookie) {
+        if (sEnabled && IS_SUPPORTED) {
+            _invokeAsync(true, name, cookie);
+        }
+    }
+
+    static void endAsync(String name, int cookie) {
+        if (sEnabled && IS_SUPPORTED) {
+            _invokeAsync(false, name, cookie);
+        }
+    }
+
+    private static void _invokeAsync(boolean isBegin, String name, int cookie) {
+        synchronized (DragTrace.class) {
+            if (!sIsAsyncResolved) {
+                sIsAsyncResolved = true;
+                try {
+                    sAsyncTraceBegin = Trace.class.getMethod("asyncTraceBegin", long.class, String.class, int.class);
+                    sAsyncTraceEnd = Trace.class.getMethod("asyncTraceEnd", long.class, String.class, int.class);
+                } catch (Exception e) {
+                    sAsyncTraceBegin = null;
+                    sAsyncTraceEnd = null;
+                }
+            }
+        }
+        final Method method = isBegin ? sAsyncTraceBegin : sAsyncTraceEnd;
+        if (method == null) {
+            return;
+        }
+        try {
+            method.invoke(null, TRACE_TAG_APP, name, cookie);
+        } catch (Exception e) {
+            // 隐藏接口不可用时忽略
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.dl7.drag;
+
+/**
+ * Created by long on 2016/11/29.
+ * 统计一次运动过程中的帧间隔，运动期间每帧通过 Choreographer 回调一次，每帧不分配内存
+ * API 16 以下没有 Choreographer，不做统计
+ */
+final class FrameMonitor implements ChoreographerCompat.FrameCallback {
+
+    // 默认 60Hz
+    static final long DEFAULT_REFRESH_INTERVAL_NANOS = 1000000000L / 60;
+
+    private final long mRefreshIntervalNanos;
+    private final int[] mHistogram = new int[DragSession.BUCKET_DROPPED_FRAMES.length];
+    // Choreographer.FrameCallback，第一次使用时创建
+    private Object mFrameCallback;
+    private boolean mIsRunning = false;
+    private int mMode;
+    private long mFirstFrameNanos;
+    private long mLastFrameNanos;
+    private int mFrameCount;
+    private int mJankFrameCount;
+    private int mDroppedFrameCount;
+    private long mMaxFrameIntervalNanos;
+
+    /**
+     * @param refreshIntervalNanos 屏幕刷新间隔
+     */
+    FrameMonitor(long refreshIntervalNanos) {
+        mRefreshIntervalNanos = refreshIntervalNanos > 0 ? refreshIntervalNanos : DEFAULT_REFRESH_INTERVAL_NANOS;
+    }
+
+    boolean isRunning() {
+        return mIsRunning;
+    }
+
+    /**
+     * 开始统计，已经开始则不处理
+     *
+     * @param mode DragSlopLayout 的模式
+     */
+    void start(int mode) {
+        if (mIsRunning) {
+            return;
+        }
+        _reset(mode);
+        mIsRunning = true;
+        if (ChoreographerCompat.isSupported()) {
+            if (mFrameCallback == null) {
+                mFrameCallback = ChoreographerCompat.createCallback(this);
+            }
+            ChoreographerCompat.post(mFrameCallback);
+        }
+    }
+
+    /**
+     * 停止统计
+     *
+     * @param endState 结束时的状态
+     * @return 统计结果，没有开始或者不足两帧返回 null
+     */
+    DragSession stop(DragState endState) {
+        if (!mIsRunning) {
+            return null;
+        }
+        mIsRunning = false;
+        if (mFrameCallback != null) {
+            ChoreographerCompat.remove(mFrameCallback);
+        }
+        return buildSession(endState);
+    }
+
+    /**
+     * 生成统计结果，不足两帧返回 null
+     */
+    DragSession buildSession(DragState endState) {
+        if (mFrameCount == 0) {
+            return null;
+        }
+        return new DragSession(mMode, endState, mLastFrameNanos - mFirstFrameNanos, mRefreshIntervalNanos,
+                mFrameCount, mJankFrameCount, mDroppedFrameCount, mMaxFrameIntervalNanos, mHistogram.clone());
+    }
+
+    /**
+     * 取消统计，不生成结果
+     */
+    void cancel() {
+        if (mIsRunning) {
+            mIsRunning = false;
+            if (mFrameCallback != null) {
+                ChoreographerCompat.remove(mFrameCallback);
+            }
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!mIsRunning) {
+            return;
+        }
+        recordFrame(frameTimeNanos);
+        ChoreographerCompat.post(mFrameCallback);
+    }
+
+    /**
+     * 记录一帧
+     *
+     * @param frameTimeNanos 帧时间
+     */
+    void recordFrame(long frameTimeNanos) {
+        if (mFirstFrameNanos == 0) {
+            mFirstFrameNanos = frameTimeNanos;
+            mLastFrameNanos = frameTimeNanos;
+            return;
+        }
+        final long interval = frameTimeNanos - mLastFrameNanos;
+        mLastFrameNanos = frameTimeNanos;
+        if (interval <= 0) {
+            return;
+        }
+        // 按最接近的刷新间隔数计算掉帧数，达到 1.5 个刷新间隔算掉帧
+        final int dropped = (int) Math.max((interval + mRefreshIntervalNanos / 2) / mRefreshIntervalNanos - 1, 0);
+        mFrameCount++;
+        mDroppedFrameCount += dropped;
+        if (dropped > 0) {
+            mJankFrameCount++;
+        }
+        if (interval > mMaxFrameIntervalNanos) {
+            mMaxFrameIntervalNanos = interval;
+        }
+        int bucket = DragSession.BUCKET_DROPPED_FRAMES.length - 1;
+        while (DragSession.BUCKET_DROPPED_FRAMES[bucket] > dropped) {
+            bucket--;
+        }
+        mHistogram[bucket]++;
+    }
+
+    private void _reset(int mode) {
+        mMode = mode;
+        mFirstFrameNanos = 0;
+        mLastFrameNanos = 0;
+        mFrameCount = 0;
+        mJankFrameCount = 0;
+        mDroppedFrameCount = 0;
+        mMaxFrameIntervalNanos = 0;
+        for (int i = 0; i < mHistogram.length; i++) {
+            mHistogram[i] = 0;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.dl7.drag;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
+
+import java.util.ArrayDeque;
+
+/**
+ * Created by long on 2016/11/30.
+ * 在主线程空闲时执行不紧急的准备工作：动画准备、模糊预取、延迟加载等
+ * 消息队列中没有到期的消息(包括下一帧)并且宿主不忙时才执行，每次空闲只执行一个任务，
+ * 还有任务时发送一个空消息触发下一次空闲，任务之间可以插入帧和输入事件
+ * 注意：只能在主线程使用
+ */
+final class IdleScheduler implements MessageQueue.IdleHandler {
+
+    /**
+     * 宿主是否忙，忙时推迟到下一次空闲再执行
+     */
+    interface BusyCondition {
+
+        boolean isBusy();
+    }
+
+    /**
+     * 已提交的任务，可以在执行前取消
+     */
+    static final class Task {
+
+        private final Runnable mAction;
+        private boolean mIsCancelled = false;
+        private boolean mIsDone = false;
+
+        private Task(Runnable action) {
+            mAction = action;
+        }
+
+        /**
+         * 取消任务，已经执行的任务取消无效
+         */
+        void cancel() {
+            mIsCancelled = true;
+        }
+
+        /**
+         * 是否还在等待执行
+         */
+        boolean isPending() {
+            return !mIsCancelled && !mIsDone;
+        }
+    }
+
+    private final BusyCondition mBusyCondition;
+    private final ArrayDeque<Task> mTasks = new ArrayDeque<>();
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    // 是否已经注册到消息队列
+    private boolean mIsRegistered = false;
+    // 唤醒消息队列进入下一次空闲，本身不做任何事
+    private final Runnable mWakeUpRunnable = new Runnable() {
+        @Override
+        public void run() {
+        }
+    };
+
+    IdleScheduler(BusyCondition busyCondition) {
+        mBusyCondition = busyCondition;
+    }
+
+    /**
+     * 提交任务，在之后的某次空闲时执行
+     *
+     * @param action 任务
+     * @return 用于取消的任务
+     */
+    Task schedule(Runnable action) {
+        if (Looper.myLooper() != Looper.getMainLooper()) {
+            throw new IllegalStateException("IdleScheduler must be used on the main thread.");
+        }
+        final Task task = new Task(action);
+        mTasks.addLast(task);
+        if (!mIsRegistered) {
+            mIsRegistered = true;
+            Looper.myQueue().addIdleHandler(this);
+        }
+        return task;
+    }
+
+    /**
+     * 取消所有任务并从消息队列注销，在视图移除时调用
+     */
+    void cancelAll() {
+        for (Task task : mTasks) {
+            task.cancel();
+        }
+        mTasks.clear();
+        mHandler.removeCallbacks(mWakeUpRunnable);
+        if (mIsRegistered) {
+            mIsRegistered = false;
+            Looper.myQueue().removeIdleHandler(this);
+        }
+    }
+
+    /**
+     * 等待执行的任务数，不包括已经取消的任务
+     */
+    int getPendingCount() {
+        int count = 0;
+        for (Task task : mTasks) {
+            if (task.isPending()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public boolean queueIdle() {
+        if (mBusyCondition.isBusy()) {
+            // 运动或布局期间不执行，等待下一次空闲
+            return true;
+        }
+        Task task = mTasks.pollFirst();
+        while (task != null && !task.isPending()) {
+            task = mTasks.pollFirst();
+        }
+        if (task != null) {
+            task.mIsDone = true;
+            DragTrace.begin("DSL:idleTask");
+            try {
+                task.mAction.run();
+            } finally {
+                DragTrace.end();
+            }
+        }
+        if (mTasks.isEmpty()) {
+            mIsRegistered = false;
+            return false;
+        }
+        // 同一次空闲不会再回调，发送空消息触发下一次空闲
+        mHandler.post(mWakeUpRunnable);
+        return true;
+    }
+}
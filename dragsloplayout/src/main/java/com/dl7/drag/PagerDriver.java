@@ -0,0 +1,42 @@
+package com.dl7.drag;
+
+/**
+ * Created by long on 2016/11/30.
+ * 翻页控件的驱动，把不同翻页控件的滑动回调统一为 (position, offset, state) 交给 DragSlopLayout 联动
+ * 内置 {@link ViewPagerDriver} 和 {@link RecyclerViewPagerDriver}，其它控件(如 ViewPager2)实现这个接口后通过
+ * {@link DragSlopLayout#attachPager(PagerDriver)} 关联
+ */
+public interface PagerDriver {
+
+    // 滑动状态，和 ViewPager、RecyclerView 的常量一致
+    int SCROLL_STATE_IDLE = 0;
+    int SCROLL_STATE_DRAGGING = 1;
+    int SCROLL_STATE_SETTLING = 2;
+
+    /**
+     * 开始向 callback 分发滑动回调
+     */
+    void attach(Callback callback);
+
+    /**
+     * 停止分发，之后不能再回调 attach 时传入的 callback
+     */
+    void detach();
+
+    /**
+     * 滑动回调，每帧可能回调多次，实现中不能分配内存
+     */
+    interface Callback {
+
+        /**
+         * @param position       当前显示的第一页
+         * @param positionOffset 滑过的比例 [0, 1)
+         */
+        void onPageScrolled(int position, float positionOffset);
+
+        /**
+         * @param state SCROLL_STATE_ 开头的常量
+         */
+        void onPageScrollStateChanged(int state);
+    }
+}
@@ -0,0 +1,117 @@
+package com.dl7.drag;
+
+import android.support.v4.view.ViewCompat;
+import android.view.View;
+
+/**
+ * Created by long on 2016/11/30.
+ * 合并 ViewPager 联动的隐藏进度：快速滑动时 ViewPager 一帧内可能多次回调 onPageScrolled，
+ * 这里只记录最新的进度，在下一帧统一应用一次，DragView 每帧只移动一次，位置监听每帧只分发一次
+ * ViewPager 的滑动状态变化时先调用 {@link #flush()}，保证进度和状态变化的先后顺序不变
+ */
+final class PagerHideCoalescer implements ChoreographerCompat.FrameCallback {
+
+    /**
+     * 应用隐藏进度
+     */
+    interface Callback {
+
+        /**
+         * @param percent ViewPager 滑动百分比
+         * @param curTop  开始滑动时 DragView 的 Top 值
+         */
+        void onPagerHide(float percent, int curTop);
+    }
+
+    private final View mHost;
+    private final Callback mCallback;
+    // 还没应用的最新进度
+    private float mPercent;
+    private int mCurTop;
+    private boolean mHasPending = false;
+    // 是否已经请求了下一帧
+    private boolean mIsFrameScheduled = false;
+    // API 16 以上为 Choreographer.FrameCallback，第一次使用时创建
+    private Object mFrameCallback;
+    // API 16 以下通过 postOnAnimation 调度
+    private final Runnable mFrameRunnable = new Runnable() {
+        @Override
+        public void run() {
+            doFrame(System.nanoTime());
+        }
+    };
+
+    /**
+     * @param host     用于 API 16 以下调度帧回调的视图
+     * @param callback 应用隐藏进度
+     */
+    PagerHideCoalescer(View host, Callback callback) {
+        mHost = host;
+        mCallback = callback;
+    }
+
+    /**
+     * 记录最新的进度，在下一帧应用
+     */
+    void post(float percent, int curTop) {
+        mPercent = percent;
+        mCurTop = curTop;
+        mHasPending = true;
+        _scheduleFrame();
+    }
+
+    /**
+     * 立即应用还没应用的进度，没有则什么都不做
+     */
+    void flush() {
+        if (!mHasPending) {
+            return;
+        }
+        mHasPending = false;
+        mCallback.onPagerHide(mPercent, mCurTop);
+    }
+
+    /**
+     * 是否还有等待下一帧应用的进度
+     */
+    boolean isPending() {
+        return mHasPending;
+    }
+
+    /**
+     * 丢弃还没应用的进度并取消帧回调，在取消联动或视图移除时调用
+     */
+    void cancel() {
+        mHasPending = false;
+        if (!mIsFrameScheduled) {
+            return;
+        }
+        mIsFrameScheduled = false;
+        if (mFrameCallback != null) {
+            ChoreographerCompat.remove(mFrameCallback);
+        } else {
+            mHost.removeCallbacks(mFrameRunnable);
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        mIsFrameScheduled = false;
+        flush();
+    }
+
+    private void _scheduleFrame() {
+        if (mIsFrameScheduled) {
+            return;
+        }
+        mIsFrameScheduled = true;
+        if (ChoreographerCompat.isSupported()) {
+            if (mFrameCallback == null) {
+                mFrameCallback = ChoreographerCompat.createCallback(this);
+            }
+            ChoreographerCompat.post(mFrameCallback);
+        } else {
+            ViewCompat.postOnAnimation(mHost, mFrameRunnable);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.dl7.drag;
+
+/**
+ * Created by long on 2016/11/30.
+ * 根据翻页的 (offset, state) 判断滑动方向并换算成隐藏 DragView 的滑动百分比，所有 {@link PagerDriver} 共用
+ * 向后翻页时百分比为 offset，向前翻页时为 1 - offset；拖拽时 offset 突变(越过页面边界)说明方向相反
+ * 注意：这个类不依赖 Android 框架，可以直接在 JVM 上测试
+ */
+final class PagerOffsetTracker {
+
+    // 空闲状态下的滑动回调不需要处理
+    static final float NO_PERCENT = -1;
+
+    private boolean mIsRightSlide = true;
+    private float mLastOffset = 0;
+    private int mState = PagerDriver.SCROLL_STATE_IDLE;
+
+    /**
+     * @param positionOffset 滑过的比例
+     * @return 滑动百分比，空闲状态返回 {@link #NO_PERCENT}
+     */
+    float onPageScrolled(float positionOffset) {
+        if (mState == PagerDriver.SCROLL_STATE_IDLE) {
+            return NO_PERCENT;
+        }
+        // 判断拖拽过界的方向
+        if (Math.abs(positionOffset - mLastOffset) > 0.8f && mState == PagerDriver.SCROLL_STATE_DRAGGING) {
+            mIsRightSlide = positionOffset <= 0.5f;
+        }
+        // 翻页结束时 offset 回到 0，按上一次的 offset 判断是否已经翻到下一页
+        final boolean isPageEnd = positionOffset == 0 && mState == PagerDriver.SCROLL_STATE_SETTLING
+                && mLastOffset > 0.5f;
+        float percent;
+        if (mIsRightSlide) {
+            percent = isPageEnd ? 1.0f : positionOffset;
+        } else {
+            percent = isPageEnd ? 0 : 1 - positionOffset;
+        }
+        mLastOffset = positionOffset;
+        return percent;
+    }
+
+    void onPageScrollStateChanged(int state) {
+        if (state == PagerDriver.SCROLL_STATE_IDLE) {
+            mIsRightSlide = true;
+            mLastOffset = 0;
+        }
+        mState = state;
+    }
+}
@@ -0,0 +1,80 @@
+package com.dl7.drag;
+
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+/**
+ * Created by long on 2016/11/30.
+ * 翻页的 RecyclerView 的驱动，如配合 PagerSnapHelper 使用的 RecyclerView，每页占满 RecyclerView
+ * 通过 LinearLayoutManager 第一个可见项的位置计算 (position, offset)，支持水平和垂直方向，不支持反向布局
+ * 注意：库只在编译时依赖 recyclerview-v7，使用这个类时应用需要自行添加依赖
+ */
+public final class RecyclerViewPagerDriver extends RecyclerView.OnScrollListener implements PagerDriver {
+
+    private final RecyclerView mRecyclerView;
+    private Callback mCallback;
+
+    public RecyclerViewPagerDriver(RecyclerView recyclerView) {
+        if (recyclerView == null) {
+            throw new IllegalArgumentException("RecyclerView can not be null.");
+        }
+        mRecyclerView = recyclerView;
+    }
+
+    public RecyclerView getRecyclerView() {
+        return mRecyclerView;
+    }
+
+    @Override
+    public void attach(Callback callback) {
+        if (!(mRecyclerView.getLayoutManager() instanceof LinearLayoutManager)) {
+            throw new IllegalArgumentException("The LayoutManager must be LinearLayoutManager.");
+        }
+        mCallback = callback;
+        mRecyclerView.removeOnScrollListener(this);
+        mRecyclerView.addOnScrollListener(this);
+    }
+
+    @Override
+    public void detach() {
+        mRecyclerView.removeOnScrollListener(this);
+        mCallback = null;
+    }
+
+    @Override
+    public void onScrollStateChanged(RecyclerView recyclerView, int newState) {
+        if (mCallback != null) {
+            mCallback.onPageScrollStateChanged(newState);
+        }
+    }
+
+    @Override
+    public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+        if (mCallback == null || !(recyclerView.getLayoutManager() instanceof LinearLayoutManager)) {
+            return;
+        }
+        final LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+        final int position = layoutManager.findFirstVisibleItemPosition();
+        if (position == RecyclerView.NO_POSITION) {
+            return;
+        }
+        final View page = layoutManager.findViewByPosition(position);
+        if (page == null) {
+            return;
+        }
+        final int scrolled;
+        final int size;
+        if (layoutManager.getOrientation() == LinearLayoutManager.HORIZONTAL) {
+            scrolled = recyclerView.getPaddingLeft() - layoutManager.getDecoratedLeft(page);
+            size = layoutManager.getDecoratedMeasuredWidth(page);
+        } else {
+            scrolled = recyclerView.getPaddingTop() - layoutManager.getDecoratedTop(page);
+            size = layoutManager.getDecoratedMeasuredHeight(page);
+        }
+        if (size <= 0) {
+            return;
+        }
+        mCallback.onPageScrolled(position, Math.min(Math.max(scrolled * 1.0f / size, 0), 1));
+    }
+}
@@ -0,0 +1,126 @@
+package com.dl7.drag;
+
+/**
+ * Created by long on 2016/11/30.
+ * 纯 Java 实现的 Stack Blur，RenderScript 不可用时作为模糊的备用实现
+ * 先横向再纵向各做一次三角形加权的滑动求和，耗时和半径无关；4 个通道(包括透明度)都做模糊，和 ScriptIntrinsicBlur 一致
+ * 中间结果的缓冲区在尺寸不变时复用，同一个实例不能在多个线程同时使用
+ * 注意：这个类不依赖 Android 框架，可以直接在 JVM 上测试和做基准测试
+ */
+public final class StackBlur {
+
+    // 和 ScriptIntrinsicBlur 的半径上限一致
+    public static final int MAX_RADIUS = 25;
+    // 用乘法和移位代替除以权重和，(MAX_RADIUS + 1)^2 * 255 * 乘数不会超出 int 范围
+    private static final int DIVIDE_SHIFT = 23;
+
+    // 横向模糊的结果
+    private int[] mBuffer = new int[0];
+
+    /**
+     * 模糊像素数组，结果写回原数组
+     *
+     * @param pixels ARGB 像素，按行排列
+     * @param width  宽
+     * @param height 高
+     * @param radius 半径，范围 1~{@link #MAX_RADIUS}
+     */
+    public void blur(int[] pixels, int width, int height, int radius) {
+        if (radius < 1 || radius > MAX_RADIUS) {
+            throw new IllegalArgumentException("Radius must be in [1, " + MAX_RADIUS + "]: " + radius);
+        }
+        if (width < 0 || height < 0 || pixels.length < width * height) {
+            throw new IllegalArgumentException("Pixels are less than " + width + "x" + height);
+        }
+        if (mBuffer.length < width * height) {
+            mBuffer = new int[width * height];
+        }
+        final int weightSum = (radius + 1) * (radius + 1);
+        final int multiplier = (1 << DIVIDE_SHIFT) / weightSum + 1;
+        for (int y = 0; y < height; y++) {
+            _blurLine(pixels, mBuffer, y * width, 1, width, radius, multiplier);
+        }
+        for (int x = 0; x < width; x++) {
+            _blurLine(mBuffer, pixels, x, width, height, radius, multiplier);
+        }
+    }
+
+    /**
+     * 模糊一行或一列，超出边界的像素取边缘像素
+     * 位置 x 的结果为 sum(x) = Σ(radius + 1 - |i|) * p(x + i)，其中左半边(包括 x)的和为 out，右半边为 in
+     * 移动一个像素时 sum 减去 out、加上新的 in，再分别移出和移入一个像素
+     *
+     * @param src    源数组
+     * @param dst    目标数组，和源数组的排列方式一致
+     * @param offset 第一个像素的位置
+     * @param stride 相邻像素的间隔
+     * @param length 像素数
+     */
+    private static void _blurLine(int[] src, int[] dst, int offset, int stride, int length, int radius,
+                                  int multiplier) {
+        if (length == 0) {
+            return;
+        }
+        final int last = length - 1;
+        int sumA = 0, sumR = 0, sumG = 0, sumB = 0;
+        int outA = 0, outR = 0, outG = 0, outB = 0;
+        int inA = 0, inR = 0, inG = 0, inB = 0;
+        for (int i = -radius; i <= radius; i++) {
+            final int p = src[offset + Math.min(Math.max(i, 0), last) * stride];
+            final int a = p >>> 24;
+            final int r = (p >> 16) & 0xFF;
+            final int g = (p >> 8) & 0xFF;
+            final int b = p & 0xFF;
+            final int weight = radius + 1 - Math.abs(i);
+            sumA += a * weight;
+            sumR += r * weight;
+            sumG += g * weight;
+            sumB += b * weight;
+            if (i <= 0) {
+                outA += a;
+                outR += r;
+                outG += g;
+                outB += b;
+            } else {
+                inA += a;
+                inR += r;
+                inG += g;
+                inB += b;
+            }
+        }
+        int index = offset;
+        for (int x = 0; x < length; x++) {
+            dst[index] = ((sumA * multiplier) >>> DIVIDE_SHIFT) << 24
+                    | ((sumR * multiplier) >>> DIVIDE_SHIFT) << 16
+                    | ((sumG * multiplier) >>> DIVIDE_SHIFT) << 8
+                    | ((sumB * multiplier) >>> DIVIDE_SHIFT);
+            index += stride;
+            // 移入右边界外的 p(x + radius + 1)，移出左边界的 p(x - radius)，中心移到 p(x + 1)
+            final int pIn = src[offset + Math.min(x + radius + 1, last) * stride];
+            final int pOut = src[offset + Math.max(x - radius, 0) * stride];
+            final int pMid = src[offset + Math.min(x + 1, last) * stride];
+
+            inA += pIn >>> 24;
+            inR += (pIn >> 16) & 0xFF;
+            inG += (pIn >> 8) & 0xFF;
+            inB += pIn & 0xFF;
+            sumA += inA - outA;
+            sumR += inR - outR;
+            sumG += inG - outG;
+            sumB += inB - outB;
+
+            final int midA = pMid >>> 24;
+            final int midR = (pMid >> 16) & 0xFF;
+            final int midG = (pMid >> 8) & 0xFF;
+            final int midB = pMid & 0xFF;
+            outA += midA - (pOut >>> 24);
+            outR += midR - ((pOut >> 16) & 0xFF);
+            outG += midG - ((pOut >> 8) & 0xFF);
+            outB += midB - (pOut & 0xFF);
+            inA -= midA;
+            inR -= midR;
+            inG -= midG;
+            inB -= midB;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.dl7.drag;
+
+import android.support.v4.view.ViewPager;
+
+/**
+ * Created by long on 2016/11/30.
+ * ViewPager 的驱动，{@link DragSlopLayout#attachViewPager(ViewPager)} 内部使用
+ */
+public final class ViewPagerDriver implements PagerDriver, ViewPager.OnPageChangeListener {
+
+    private final ViewPager mViewPager;
+    private Callback mCallback;
+
+    public ViewPagerDriver(ViewPager viewPager) {
+        if (viewPager == null) {
+            throw new IllegalArgumentException("ViewPager can not be null.");
+        }
+        mViewPager = viewPager;
+    }
+
+    public ViewPager getViewPager() {
+        return mViewPager;
+    }
+
+    @Override
+    public void attach(Callback callback) {
+        mCallback = callback;
+        mViewPager.removeOnPageChangeListener(this);
+        mViewPager.addOnPageChangeListener(this);
+    }
+
+    @Override
+    public void detach() {
+        mViewPager.removeOnPageChangeListener(this);
+        mCallback = null;
+    }
+
+    @Override
+    public void onPageScrolled(int position, float positionOffset, int positionOffsetPixels) {
+        if (mCallback != null) {
+            mCallback.onPageScrolled(position, positionOffset);
+        }
+    }
+
+    @Override
+    public void onPageSelected(int position) {
+    }
+
+    @Override
+    public void onPageScrollStateChanged(int state) {
+        if (mCallback != null) {
+            mCallback.onPageScrollStateChanged(state);
+        }
+    }
+}
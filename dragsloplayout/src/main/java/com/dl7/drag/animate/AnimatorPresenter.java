@@ -1,31 +1,13 @@
 package com.dl7.drag.animate;
 
-import android.support.v4.view.ViewCompat;
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
 import android.view.View;
-import android.view.ViewGroup;
 import android.view.animation.Interpolator;
 import android.view.animation.LinearInterpolator;
 
 import com.dl7.drag.DragSlopLayout;
 import com.dl7.drag.DragSlopLayout.AnimatorMode;
-import com.dl7.drag.animate.in.FadeInAnimator;
-import com.dl7.drag.animate.in.FlipInXAnimator;
-import com.dl7.drag.animate.in.FlipInYAnimator;
-import com.dl7.drag.animate.in.SlideInBottomAnimator;
-import com.dl7.drag.animate.in.SlideInLeftAnimator;
-import com.dl7.drag.animate.in.SlideInRightAnimator;
-import com.dl7.drag.animate.in.ZoomInAnimator;
-import com.dl7.drag.animate.in.ZoomInLeftAnimator;
-import com.dl7.drag.animate.in.ZoomInRightAnimator;
-import com.dl7.drag.animate.out.FadeOutAnimator;
-import com.dl7.drag.animate.out.FlipOutXAnimator;
-import com.dl7.drag.animate.out.FlipOutYAnimator;
-import com.dl7.drag.animate.out.SlideOutBottomAnimator;
-import com.dl7.drag.animate.out.SlideOutLeftAnimator;
-import com.dl7.drag.animate.out.SlideOutRightAnimator;
-import com.dl7.drag.animate.out.ZoomOutAnimator;
-import com.dl7.drag.animate.out.ZoomOutLeftAnimator;
-import com.dl7.drag.animate.out.ZoomOutRightAnimator;
 
 /**
  * Created by long on 2016/9/9.
@@ -33,6 +15,10 @@ import com.dl7.drag.animate.out.ZoomOutRightAnimator;
  */
 public final class AnimatorPresenter {
 
+    // LinearInterpolator 无状态，所有实例共用
+    private static final Interpolator DEFAULT_INTERPOLATOR = new LinearInterpolator();
+
+    // 进入和退出动画在第一次启动时才创建
     private BaseViewAnimator mInAnimator;
     private BaseViewAnimator mOutAnimator;
     @AnimatorMode
@@ -41,13 +27,30 @@ public final class AnimatorPresenter {
     private int mDuration;
     private Interpolator mInterpolator;
     private boolean mIsCustomAnimator = false;
+    // AnimatorSpec 设置的时长、启动延迟和插值器，只在 SPEC 模式下生效，小于 0 或为 null 表示没有设置
+    private int mSpecStartDelay = -1;
+    private int mSpecDuration = -1;
+    private Interpolator mSpecInterpolator;
+    // 进入和退出动画启动时目标的显示程度，0 为完全隐藏，1 为完全显示
+    private float mInStartShown = 0;
+    private float mOutStartShown = 1;
+    // 当前动画模式的关键帧
+    private KeyframeSpec mInSpec;
+    private KeyframeSpec mOutSpec;
+    // 处理动画帧时复用的数组
+    private final float[] mUnitScale = new float[KeyframeSpec.UNIT_COUNT];
+    private final float[] mFrameValues = new float[KeyframeSpec.PROPERTY_COUNT];
+    // 动画结束和取消监听
+    private OnAnimateListener mAnimateListener;
+    private final EndListener mInEndListener = new EndListener(true);
+    private final EndListener mOutEndListener = new EndListener(false);
 
     public AnimatorPresenter() {
         mAnimatorMode = DragSlopLayout.SLIDE_BOTTOM;
-        mInAnimator = new SlideInBottomAnimator();
-        mOutAnimator = new SlideOutBottomAnimator();
+        mInSpec = KeyframeSpecs.SLIDE_BOTTOM_IN;
+        mOutSpec = KeyframeSpecs.SLIDE_BOTTOM_OUT;
         mDuration = 400;
-        mInterpolator = new LinearInterpolator();
+        mInterpolator = DEFAULT_INTERPOLATOR;
     }
 
     /**
@@ -57,43 +60,91 @@ public final class AnimatorPresenter {
     public void setAnimatorMode(@AnimatorMode int animatorMode) {
         mAnimatorMode = animatorMode;
         mIsCustomAnimator = false;
+        mInAnimator = null;
+        mOutAnimator = null;
+        _clearSpecOverrides();
         switch (animatorMode) {
             case DragSlopLayout.SLIDE_BOTTOM:
-                mInAnimator = new SlideInBottomAnimator();
-                mOutAnimator = new SlideOutBottomAnimator();
+                mInSpec = KeyframeSpecs.SLIDE_BOTTOM_IN;
+                mOutSpec = KeyframeSpecs.SLIDE_BOTTOM_OUT;
                 break;
             case DragSlopLayout.SLIDE_LEFT:
-                mInAnimator = new SlideInLeftAnimator();
-                mOutAnimator = new SlideOutLeftAnimator();
+                mInSpec = KeyframeSpecs.SLIDE_LEFT_IN;
+                mOutSpec = KeyframeSpecs.SLIDE_LEFT_OUT;
                 break;
             case DragSlopLayout.SLIDE_RIGHT:
-                mInAnimator = new SlideInRightAnimator();
-                mOutAnimator = new SlideOutRightAnimator();
+                mInSpec = KeyframeSpecs.SLIDE_RIGHT_IN;
+                mOutSpec = KeyframeSpecs.SLIDE_RIGHT_OUT;
                 break;
             case DragSlopLayout.FADE:
-                mInAnimator = new FadeInAnimator();
-                mOutAnimator = new FadeOutAnimator();
+                mInSpec = KeyframeSpecs.FADE_IN;
+                mOutSpec = KeyframeSpecs.FADE_OUT;
                 break;
             case DragSlopLayout.FLIP_X:
-                mInAnimator = new FlipInXAnimator();
-                mOutAnimator = new FlipOutXAnimator();
+                mInSpec = KeyframeSpecs.FLIP_X_IN;
+                mOutSpec = KeyframeSpecs.FLIP_X_OUT;
                 break;
             case DragSlopLayout.FLIP_Y:
-                mInAnimator = new FlipInYAnimator();
-                mOutAnimator = new FlipOutYAnimator();
+                mInSpec = KeyframeSpecs.FLIP_Y_IN;
+                mOutSpec = KeyframeSpecs.FLIP_Y_OUT;
                 break;
             case DragSlopLayout.ZOOM:
-                mInAnimator = new ZoomInAnimator();
-                mOutAnimator = new ZoomOutAnimator();
+                mInSpec = KeyframeSpecs.ZOOM_IN;
+                mOutSpec = KeyframeSpecs.ZOOM_OUT;
                 break;
             case DragSlopLayout.ZOOM_LEFT:
-                mInAnimator = new ZoomInLeftAnimator();
-                mOutAnimator = new ZoomOutLeftAnimator();
+                mInSpec = KeyframeSpecs.ZOOM_LEFT_IN;
+                mOutSpec = KeyframeSpecs.ZOOM_LEFT_OUT;
                 break;
             case DragSlopLayout.ZOOM_RIGHT:
-                mInAnimator = new ZoomInRightAnimator();
-                mOutAnimator = new ZoomOutRightAnimator();
+                mInSpec = KeyframeSpecs.ZOOM_RIGHT_IN;
+                mOutSpec = KeyframeSpecs.ZOOM_RIGHT_OUT;
                 break;
+            case DragSlopLayout.SPEC:
+                throw new IllegalArgumentException("Use setAnimatorSpec() to set an animator spec.");
+        }
+    }
+
+    /**
+     * 设置由 {@link AnimatorSpec} 描述的动画模式，时长、启动延迟和插值器有设置时覆盖当前的设置，
+     * 只在这个模式下生效，切换到其它动画模式后恢复原来的设置
+     * @param spec
+     */
+    public void setAnimatorSpec(AnimatorSpec spec) {
+        mAnimatorMode = DragSlopLayout.SPEC;
+        mIsCustomAnimator = false;
+        mInAnimator = null;
+        mOutAnimator = null;
+        mInSpec = spec.getInSpec();
+        mOutSpec = spec.getOutSpec();
+        mSpecDuration = spec.getDuration();
+        mSpecStartDelay = spec.getStartDelay();
+        mSpecInterpolator = spec.getInterpolator();
+    }
+
+    private void _clearSpecOverrides() {
+        mSpecStartDelay = -1;
+        mSpecDuration = -1;
+        mSpecInterpolator = null;
+    }
+
+    /**
+     * 根据动画模式的关键帧创建进入和退出动画
+     */
+    private void _createAnimators() {
+        mInAnimator = new SpecViewAnimator(mInSpec);
+        mOutAnimator = new SpecViewAnimator(mOutSpec);
+        _attachEndListeners();
+    }
+
+    private void _attachEndListeners() {
+        if (mInAnimator != null) {
+            mInAnimator.removeAnimatorListener(mInEndListener);
+            mInAnimator.addAnimatorListener(mInEndListener);
+        }
+        if (mOutAnimator != null) {
+            mOutAnimator.removeAnimatorListener(mOutEndListener);
+            mOutAnimator.addAnimatorListener(mOutEndListener);
         }
     }
 
@@ -111,6 +162,39 @@ public final class AnimatorPresenter {
         mInAnimator = inAnimator;
         mOutAnimator = outAnimator;
         mIsCustomAnimator = true;
+        _clearSpecOverrides();
+        _attachEndListeners();
+    }
+
+    /**
+     * 设置动画监听，被取消或折返的动画不会回调结束
+     * @param listener
+     */
+    public void setOnAnimateListener(OnAnimateListener listener) {
+        mAnimateListener = listener;
+    }
+
+    /**
+     * 提前创建进入和退出动画并绑定目标，第一次启动动画时不用再在帧内创建，已经启动的动画不受影响
+     * @param target 目标View
+     */
+    public void prepare(View target) {
+        if (mIsCustomAnimator) {
+            _prepareAnimator(mInAnimator, null);
+            _prepareAnimator(mOutAnimator, null);
+        } else {
+            if (mInAnimator == null) {
+                _createAnimators();
+            }
+            _prepareAnimator(mInAnimator, target);
+            _prepareAnimator(mOutAnimator, target);
+        }
+    }
+
+    private static void _prepareAnimator(BaseViewAnimator animator, View target) {
+        if (animator != null && !animator.isStarted()) {
+            animator.setTarget(target);
+        }
     }
 
     /**
@@ -119,14 +203,12 @@ public final class AnimatorPresenter {
      */
     public void startInAnim(View target) {
         if (mIsCustomAnimator) {
-            mInAnimator.setTarget(null)
-                    .start();
+            _startCustomAnimator(mInAnimator, mOutAnimator);
         } else {
-            mInAnimator.setTarget(target)
-                    .setStartDelay(mStartDelay)
-                    .setDuration(mDuration)
-                    .setInterpolator(mInterpolator)
-                    .start();
+            if (mInAnimator == null) {
+                _createAnimators();
+            }
+            _startSpecAnimator((SpecViewAnimator) mInAnimator, (SpecViewAnimator) mOutAnimator, target);
         }
     }
 
@@ -136,122 +218,208 @@ public final class AnimatorPresenter {
      */
     public void startOutAnim(View target) {
         if (mIsCustomAnimator) {
-            mOutAnimator.setTarget(null)
-                    .start();
+            _startCustomAnimator(mOutAnimator, mInAnimator);
         } else {
-            mOutAnimator.setTarget(target)
-                    .setStartDelay(mStartDelay)
-                    .setDuration(mDuration)
-                    .setInterpolator(mInterpolator)
-                    .start();
+            if (mOutAnimator == null) {
+                _createAnimators();
+            }
+            _startSpecAnimator((SpecViewAnimator) mOutAnimator, (SpecViewAnimator) mInAnimator, target);
         }
     }
 
     /**
-     * 处理动画帧
-     * @param percent 百分比
+     * 启动自定义动画，反向的动画已经启动则先取消
+     *
+     * @param animator 需要启动的动画
+     * @param opposite 反向的动画
      */
-    public void handleAnimateFrame(View target, float percent) {
-        ViewGroup parent = (ViewGroup) target.getParent();
-        float alpha = 1.0f * (1 - percent);
-        float translationX = 0;
-        float translationY = 0;
-        float rotationX = 0;
-        float rotationY = 0;
-        float scale = 1.0f;
-
-        switch (mAnimatorMode) {
-            case DragSlopLayout.SLIDE_BOTTOM:
-                translationY = target.getHeight() * percent;
-                break;
-
-            case DragSlopLayout.SLIDE_LEFT:
-                translationX = - parent.getWidth() * percent;
-                break;
-
-            case DragSlopLayout.SLIDE_RIGHT:
-                translationX = parent.getWidth() * percent;
-                break;
-
-            case DragSlopLayout.FADE:
-                break;
-
-            case DragSlopLayout.FLIP_X:
-                rotationX = 90 * percent;
-                break;
-
-            case DragSlopLayout.FLIP_Y:
-                rotationY = 90 * percent;
-                break;
-
-            case DragSlopLayout.ZOOM:
-                scale = 0.3f + 0.7f * (1 - percent);
-                break;
+    private void _startCustomAnimator(BaseViewAnimator animator, BaseViewAnimator opposite) {
+        // 先标记为执行中，取消反向动画时不会出现短暂的没有动画
+        _getEndListener(animator == mInAnimator).mIsRunning = true;
+        if (opposite != null && opposite.isStarted()) {
+            opposite.cancel();
+        }
+        animator.setTarget(null)
+                .start();
+    }
 
-            case DragSlopLayout.ZOOM_LEFT:
-                alpha = Math.min(1.0f, alpha * 2);
-                final float valueL = parent.getWidth() * 0.2f;
-                if (percent < 0.5f) {
-                    scale = 1 - percent;
-                    translationX = percent * 2 * valueL;
-                } else {
-                    scale = (1 - percent) * 0.8f + 0.1f;
-                    translationX = valueL - (percent * 2 - 1.0f) * parent.getWidth() * 1.2f;
-                }
-                break;
-            case DragSlopLayout.ZOOM_RIGHT:
-                alpha = Math.min(1.0f, alpha * 2);
-                final float valueR = -parent.getWidth() * 0.2f;
-                if (percent < 0.5f) {
-                    scale = 1 - percent;
-                    translationX = percent * 2 * valueR;
-                } else {
-                    scale = (1 - percent) * 0.8f + 0.1f;
-                    translationX = valueR + (percent * 2 - 1.0f) * parent.getWidth() * 1.2f;
-                }
-                break;
+    /**
+     * 启动关键帧动画，动画从目标当前的属性值开始
+     * 反向的动画正在执行时从当前位置折返，不再等待启动延迟，时长按剩余的距离计算
+     * 反向的动画还在启动延迟中时目标还没有移动，取消后按没有启动处理
+     * 同方向的动画正在执行时继续执行，不再重新开始
+     *
+     * @param animator 需要启动的动画
+     * @param opposite 反向的动画
+     * @param target   目标View
+     */
+    private void _startSpecAnimator(SpecViewAnimator animator, SpecViewAnimator opposite, View target) {
+        final boolean isEnter = animator == mInAnimator;
+        final float endShown = isEnter ? 1 : 0;
+        final int duration = getDuration();
+        long startDelay = getStartDelay();
+        float startShown = 1 - endShown;
+        if (opposite.isStarted()) {
+            // 先标记为执行中，取消反向动画时不会出现短暂的没有动画
+            _getEndListener(isEnter).mIsRunning = true;
+            final float oppositeStartShown = isEnter ? mOutStartShown : mInStartShown;
+            if (opposite.isPlaying()) {
+                // 按反向动画已经执行的时间估算目标当前的显示程度
+                startDelay = 0;
+                startShown = oppositeStartShown + (1 - endShown - oppositeStartShown) * opposite.getPlayedFraction();
+            } else {
+                startShown = oppositeStartShown;
+            }
+            opposite.cancel();
+        } else if (animator.isStarted()) {
+            return;
+        }
+        if (isEnter) {
+            mInStartShown = startShown;
+        } else {
+            mOutStartShown = startShown;
         }
+        _getEndListener(isEnter).mIsRunning = true;
+        animator.setTarget(target)
+                .setStartDelay(startDelay)
+                .setDuration((long) (duration * Math.abs(endShown - startShown)))
+                .setInterpolator(getInterpolator())
+                .start();
+    }
 
-        ViewCompat.setAlpha(target, alpha);
-        ViewCompat.setTranslationX(target, translationX);
-        ViewCompat.setTranslationY(target, translationY);
-        ViewCompat.setRotationX(target, rotationX);
-        ViewCompat.setRotationY(target, rotationY);
-        ViewCompat.setScaleX(target, scale);
-        ViewCompat.setScaleY(target, scale);
+    /**
+     * 处理动画帧，和退出动画使用同一份关键帧，自定义动画则按进度定位退出动画
+     * @param percent 百分比
+     */
+    public void handleAnimateFrame(View target, float percent) {
+        if (mIsCustomAnimator) {
+            // 自定义动画按进度定位退出动画
+            if (mOutAnimator instanceof CustomViewAnimator) {
+                ((CustomViewAnimator) mOutAnimator).seek(percent);
+            }
+            return;
+        }
+        SpecViewAnimator.fillUnitScale(target, mUnitScale);
+        mOutSpec.evaluateFrame(percent, mUnitScale, mFrameValues);
+        SpecViewAnimator.applyFrame(target, mFrameValues);
     }
 
 
+    /**
+     * 当前生效的启动延迟，SPEC 模式下优先使用 AnimatorSpec 的设置
+     */
     public int getStartDelay() {
-        return mStartDelay;
+        return mSpecStartDelay >= 0 ? mSpecStartDelay : mStartDelay;
     }
 
+    /**
+     * 设置启动延迟，同时取消 AnimatorSpec 对启动延迟的覆盖
+     */
     public void setStartDelay(int startDelay) {
         mStartDelay = startDelay;
+        mSpecStartDelay = -1;
     }
 
+    /**
+     * 当前生效的时长，SPEC 模式下优先使用 AnimatorSpec 的设置
+     */
     public int getDuration() {
-        return mDuration;
+        return mSpecDuration >= 0 ? mSpecDuration : mDuration;
     }
 
+    /**
+     * 设置时长，同时取消 AnimatorSpec 对时长的覆盖
+     */
     public void setDuration(int duration) {
         mDuration = duration;
+        mSpecDuration = -1;
     }
 
+    /**
+     * 当前生效的插值器，SPEC 模式下优先使用 AnimatorSpec 的设置
+     */
     public Interpolator getInterpolator() {
-        return mInterpolator;
+        return mSpecInterpolator != null ? mSpecInterpolator : mInterpolator;
     }
 
+    /**
+     * 设置插值器，同时取消 AnimatorSpec 对插值器的覆盖
+     */
     public void setInterpolator(Interpolator interpolator) {
         mInterpolator = interpolator;
+        mSpecInterpolator = null;
+    }
+
+    /**
+     * 进入或退出动画是否正在执行，包括启动延迟，在结束和取消的回调中已经返回 false
+     */
+    public boolean isAnimating() {
+        return mInEndListener.mIsRunning || mOutEndListener.mIsRunning;
+    }
+
+    private EndListener _getEndListener(boolean isEnter) {
+        return isEnter ? mInEndListener : mOutEndListener;
     }
 
     public void stopAllAnimator() {
-        if (mInAnimator.isRunning()) {
+        if (mInAnimator != null && mInAnimator.isStarted()) {
             mInAnimator.cancel();
         }
-        if (mOutAnimator.isRunning()) {
+        if (mOutAnimator != null && mOutAnimator.isStarted()) {
             mOutAnimator.cancel();
         }
     }
+
+    /**
+     * 动画监听
+     */
+    public interface OnAnimateListener {
+
+        /**
+         * 动画正常结束
+         * @param isEnter true 为进入动画，false 为退出动画
+         */
+        void onAnimateEnd(boolean isEnter);
+
+        /**
+         * 动画被取消，包括被反向的动画打断
+         * @param isEnter true 为进入动画，false 为退出动画
+         */
+        void onAnimateCancel(boolean isEnter);
+    }
+
+    private class EndListener extends AnimatorListenerAdapter {
+
+        private final boolean mIsEnter;
+        private boolean mIsCanceled;
+        // 动画的 isRunning() 在结束回调中还没有更新，自己记录
+        private boolean mIsRunning;
+
+        EndListener(boolean isEnter) {
+            mIsEnter = isEnter;
+        }
+
+        @Override
+        public void onAnimationStart(Animator animation) {
+            mIsCanceled = false;
+            mIsRunning = true;
+        }
+
+        @Override
+        public void onAnimationCancel(Animator animation) {
+            mIsCanceled = true;
+            mIsRunning = false;
+            if (mAnimateListener != null) {
+                mAnimateListener.onAnimateCancel(mIsEnter);
+            }
+        }
+
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            mIsRunning = false;
+            if (!mIsCanceled && mAnimateListener != null) {
+                mAnimateListener.onAnimateEnd(mIsEnter);
+            }
+        }
+    }
 }
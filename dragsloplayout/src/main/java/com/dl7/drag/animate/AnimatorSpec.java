@@ -0,0 +1,134 @@
+package com.dl7.drag.animate;
+
+import android.support.v4.view.animation.FastOutSlowInInterpolator;
+import android.view.animation.AccelerateDecelerateInterpolator;
+import android.view.animation.AccelerateInterpolator;
+import android.view.animation.AnticipateInterpolator;
+import android.view.animation.AnticipateOvershootInterpolator;
+import android.view.animation.BounceInterpolator;
+import android.view.animation.DecelerateInterpolator;
+import android.view.animation.Interpolator;
+import android.view.animation.LinearInterpolator;
+import android.view.animation.OvershootInterpolator;
+
+/**
+ * Created by long on 2016/11/27.
+ * 一个完整的动画模式：进入和退出的关键帧，以及可选的时长、启动延迟和插值器
+ * 一般通过 {@link AnimatorSpecLoader} 从 res/raw 或 assets 的 JSON 加载，加载后缓存并在所有地方共用
+ */
+public final class AnimatorSpec {
+
+    // 插值器名称，对应 JSON 中的 "interpolator"
+    public static final String LINEAR = "linear";
+    public static final String ACCELERATE = "accelerate";
+    public static final String DECELERATE = "decelerate";
+    public static final String ACCELERATE_DECELERATE = "accelerateDecelerate";
+    public static final String ANTICIPATE = "anticipate";
+    public static final String OVERSHOOT = "overshoot";
+    public static final String ANTICIPATE_OVERSHOOT = "anticipateOvershoot";
+    public static final String BOUNCE = "bounce";
+    public static final String FAST_OUT_SLOW_IN = "fastOutSlowIn";
+
+    private final KeyframeSpec mInSpec;
+    private final KeyframeSpec mOutSpec;
+    private final int mDuration;
+    private final int mStartDelay;
+    private final String mInterpolatorName;
+    // 插值器在第一次使用时才创建，之后共用
+    private Interpolator mInterpolator;
+
+    /**
+     * @param inSpec           进入动画的关键帧
+     * @param outSpec          退出动画的关键帧，同时用于和 ViewPager 联动
+     * @param duration         时长，小于 0 则使用 DragSlopLayout 的设置
+     * @param startDelay       启动延迟，小于 0 则使用 DragSlopLayout 的设置
+     * @param interpolatorName 插值器名称，为 null 则使用 DragSlopLayout 的设置
+     */
+    public AnimatorSpec(KeyframeSpec inSpec, KeyframeSpec outSpec, int duration, int startDelay,
+                        String interpolatorName) {
+        if (inSpec == null || outSpec == null) {
+            throw new IllegalArgumentException("Both in and out keyframes are required.");
+        }
+        if (interpolatorName != null && !isInterpolatorName(interpolatorName)) {
+            throw new IllegalArgumentException("Unknown interpolator: " + interpolatorName);
+        }
+        mInSpec = inSpec;
+        mOutSpec = outSpec;
+        mDuration = duration;
+        mStartDelay = startDelay;
+        mInterpolatorName = interpolatorName;
+    }
+
+    public KeyframeSpec getInSpec() {
+        return mInSpec;
+    }
+
+    public KeyframeSpec getOutSpec() {
+        return mOutSpec;
+    }
+
+    public int getDuration() {
+        return mDuration;
+    }
+
+    public int getStartDelay() {
+        return mStartDelay;
+    }
+
+    public String getInterpolatorName() {
+        return mInterpolatorName;
+    }
+
+    /**
+     * 获取插值器，没有设置返回 null
+     */
+    public Interpolator getInterpolator() {
+        if (mInterpolator == null && mInterpolatorName != null) {
+            mInterpolator = _createInterpolator(mInterpolatorName);
+        }
+        return mInterpolator;
+    }
+
+    /**
+     * 是否为支持的插值器名称
+     */
+    public static boolean isInterpolatorName(String name) {
+        switch (name) {
+            case LINEAR:
+            case ACCELERATE:
+            case DECELERATE:
+            case ACCELERATE_DECELERATE:
+            case ANTICIPATE:
+            case OVERSHOOT:
+            case ANTICIPATE_OVERSHOOT:
+            case BOUNCE:
+            case FAST_OUT_SLOW_IN:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static Interpolator _createInterpolator(String name) {
+        switch (name) {
+            case ACCELERATE:
+                return new AccelerateInterpolator();
+            case DECELERATE:
+                return new DecelerateInterpolator();
+            case ACCELERATE_DECELERATE:
+                return new AccelerateDecelerateInterpolator();
+            case ANTICIPATE:
+                return new AnticipateInterpolator();
+            case OVERSHOOT:
+                return new OvershootInterpolator();
+            case ANTICIPATE_OVERSHOOT:
+                return new AnticipateOvershootInterpolator();
+            case BOUNCE:
+                return new BounceInterpolator();
+            case FAST_OUT_SLOW_IN:
+                return new FastOutSlowInInterpolator();
+            default:
+                return new LinearInterpolator();
+        }
+    }
+}
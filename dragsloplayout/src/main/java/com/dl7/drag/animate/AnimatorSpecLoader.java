@@ -0,0 +1,183 @@
+package com.dl7.drag.animate;
+
+import android.content.Context;
+import android.support.annotation.RawRes;
+import android.util.SparseArray;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.HashMap;
+
+/**
+ * Created by long on 2016/11/27.
+ * 从 JSON 加载 {@link AnimatorSpec}，每个资源只解析一次，结果在进程内缓存
+ * JSON 格式如下，"duration"、"startDelay"、"interpolator" 和 "unit" 可以省略：
+ * <pre>
+ * {
+ *   "duration": 400,
+ *   "startDelay": 0,
+ *   "interpolator": "decelerate",
+ *   "in": [
+ *     {"property": "alpha", "values": [0, 1]},
+ *     {"property": "translationY", "unit": "targetHeight", "values": [-1, 0]}
+ *   ],
+ *   "out": [
+ *     {"property": "alpha", "values": [1, 0]},
+ *     {"property": "translationY", "unit": "targetHeight", "values": [0, -1]}
+ *   ]
+ * }
+ * </pre>
+ * property: alpha、translationX、translationY、rotationX、rotationY、scaleX、scaleY
+ * unit: none、targetWidth、targetHeight、parentWidth、parentHeight
+ * interpolator: 见 {@link AnimatorSpec} 中的插值器名称
+ */
+public final class AnimatorSpecLoader {
+
+    // 下标和 KeyframeSpec 中的常量对应
+    private static final String[] PROPERTY_NAMES = {
+            "alpha", "translationX", "translationY", "rotationX", "rotationY", "scaleX", "scaleY"
+    };
+    private static final String[] UNIT_NAMES = {
+            "none", "targetWidth", "targetHeight", "parentWidth", "parentHeight"
+    };
+
+    /**
+     * 缓存在第一次加载时才创建，只调用 parse() 时不会创建
+     */
+    private static final class Cache {
+        static final SparseArray<AnimatorSpec> sRaw = new SparseArray<>();
+        static final HashMap<String, AnimatorSpec> sAsset = new HashMap<>();
+    }
+
+    private AnimatorSpecLoader() {
+        throw new Error("Do not need instantiate!");
+    }
+
+    /**
+     * 加载 res/raw 中的 JSON
+     *
+     * @param context 上下文
+     * @param rawId   资源ID
+     * @return
+     */
+    public static AnimatorSpec fromRaw(Context context, @RawRes int rawId) {
+        synchronized (Cache.class) {
+            AnimatorSpec spec = Cache.sRaw.get(rawId);
+            if (spec == null) {
+                InputStream in = context.getResources().openRawResource(rawId);
+                spec = _parse(in, context.getResources().getResourceEntryName(rawId));
+                Cache.sRaw.put(rawId, spec);
+            }
+            return spec;
+        }
+    }
+
+    /**
+     * 加载 assets 中的 JSON
+     *
+     * @param context 上下文
+     * @param path    assets 中的路径
+     * @return
+     */
+    public static AnimatorSpec fromAsset(Context context, String path) {
+        synchronized (Cache.class) {
+            AnimatorSpec spec = Cache.sAsset.get(path);
+            if (spec == null) {
+                InputStream in;
+                try {
+                    in = context.getAssets().open(path);
+                } catch (IOException e) {
+                    throw new IllegalArgumentException("Can't open animator spec asset: " + path, e);
+                }
+                spec = _parse(in, path);
+                Cache.sAsset.put(path, spec);
+            }
+            return spec;
+        }
+    }
+
+    /**
+     * 清除缓存，一般不需要调用
+     */
+    public static void clearCache() {
+        synchronized (Cache.class) {
+            Cache.sRaw.clear();
+            Cache.sAsset.clear();
+        }
+    }
+
+    private static AnimatorSpec _parse(InputStream in, String name) {
+        try {
+            return parse(_readFully(in));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Can't read animator spec: " + name, e);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid animator spec: " + name, e);
+        }
+    }
+
+    private static String _readFully(InputStream in) throws IOException {
+        Reader reader = new InputStreamReader(in, "UTF-8");
+        try {
+            StringBuilder builder = new StringBuilder();
+            char[] buffer = new char[1024];
+            int count;
+            while ((count = reader.read(buffer)) != -1) {
+                builder.append(buffer, 0, count);
+            }
+            return builder.toString();
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * 解析 JSON，不经过缓存
+     *
+     * @param json JSON 字符串
+     * @return
+     */
+    public static AnimatorSpec parse(String json) {
+        try {
+            JSONObject object = new JSONObject(json);
+            return new AnimatorSpec(_parseKeyframes(object.getJSONArray("in")),
+                    _parseKeyframes(object.getJSONArray("out")),
+                    object.optInt("duration", -1),
+                    object.optInt("startDelay", -1),
+                    object.has("interpolator") ? object.getString("interpolator") : null);
+        } catch (JSONException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    private static KeyframeSpec _parseKeyframes(JSONArray tracks) throws JSONException {
+        KeyframeSpec.Builder builder = new KeyframeSpec.Builder();
+        for (int i = 0; i < tracks.length(); i++) {
+            JSONObject track = tracks.getJSONObject(i);
+            JSONArray values = track.getJSONArray("values");
+            float[] keyframes = new float[values.length()];
+            for (int j = 0; j < keyframes.length; j++) {
+                keyframes[j] = (float) values.getDouble(j);
+            }
+            builder.addScaled(_indexOf(PROPERTY_NAMES, track.getString("property"), "property"),
+                    _indexOf(UNIT_NAMES, track.optString("unit", UNIT_NAMES[KeyframeSpec.UNIT_NONE]), "unit"),
+                    keyframes);
+        }
+        return builder.build();
+    }
+
+    private static int _indexOf(String[] names, String name, String type) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown " + type + ": " + name);
+    }
+}
@@ -30,6 +30,8 @@ import android.support.v4.view.ViewCompat;
 import android.view.View;
 import android.view.animation.Interpolator;
 
+import java.util.ArrayList;
+
 /**
  * https://github.com/daimajia/AndroidViewAnimations
  */
@@ -39,19 +41,77 @@ public abstract class BaseViewAnimator {
 
     protected AnimatorSet mAnimatorSet;
     private long mDuration = DURATION;
+    private Interpolator mInterpolator;
+    // 动画是否已经构建，构建后重复启动只更新动画的值，不再创建新的 Animator
+    private boolean mIsPrepared = false;
+    private View mPreparedTarget;
 
     {
         mAnimatorSet = new AnimatorSet();
     }
 
+    /**
+     * build the animators for the target, called once per target
+     *
+     * @param target
+     */
     protected abstract void prepare(View target);
 
+    /**
+     * update the prepared animators before restarting, e.g. when the size of the target changed
+     *
+     * @param target
+     */
+    protected void update(View target) {
+    }
+
+    /**
+     * set the target, the properties of the target are not reset, call {@link #reset(View)} if needed
+     *
+     * @param target
+     */
     public BaseViewAnimator setTarget(View target) {
-        reset(target);
-        prepare(target);
+        if (!mIsPrepared || target != mPreparedTarget) {
+            if (mIsPrepared) {
+                _recreateAnimatorSet();
+            }
+            prepare(target);
+            mPreparedTarget = target;
+            mIsPrepared = true;
+        } else {
+            update(target);
+        }
         return this;
     }
 
+    /**
+     * rebuild the animators on the next {@link #setTarget(View)}
+     */
+    public void invalidate() {
+        mIsPrepared = false;
+    }
+
+    /**
+     * AnimatorSet can't remove the children, create a new one and keep the settings
+     */
+    private void _recreateAnimatorSet() {
+        AnimatorSet animatorSet = new AnimatorSet();
+        if (mAnimatorSet.getDuration() >= 0) {
+            animatorSet.setDuration(mAnimatorSet.getDuration());
+        }
+        animatorSet.setStartDelay(mAnimatorSet.getStartDelay());
+        if (mInterpolator != null) {
+            animatorSet.setInterpolator(mInterpolator);
+        }
+        ArrayList<AnimatorListener> listeners = mAnimatorSet.getListeners();
+        if (listeners != null) {
+            for (int i = 0; i < listeners.size(); i++) {
+                animatorSet.addListener(listeners.get(i));
+            }
+        }
+        mAnimatorSet = animatorSet;
+    }
+
     public void animate() {
         start();
     }
@@ -85,12 +145,16 @@ public abstract class BaseViewAnimator {
 
     public BaseViewAnimator setDuration(long duration) {
         mDuration = duration;
-        mAnimatorSet.setDuration(mDuration);
+        if (mAnimatorSet.getDuration() != duration) {
+            mAnimatorSet.setDuration(mDuration);
+        }
         return this;
     }
 
     public BaseViewAnimator setStartDelay(long delay) {
-        getAnimatorAgent().setStartDelay(delay);
+        if (mAnimatorSet.getStartDelay() != delay) {
+            getAnimatorAgent().setStartDelay(delay);
+        }
         return this;
     }
 
@@ -124,7 +188,10 @@ public abstract class BaseViewAnimator {
     }
 
     public BaseViewAnimator setInterpolator(Interpolator interpolator) {
-        mAnimatorSet.setInterpolator(interpolator);
+        if (mInterpolator != interpolator) {
+            mInterpolator = interpolator;
+            mAnimatorSet.setInterpolator(interpolator);
+        }
         return this;
     }
 
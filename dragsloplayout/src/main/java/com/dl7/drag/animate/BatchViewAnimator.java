@@ -0,0 +1,175 @@
+package com.dl7.drag.animate;
+
+import android.animation.Animator;
+import android.animation.TimeInterpolator;
+import android.animation.ValueAnimator;
+import android.support.v4.view.ViewCompat;
+import android.view.View;
+import android.view.animation.AccelerateDecelerateInterpolator;
+import android.view.animation.LinearInterpolator;
+
+import java.util.ArrayList;
+
+/**
+ * Created by long on 2016/11/28.
+ * 多个视图的批量动画，所有轨道由同一个 ValueAnimator 驱动，每帧只有一次回调，不需要反射
+ * 每个轨道对应一个视图的一个属性，可以设置相对动画开始的偏移时间来实现错开的效果
+ * 属性使用 {@link KeyframeSpec} 中的常量，关键帧在轨道时长内均匀分布
+ * 注意：轨道在第一次启动时才编译，之后再添加轨道需要调用 {@link #invalidate()}
+ */
+public class BatchViewAnimator extends CustomViewAnimator {
+
+    // 和 ObjectAnimator 默认的插值器一致
+    private static final TimeInterpolator DEFAULT_TRACK_INTERPOLATOR = new AccelerateDecelerateInterpolator();
+    // 整体进度保持线性，插值器作用在每个轨道上
+    private static final TimeInterpolator LINEAR_INTERPOLATOR = new LinearInterpolator();
+
+    private final ArrayList<Track> mTracks = new ArrayList<>();
+    private Track[] mTrackArray;
+    private long mTrackDuration = DURATION;
+    private long mTotalDuration;
+    private TimeInterpolator mTrackInterpolator = DEFAULT_TRACK_INTERPOLATOR;
+
+    /**
+     * 设置每个轨道的时长，整个动画的时长为最大的偏移时间加上轨道时长
+     *
+     * @param duration 时长
+     */
+    public BatchViewAnimator setTrackDuration(long duration) {
+        if (duration < 0) {
+            throw new IllegalArgumentException("Duration can not be negative: " + duration);
+        }
+        mTrackDuration = duration;
+        return this;
+    }
+
+    /**
+     * 设置每个轨道的插值器，默认为 AccelerateDecelerateInterpolator
+     * 注意：{@link #setInterpolator} 作用于整个动画，会改变轨道之间的错开效果
+     */
+    public BatchViewAnimator setTrackInterpolator(TimeInterpolator interpolator) {
+        mTrackInterpolator = interpolator == null ? DEFAULT_TRACK_INTERPOLATOR : interpolator;
+        return this;
+    }
+
+    /**
+     * 添加轨道
+     *
+     * @param target      目标视图
+     * @param property    属性，{@link KeyframeSpec} 中的常量
+     * @param startOffset 相对动画开始的偏移时间
+     * @param values      关键帧，至少两个
+     */
+    public BatchViewAnimator add(View target, int property, long startOffset, float... values) {
+        if (target == null) {
+            throw new IllegalArgumentException("Target can not be null.");
+        }
+        if (property < 0 || property >= KeyframeSpec.PROPERTY_COUNT) {
+            throw new IllegalArgumentException("Unknown property: " + property);
+        }
+        if (values == null || values.length < 2) {
+            throw new IllegalArgumentException("A track needs at least two keyframes.");
+        }
+        if (startOffset < 0) {
+            throw new IllegalArgumentException("Start offset can not be negative: " + startOffset);
+        }
+        mTracks.add(new Track(target, property, startOffset, values.clone()));
+        return this;
+    }
+
+    /**
+     * 给多个视图添加相同的轨道，依次错开 stagger 时间
+     *
+     * @param property 属性
+     * @param stagger  相邻视图错开的时间
+     * @param values   关键帧
+     * @param targets  目标视图，按启动顺序排列
+     */
+    public BatchViewAnimator addStaggered(int property, long stagger, float[] values, View... targets) {
+        for (int i = 0; i < targets.length; i++) {
+            add(targets[i], property, i * stagger, values);
+        }
+        return this;
+    }
+
+    @Override
+    protected Animator doAnimator() {
+        mTrackArray = mTracks.toArray(new Track[mTracks.size()]);
+        long maxOffset = 0;
+        for (Track track : mTrackArray) {
+            maxOffset = Math.max(maxOffset, track.startOffset);
+        }
+        mTotalDuration = maxOffset + mTrackDuration;
+        ValueAnimator animator = ValueAnimator.ofFloat(0, 1);
+        animator.setDuration(mTotalDuration);
+        animator.setInterpolator(LINEAR_INTERPOLATOR);
+        animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+            @Override
+            public void onAnimationUpdate(ValueAnimator animation) {
+                _applyFrame(animation.getAnimatedFraction());
+            }
+        });
+        return animator;
+    }
+
+    /**
+     * 计算并设置所有轨道的一帧，不分配内存
+     *
+     * @param fraction 整个动画的进度
+     */
+    private void _applyFrame(float fraction) {
+        final float playTime = fraction * mTotalDuration;
+        for (Track track : mTrackArray) {
+            final float elapsed = playTime - track.startOffset;
+            float trackFraction;
+            if (mTrackDuration == 0) {
+                trackFraction = elapsed >= 0 ? 1 : 0;
+            } else {
+                trackFraction = Math.min(Math.max(elapsed / mTrackDuration, 0), 1);
+            }
+            final float value = KeyframeSpec.evaluate(track.values,
+                    mTrackInterpolator.getInterpolation(trackFraction));
+            _setProperty(track.target, track.property, value);
+        }
+    }
+
+    private static void _setProperty(View target, int property, float value) {
+        switch (property) {
+            case KeyframeSpec.ALPHA:
+                ViewCompat.setAlpha(target, value);
+                break;
+            case KeyframeSpec.TRANSLATION_X:
+                ViewCompat.setTranslationX(target, value);
+                break;
+            case KeyframeSpec.TRANSLATION_Y:
+                ViewCompat.setTranslationY(target, value);
+                break;
+            case KeyframeSpec.ROTATION_X:
+                ViewCompat.setRotationX(target, value);
+                break;
+            case KeyframeSpec.ROTATION_Y:
+                ViewCompat.setRotationY(target, value);
+                break;
+            case KeyframeSpec.SCALE_X:
+                ViewCompat.setScaleX(target, value);
+                break;
+            case KeyframeSpec.SCALE_Y:
+                ViewCompat.setScaleY(target, value);
+                break;
+        }
+    }
+
+    private static final class Track {
+        final View target;
+        final int property;
+        final long startOffset;
+        final float[] values;
+
+        Track(View target, int property, long startOffset, float[] values) {
+            this.target = target;
+            this.property = property;
+            this.startOffset = startOffset;
+            this.values = values;
+        }
+    }
+}
@@ -1,18 +1,88 @@
 package com.dl7.drag.animate;
 
 import android.animation.Animator;
+import android.animation.AnimatorSet;
+import android.animation.ValueAnimator;
 import android.view.View;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Created by long on 2016/9/12.
  * 自定义动画
  */
 public abstract class CustomViewAnimator extends BaseViewAnimator {
 
+    // 展开后的所有 ValueAnimator 及它们相对整个动画的启动延迟和时长，用来按进度定位
+    private ValueAnimator[] mSeekAnimators;
+    private long[] mSeekDelays;
+    private long[] mSeekDurations;
+    private long mSeekTotalDuration;
+
     @Override
     protected void prepare(View target) {
-        mAnimatorSet.playTogether(doAnimator());
+        Animator animator = doAnimator();
+        mAnimatorSet.playTogether(animator);
+        List<ValueAnimator> animators = new ArrayList<>();
+        List<Long> delays = new ArrayList<>();
+        _collectAnimators(animator, 0, -1, animators, delays);
+        final int count = animators.size();
+        mSeekAnimators = animators.toArray(new ValueAnimator[count]);
+        mSeekDelays = new long[count];
+        mSeekDurations = new long[count];
+        mSeekTotalDuration = 0;
+        for (int i = 0; i < count; i++) {
+            mSeekDelays[i] = delays.get(i);
+            mSeekDurations[i] = mSeekAnimators[i].getDuration();
+            mSeekTotalDuration = Math.max(mSeekTotalDuration, mSeekDelays[i] + mSeekDurations[i]);
+        }
+    }
+
+    /**
+     * 展开 AnimatorSet，子动画都按同时播放处理
+     *
+     * @param animator       动画
+     * @param delay          父动画累计的启动延迟
+     * @param parentDuration 父 AnimatorSet 设置的时长，没有设置为 -1
+     */
+    private void _collectAnimators(Animator animator, long delay, long parentDuration,
+                                   List<ValueAnimator> animators, List<Long> delays) {
+        if (parentDuration >= 0) {
+            // AnimatorSet 在启动时才会把时长设置给子动画，这里提前设置保证定位的时长一致
+            animator.setDuration(parentDuration);
+        }
+        delay += animator.getStartDelay();
+        if (animator instanceof AnimatorSet) {
+            final long duration = animator.getDuration();
+            ArrayList<Animator> children = ((AnimatorSet) animator).getChildAnimations();
+            for (int i = 0; i < children.size(); i++) {
+                _collectAnimators(children.get(i), delay, duration, animators, delays);
+            }
+        } else if (animator instanceof ValueAnimator) {
+            animators.add((ValueAnimator) animator);
+            delays.add(delay);
+        }
+    }
+
+    /**
+     * 按进度定位动画，不会启动动画，用来跟随手势执行动画
+     * 注意：嵌套的 AnimatorSet 都按 playTogether 处理，子动画自身的启动延迟依然有效
+     *
+     * @param percent 进度，[0, 1]
+     */
+    public void seek(float percent) {
+        setTarget(null);
+        final long playTime = (long) (mSeekTotalDuration * Math.min(Math.max(percent, 0), 1));
+        for (int i = 0; i < mSeekAnimators.length; i++) {
+            final long time = Math.min(Math.max(playTime - mSeekDelays[i], 0), mSeekDurations[i]);
+            mSeekAnimators[i].setCurrentPlayTime(time);
+        }
     }
 
+    /**
+     * 创建自定义动画，只在第一次启动时调用，之后重复使用；需要重新创建时调用 {@link #invalidate()}
+     * @return
+     */
     protected abstract Animator doAnimator();
 }
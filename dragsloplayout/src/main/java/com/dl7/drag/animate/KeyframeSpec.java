@@ -0,0 +1,186 @@
+package com.dl7.drag.animate;
+
+import java.util.Arrays;
+
+/**
+ * Created by long on 2016/11/25.
+ * 预编译的关键帧描述，同时驱动按时间执行的进入/退出动画和随 ViewPager 滑动百分比执行的动画帧
+ * 关键帧在 [0, 1] 上均匀分布，和 ObjectAnimator.ofFloat(target, property, values...) 一致
+ * 注意：这个类不依赖 Android 框架，可以直接在 JVM 上测试
+ */
+public final class KeyframeSpec {
+
+    // 支持的属性
+    public static final int ALPHA = 0;
+    public static final int TRANSLATION_X = 1;
+    public static final int TRANSLATION_Y = 2;
+    public static final int ROTATION_X = 3;
+    public static final int ROTATION_Y = 4;
+    public static final int SCALE_X = 5;
+    public static final int SCALE_Y = 6;
+    public static final int PROPERTY_COUNT = 7;
+
+    // 关键帧数值的单位，实际值为关键帧数值乘以对应的尺寸
+    public static final int UNIT_NONE = 0;
+    public static final int UNIT_TARGET_WIDTH = 1;
+    public static final int UNIT_TARGET_HEIGHT = 2;
+    public static final int UNIT_PARENT_WIDTH = 3;
+    public static final int UNIT_PARENT_HEIGHT = 4;
+    public static final int UNIT_COUNT = 5;
+
+    // 各属性的默认值，没有对应轨道的属性保持默认值
+    private static final float[] DEFAULT_VALUES = {1, 0, 0, 0, 0, 1, 1};
+
+    private final int[] mProperties;
+    private final int[] mUnits;
+    private final float[][] mValues;
+
+    private KeyframeSpec(int[] properties, int[] units, float[][] values) {
+        mProperties = properties;
+        mUnits = units;
+        mValues = values;
+    }
+
+    /**
+     * 轨道数，每个轨道对应一个属性
+     */
+    public int getTrackCount() {
+        return mProperties.length;
+    }
+
+    public int getProperty(int track) {
+        return mProperties[track];
+    }
+
+    public int getUnit(int track) {
+        return mUnits[track];
+    }
+
+    /**
+     * 获取轨道的关键帧，已经乘以单位对应的尺寸
+     *
+     * @param track     轨道
+     * @param unitScale 各单位对应的尺寸，长度为 {@link #UNIT_COUNT}
+     * @param out       输出数组，长度为关键帧数
+     */
+    public void getKeyframes(int track, float[] unitScale, float[] out) {
+        final float[] values = mValues[track];
+        final float scale = unitScale[mUnits[track]];
+        for (int i = 0; i < values.length; i++) {
+            out[i] = values[i] * scale;
+        }
+    }
+
+    public int getKeyframeCount(int track) {
+        return mValues[track].length;
+    }
+
+    /**
+     * 计算轨道在某个进度的值
+     *
+     * @param track     轨道
+     * @param fraction  进度，超出 [0, 1] 时按首尾两段线性外推
+     * @param unitScale 各单位对应的尺寸
+     * @return
+     */
+    public float evaluate(int track, float fraction, float[] unitScale) {
+        return evaluate(mValues[track], fraction) * unitScale[mUnits[track]];
+    }
+
+    /**
+     * 计算某个进度所有属性的值，不分配内存
+     *
+     * @param fraction  进度
+     * @param unitScale 各单位对应的尺寸
+     * @param out       输出数组，长度为 {@link #PROPERTY_COUNT}，下标为属性
+     */
+    public void evaluateFrame(float fraction, float[] unitScale, float[] out) {
+        System.arraycopy(DEFAULT_VALUES, 0, out, 0, PROPERTY_COUNT);
+        for (int i = 0; i < mProperties.length; i++) {
+            out[mProperties[i]] = evaluate(mValues[i], fraction) * unitScale[mUnits[i]];
+        }
+    }
+
+    /**
+     * 均匀分布的关键帧线性插值
+     */
+    static float evaluate(float[] values, float fraction) {
+        final int last = values.length - 1;
+        final float position = fraction * last;
+        final int index = Math.min(Math.max((int) position, 0), last - 1);
+        final float start = values[index];
+        return start + (values[index + 1] - start) * (position - index);
+    }
+
+    /**
+     * 获取属性的默认值
+     */
+    public static float getDefaultValue(int property) {
+        return DEFAULT_VALUES[property];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("KeyframeSpec{");
+        for (int i = 0; i < mProperties.length; i++) {
+            builder.append(mProperties[i]).append('/').append(mUnits[i]).append('=')
+                    .append(Arrays.toString(mValues[i])).append(i < mProperties.length - 1 ? ", " : "}");
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 构建 KeyframeSpec
+     */
+    public static final class Builder {
+
+        private int[] mProperties = new int[PROPERTY_COUNT];
+        private int[] mUnits = new int[PROPERTY_COUNT];
+        private float[][] mValues = new float[PROPERTY_COUNT][];
+        private int mCount;
+
+        /**
+         * 添加无单位的轨道
+         *
+         * @param property 属性
+         * @param values   关键帧，至少两个
+         */
+        public Builder add(int property, float... values) {
+            return addScaled(property, UNIT_NONE, values);
+        }
+
+        /**
+         * 添加带单位的轨道
+         *
+         * @param property 属性
+         * @param unit     单位
+         * @param values   关键帧，至少两个，实际值为关键帧乘以单位对应的尺寸
+         */
+        public Builder addScaled(int property, int unit, float... values) {
+            if (property < 0 || property >= PROPERTY_COUNT) {
+                throw new IllegalArgumentException("Unknown property: " + property);
+            }
+            if (unit < 0 || unit >= UNIT_COUNT) {
+                throw new IllegalArgumentException("Unknown unit: " + unit);
+            }
+            if (values == null || values.length < 2) {
+                throw new IllegalArgumentException("A track needs at least two keyframes.");
+            }
+            for (int i = 0; i < mCount; i++) {
+                if (mProperties[i] == property) {
+                    throw new IllegalArgumentException("Duplicate track for property: " + property);
+                }
+            }
+            mProperties[mCount] = property;
+            mUnits[mCount] = unit;
+            mValues[mCount] = values.clone();
+            mCount++;
+            return this;
+        }
+
+        public KeyframeSpec build() {
+            return new KeyframeSpec(Arrays.copyOf(mProperties, mCount), Arrays.copyOf(mUnits, mCount),
+                    Arrays.copyOf(mValues, mCount));
+        }
+    }
+}
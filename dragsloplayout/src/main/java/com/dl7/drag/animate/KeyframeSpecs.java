@@ -0,0 +1,111 @@
+package com.dl7.drag.animate;
+
+import static com.dl7.drag.animate.KeyframeSpec.ALPHA;
+import static com.dl7.drag.animate.KeyframeSpec.ROTATION_X;
+import static com.dl7.drag.animate.KeyframeSpec.ROTATION_Y;
+import static com.dl7.drag.animate.KeyframeSpec.SCALE_X;
+import static com.dl7.drag.animate.KeyframeSpec.SCALE_Y;
+import static com.dl7.drag.animate.KeyframeSpec.TRANSLATION_X;
+import static com.dl7.drag.animate.KeyframeSpec.TRANSLATION_Y;
+import static com.dl7.drag.animate.KeyframeSpec.UNIT_PARENT_WIDTH;
+import static com.dl7.drag.animate.KeyframeSpec.UNIT_TARGET_HEIGHT;
+
+/**
+ * Created by long on 2016/11/25.
+ * 内置动画模式的关键帧，退出动画的关键帧同时用于和 ViewPager 联动时的隐藏动画
+ */
+public final class KeyframeSpecs {
+
+    private KeyframeSpecs() {
+        throw new Error("Do not need instantiate!");
+    }
+
+    public static final KeyframeSpec SLIDE_BOTTOM_IN = new KeyframeSpec.Builder()
+            .add(ALPHA, 0, 1)
+            .addScaled(TRANSLATION_Y, UNIT_TARGET_HEIGHT, 1, 0)
+            .build();
+    public static final KeyframeSpec SLIDE_BOTTOM_OUT = new KeyframeSpec.Builder()
+            .add(ALPHA, 1, 0)
+            .addScaled(TRANSLATION_Y, UNIT_TARGET_HEIGHT, 0, 1)
+            .build();
+
+    public static final KeyframeSpec SLIDE_LEFT_IN = new KeyframeSpec.Builder()
+            .add(ALPHA, 0, 1)
+            .addScaled(TRANSLATION_X, UNIT_PARENT_WIDTH, -1, 0)
+            .build();
+    public static final KeyframeSpec SLIDE_LEFT_OUT = new KeyframeSpec.Builder()
+            .add(ALPHA, 1, 0)
+            .addScaled(TRANSLATION_X, UNIT_PARENT_WIDTH, 0, -1)
+            .build();
+
+    public static final KeyframeSpec SLIDE_RIGHT_IN = new KeyframeSpec.Builder()
+            .add(ALPHA, 0, 1)
+            .addScaled(TRANSLATION_X, UNIT_PARENT_WIDTH, 1, 0)
+            .build();
+    public static final KeyframeSpec SLIDE_RIGHT_OUT = new KeyframeSpec.Builder()
+            .add(ALPHA, 1, 0)
+            .addScaled(TRANSLATION_X, UNIT_PARENT_WIDTH, 0, 1)
+            .build();
+
+    public static final KeyframeSpec FADE_IN = new KeyframeSpec.Builder()
+            .add(ALPHA, 0, 1)
+            .build();
+    public static final KeyframeSpec FADE_OUT = new KeyframeSpec.Builder()
+            .add(ALPHA, 1, 0)
+            .build();
+
+    public static final KeyframeSpec FLIP_X_IN = new KeyframeSpec.Builder()
+            .add(ROTATION_X, 90, -15, 15, 0)
+            .add(ALPHA, 0.25f, 0.5f, 0.75f, 1)
+            .build();
+    public static final KeyframeSpec FLIP_X_OUT = new KeyframeSpec.Builder()
+            .add(ROTATION_X, 0, 90)
+            .add(ALPHA, 1, 0)
+            .build();
+
+    public static final KeyframeSpec FLIP_Y_IN = new KeyframeSpec.Builder()
+            .add(ROTATION_Y, 90, -15, 15, 0)
+            .add(ALPHA, 0.25f, 0.5f, 0.75f, 1)
+            .build();
+    public static final KeyframeSpec FLIP_Y_OUT = new KeyframeSpec.Builder()
+            .add(ROTATION_Y, 0, 90)
+            .add(ALPHA, 1, 0)
+            .build();
+
+    public static final KeyframeSpec ZOOM_IN = new KeyframeSpec.Builder()
+            .add(SCALE_X, 0.45f, 1)
+            .add(SCALE_Y, 0.45f, 1)
+            .add(ALPHA, 0, 1)
+            .build();
+    public static final KeyframeSpec ZOOM_OUT = new KeyframeSpec.Builder()
+            .add(ALPHA, 1, 0, 0)
+            .add(SCALE_X, 1, 0.3f, 0)
+            .add(SCALE_Y, 1, 0.3f, 0)
+            .build();
+
+    public static final KeyframeSpec ZOOM_LEFT_IN = new KeyframeSpec.Builder()
+            .add(SCALE_X, 0.1f, 0.5f, 1)
+            .add(SCALE_Y, 0.1f, 0.5f, 1)
+            .addScaled(TRANSLATION_X, UNIT_PARENT_WIDTH, -1, 0.2f, 0)
+            .add(ALPHA, 0, 1, 1)
+            .build();
+    public static final KeyframeSpec ZOOM_LEFT_OUT = new KeyframeSpec.Builder()
+            .add(ALPHA, 1, 1, 0)
+            .add(SCALE_X, 1, 0.5f, 0.1f)
+            .add(SCALE_Y, 1, 0.5f, 0.1f)
+            .addScaled(TRANSLATION_X, UNIT_PARENT_WIDTH, 0, 0.2f, -1)
+            .build();
+
+    public static final KeyframeSpec ZOOM_RIGHT_IN = new KeyframeSpec.Builder()
+            .add(SCALE_X, 0.1f, 0.5f, 1)
+            .add(SCALE_Y, 0.1f, 0.5f, 1)
+            .addScaled(TRANSLATION_X, UNIT_PARENT_WIDTH, 1, -0.2f, 0)
+            .add(ALPHA, 0, 1, 1)
+            .build();
+    public static final KeyframeSpec ZOOM_RIGHT_OUT = new KeyframeSpec.Builder()
+            .add(ALPHA, 1, 1, 0)
+            .add(SCALE_X, 1, 0.5f, 0.1f)
+            .add(SCALE_Y, 1, 0.5f, 0.1f)
+            .addScaled(TRANSLATION_X, UNIT_PARENT_WIDTH, 0, -0.2f, 1)
+            .build();
+}
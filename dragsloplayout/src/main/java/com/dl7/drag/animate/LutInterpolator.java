@@ -0,0 +1,72 @@
+package com.dl7.drag.animate;
+
+import android.animation.TimeInterpolator;
+import android.view.animation.Interpolator;
+
+/**
+ * Created by long on 2016/11/26.
+ * 查表插值器，创建时把任意插值器在 [0, 1] 上均匀采样成固定的表，之后每帧只做一次线性插值
+ * 适合 PathInterpolator、AccelerateDecelerateInterpolator 等需要查找或三角函数的插值器
+ * BounceInterpolator、OvershootInterpolator 这类多项式插值器本身只需几次乘法，查表并不会更快
+ * 注意：输入会限制在 [0, 1]，输出和原插值器在采样点之间存在线性近似的误差
+ */
+public class LutInterpolator implements Interpolator {
+
+    // 默认采样数，和 support 库 LookupTableInterpolator 的精度相当
+    public static final int DEFAULT_SAMPLE_COUNT = 201;
+
+    private final float[] mValues;
+    // 最后一个采样点的下标，输入乘以它就是在表中的位置
+    private final float mLastIndex;
+
+    public LutInterpolator(TimeInterpolator interpolator) {
+        this(interpolator, DEFAULT_SAMPLE_COUNT);
+    }
+
+    /**
+     * @param interpolator 被采样的插值器
+     * @param sampleCount  采样数，至少两个
+     */
+    public LutInterpolator(TimeInterpolator interpolator, int sampleCount) {
+        if (interpolator == null) {
+            throw new IllegalArgumentException("Interpolator can not be null.");
+        }
+        if (sampleCount < 2) {
+            throw new IllegalArgumentException("Sample count must be at least 2, was " + sampleCount);
+        }
+        mValues = new float[sampleCount];
+        mLastIndex = sampleCount - 1;
+        for (int i = 0; i < sampleCount; i++) {
+            mValues[i] = interpolator.getInterpolation(i / mLastIndex);
+        }
+    }
+
+    /**
+     * 如果插值器已经是 LutInterpolator 则直接返回，否则进行采样
+     */
+    public static LutInterpolator wrap(TimeInterpolator interpolator) {
+        if (interpolator instanceof LutInterpolator) {
+            return (LutInterpolator) interpolator;
+        }
+        return new LutInterpolator(interpolator);
+    }
+
+    public int getSampleCount() {
+        return mValues.length;
+    }
+
+    @Override
+    public float getInterpolation(float input) {
+        if (input >= 1f) {
+            return mValues[mValues.length - 1];
+        }
+        if (input <= 0f) {
+            return mValues[0];
+        }
+        final float position = input * mLastIndex;
+        // 接近 1 的输入乘法后可能舍入到最后一个下标
+        final int index = Math.min((int) position, mValues.length - 2);
+        final float start = mValues[index];
+        return start + (position - index) * (mValues[index + 1] - start);
+    }
+}
@@ -0,0 +1,142 @@
+package com.dl7.drag.animate;
+
+import android.animation.ValueAnimator;
+import android.support.v4.view.ViewCompat;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Created by long on 2016/11/25.
+ * 由 {@link KeyframeSpec} 描述的动画
+ * 动画从目标当前的属性值开始，和关键帧的差值随进度衰减到 0，中途打断或折返都不会跳变
+ */
+public class SpecViewAnimator extends BaseViewAnimator {
+
+    private final KeyframeSpec mSpec;
+    private View mTarget;
+    private ValueAnimator mAnimator;
+    // 动画开始时各单位对应的尺寸
+    private final float[] mUnitScale = new float[KeyframeSpec.UNIT_COUNT];
+    // 动画开始时目标的属性值和关键帧起始值的差
+    private final float[] mStartOffsets = new float[KeyframeSpec.PROPERTY_COUNT];
+    private final float[] mFrameValues = new float[KeyframeSpec.PROPERTY_COUNT];
+    // 启动后需要在第一帧记录起始值
+    private boolean mIsStartValuesDirty;
+
+    public SpecViewAnimator(KeyframeSpec spec) {
+        mSpec = spec;
+    }
+
+    public KeyframeSpec getSpec() {
+        return mSpec;
+    }
+
+    @Override
+    protected void prepare(View target) {
+        mTarget = target;
+        mAnimator = ValueAnimator.ofFloat(0, 1);
+        mAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+            @Override
+            public void onAnimationUpdate(ValueAnimator animation) {
+                if (mIsStartValuesDirty) {
+                    // 第一帧在启动延迟之后，而且早于 onAnimationStart 回调，在这里记录起始值
+                    _captureStartValues();
+                    mIsStartValuesDirty = false;
+                }
+                _applyFraction(animation.getAnimatedFraction());
+            }
+        });
+        getAnimatorAgent().play(mAnimator);
+    }
+
+    @Override
+    public void start() {
+        mIsStartValuesDirty = true;
+        super.start();
+    }
+
+    /**
+     * 当前动画执行的进度，没有执行或还在启动延迟中为 0
+     */
+    public float getAnimatedFraction() {
+        return mAnimator == null || !mAnimator.isStarted() ? 0 : mAnimator.getAnimatedFraction();
+    }
+
+    /**
+     * 是否已经过了启动延迟正在执行，启动延迟中返回 false
+     */
+    public boolean isPlaying() {
+        return mAnimator != null && mAnimator.isStarted();
+    }
+
+    /**
+     * 已经执行的时间占时长的比例，不经过插值器，没有执行或还在启动延迟中为 0
+     */
+    public float getPlayedFraction() {
+        if (!isPlaying() || mAnimator.getDuration() <= 0) {
+            return 0;
+        }
+        return Math.min(1f, mAnimator.getCurrentPlayTime() / (float) mAnimator.getDuration());
+    }
+
+    /**
+     * 记录起始值和关键帧起始值的差，没有轨道的属性以默认值作为关键帧
+     */
+    private void _captureStartValues() {
+        fillUnitScale(mTarget, mUnitScale);
+        mSpec.evaluateFrame(0, mUnitScale, mFrameValues);
+        mStartOffsets[KeyframeSpec.ALPHA] = ViewCompat.getAlpha(mTarget);
+        mStartOffsets[KeyframeSpec.TRANSLATION_X] = ViewCompat.getTranslationX(mTarget);
+        mStartOffsets[KeyframeSpec.TRANSLATION_Y] = ViewCompat.getTranslationY(mTarget);
+        mStartOffsets[KeyframeSpec.ROTATION_X] = ViewCompat.getRotationX(mTarget);
+        mStartOffsets[KeyframeSpec.ROTATION_Y] = ViewCompat.getRotationY(mTarget);
+        mStartOffsets[KeyframeSpec.SCALE_X] = ViewCompat.getScaleX(mTarget);
+        mStartOffsets[KeyframeSpec.SCALE_Y] = ViewCompat.getScaleY(mTarget);
+        for (int i = 0; i < KeyframeSpec.PROPERTY_COUNT; i++) {
+            mStartOffsets[i] -= mFrameValues[i];
+        }
+    }
+
+    /**
+     * 计算并设置一帧，不分配内存
+     */
+    private void _applyFraction(float fraction) {
+        mSpec.evaluateFrame(fraction, mUnitScale, mFrameValues);
+        final float remain = 1 - fraction;
+        for (int i = 0; i < KeyframeSpec.PROPERTY_COUNT; i++) {
+            mFrameValues[i] += mStartOffsets[i] * remain;
+        }
+        applyFrame(mTarget, mFrameValues);
+    }
+
+    /**
+     * 计算各单位对应的尺寸
+     *
+     * @param target 目标视图
+     * @param out    长度为 {@link KeyframeSpec#UNIT_COUNT}
+     */
+    static void fillUnitScale(View target, float[] out) {
+        ViewGroup parent = (ViewGroup) target.getParent();
+        out[KeyframeSpec.UNIT_NONE] = 1;
+        out[KeyframeSpec.UNIT_TARGET_WIDTH] = target.getWidth();
+        out[KeyframeSpec.UNIT_TARGET_HEIGHT] = target.getHeight();
+        out[KeyframeSpec.UNIT_PARENT_WIDTH] = parent == null ? 0 : parent.getWidth();
+        out[KeyframeSpec.UNIT_PARENT_HEIGHT] = parent == null ? 0 : parent.getHeight();
+    }
+
+    /**
+     * 设置一帧的所有属性
+     *
+     * @param target 目标视图
+     * @param values {@link KeyframeSpec#evaluateFrame} 计算的属性值
+     */
+    static void applyFrame(View target, float[] values) {
+        ViewCompat.setAlpha(target, values[KeyframeSpec.ALPHA]);
+        ViewCompat.setTranslationX(target, values[KeyframeSpec.TRANSLATION_X]);
+        ViewCompat.setTranslationY(target, values[KeyframeSpec.TRANSLATION_Y]);
+        ViewCompat.setRotationX(target, values[KeyframeSpec.ROTATION_X]);
+        ViewCompat.setRotationY(target, values[KeyframeSpec.ROTATION_Y]);
+        ViewCompat.setScaleX(target, values[KeyframeSpec.SCALE_X]);
+        ViewCompat.setScaleY(target, values[KeyframeSpec.SCALE_Y]);
+    }
+}
@@ -24,18 +24,16 @@
 
 package com.dl7.drag.animate.in;
 
-import android.animation.ObjectAnimator;
-import android.view.View;
-
-import com.dl7.drag.animate.BaseViewAnimator;
+import com.dl7.drag.animate.KeyframeSpecs;
+import com.dl7.drag.animate.SpecViewAnimator;
 
+/**
+ * @deprecated 直接使用 {@code new SpecViewAnimator(KeyframeSpecs.FLIP_X_IN)}，这个类只为兼容保留
+ */
+@Deprecated
+public class FlipInXAnimator extends SpecViewAnimator {
 
-public class FlipInXAnimator extends BaseViewAnimator {
-    @Override
-    public void prepare(View target) {
-        getAnimatorAgent().playTogether(
-                ObjectAnimator.ofFloat(target, "rotationX", 90, -15, 15, 0),
-                ObjectAnimator.ofFloat(target, "alpha", 0.25f, 0.5f, 0.75f, 1)
-        );
+    public FlipInXAnimator() {
+        super(KeyframeSpecs.FLIP_X_IN);
     }
 }
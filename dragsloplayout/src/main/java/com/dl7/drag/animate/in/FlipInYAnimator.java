@@ -24,18 +24,16 @@
 
 package com.dl7.drag.animate.in;
 
-import android.animation.ObjectAnimator;
-import android.view.View;
-
-import com.dl7.drag.animate.BaseViewAnimator;
+import com.dl7.drag.animate.KeyframeSpecs;
+import com.dl7.drag.animate.SpecViewAnimator;
 
+/**
+ * @deprecated 直接使用 {@code new SpecViewAnimator(KeyframeSpecs.FLIP_Y_IN)}，这个类只为兼容保留
+ */
+@Deprecated
+public class FlipInYAnimator extends SpecViewAnimator {
 
-public class FlipInYAnimator extends BaseViewAnimator {
-    @Override
-    public void prepare(View target) {
-        getAnimatorAgent().playTogether(
-                ObjectAnimator.ofFloat(target, "rotationY", 90, -15, 15, 0),
-                ObjectAnimator.ofFloat(target, "alpha", 0.25f, 0.5f, 0.75f, 1)
-        );
+    public FlipInYAnimator() {
+        super(KeyframeSpecs.FLIP_Y_IN);
     }
 }
@@ -24,18 +24,16 @@
 
 package com.dl7.drag.animate.in;
 
-import android.animation.ObjectAnimator;
-import android.view.View;
-
-import com.dl7.drag.animate.BaseViewAnimator;
+import com.dl7.drag.animate.KeyframeSpecs;
+import com.dl7.drag.animate.SpecViewAnimator;
 
+/**
+ * @deprecated 直接使用 {@code new SpecViewAnimator(KeyframeSpecs.SLIDE_BOTTOM_IN)}，这个类只为兼容保留
+ */
+@Deprecated
+public class SlideInBottomAnimator extends SpecViewAnimator {
 
-public class SlideInBottomAnimator extends BaseViewAnimator {
-    @Override
-    public void prepare(View target) {
-        getAnimatorAgent().playTogether(
-                ObjectAnimator.ofFloat(target, "alpha", 0, 1),
-                ObjectAnimator.ofFloat(target, "translationY", target.getHeight(), 0)
-        );
+    public SlideInBottomAnimator() {
+        super(KeyframeSpecs.SLIDE_BOTTOM_IN);
     }
 }
@@ -24,21 +24,16 @@
 
 package com.dl7.drag.animate.in;
 
-import android.animation.ObjectAnimator;
-import android.view.View;
-import android.view.ViewGroup;
-
-import com.dl7.drag.animate.BaseViewAnimator;
+import com.dl7.drag.animate.KeyframeSpecs;
+import com.dl7.drag.animate.SpecViewAnimator;
 
+/**
+ * @deprecated 直接使用 {@code new SpecViewAnimator(KeyframeSpecs.SLIDE_RIGHT_IN)}，这个类只为兼容保留
+ */
+@Deprecated
+public class SlideInRightAnimator extends SpecViewAnimator {
 
-public class SlideInRightAnimator extends BaseViewAnimator {
-    @Override
-    public void prepare(View target) {
-        ViewGroup parent = (ViewGroup) target.getParent();
-        int distance = parent.getWidth();
-        getAnimatorAgent().playTogether(
-                ObjectAnimator.ofFloat(target, "alpha", 0, 1),
-                ObjectAnimator.ofFloat(target, "translationX", distance, 0)
-        );
+    public SlideInRightAnimator() {
+        super(KeyframeSpecs.SLIDE_RIGHT_IN);
     }
 }
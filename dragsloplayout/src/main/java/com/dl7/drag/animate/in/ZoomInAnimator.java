@@ -24,19 +24,16 @@
 
 package com.dl7.drag.animate.in;
 
-import android.animation.ObjectAnimator;
-import android.view.View;
-
-import com.dl7.drag.animate.BaseViewAnimator;
+import com.dl7.drag.animate.KeyframeSpecs;
+import com.dl7.drag.animate.SpecViewAnimator;
 
+/**
+ * @deprecated 直接使用 {@code new SpecViewAnimator(KeyframeSpecs.ZOOM_IN)}，这个类只为兼容保留
+ */
+@Deprecated
+public class ZoomInAnimator extends SpecViewAnimator {
 
-public class ZoomInAnimator extends BaseViewAnimator {
-    @Override
-    public void prepare(View target) {
-        getAnimatorAgent().playTogether(
-                ObjectAnimator.ofFloat(target, "scaleX", 0.45f, 1),
-                ObjectAnimator.ofFloat(target, "scaleY", 0.45f, 1),
-                ObjectAnimator.ofFloat(target, "alpha", 0, 1)
-        );
+    public ZoomInAnimator() {
+        super(KeyframeSpecs.ZOOM_IN);
     }
 }
@@ -24,23 +24,16 @@
 
 package com.dl7.drag.animate.in;
 
-import android.animation.ObjectAnimator;
-import android.view.View;
-import android.view.ViewGroup;
-
-import com.dl7.drag.animate.BaseViewAnimator;
+import com.dl7.drag.animate.KeyframeSpecs;
+import com.dl7.drag.animate.SpecViewAnimator;
 
+/**
+ * @deprecated 直接使用 {@code new SpecViewAnimator(KeyframeSpecs.ZOOM_RIGHT_IN)}，这个类只为兼容保留
+ */
+@Deprecated
+public class ZoomInRightAnimator extends SpecViewAnimator {
 
-public class ZoomInRightAnimator extends BaseViewAnimator {
-    @Override
-    public void prepare(View target) {
-        ViewGroup parent = (ViewGroup) target.getParent();
-        int distance = parent.getWidth();
-        getAnimatorAgent().playTogether(
-                ObjectAnimator.ofFloat(target, "scaleX", 0.1f, 0.5f, 1),
-                ObjectAnimator.ofFloat(target, "scaleY", 0.1f, 0.5f, 1),
-                ObjectAnimator.ofFloat(target, "translationX", distance, -distance * 0.2f, 0),
-                ObjectAnimator.ofFloat(target, "alpha", 0, 1, 1)
-        );
+    public ZoomInRightAnimator() {
+        super(KeyframeSpecs.ZOOM_RIGHT_IN);
     }
 }
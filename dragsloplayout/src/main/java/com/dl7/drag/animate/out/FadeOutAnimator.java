@@ -24,17 +24,16 @@
 
 package com.dl7.drag.animate.out;
 
-import android.animation.ObjectAnimator;
-import android.view.View;
-
-import com.dl7.drag.animate.BaseViewAnimator;
+import com.dl7.drag.animate.KeyframeSpecs;
+import com.dl7.drag.animate.SpecViewAnimator;
 
+/**
+ * @deprecated 直接使用 {@code new SpecViewAnimator(KeyframeSpecs.FADE_OUT)}，这个类只为兼容保留
+ */
+@Deprecated
+public class FadeOutAnimator extends SpecViewAnimator {
 
-public class FadeOutAnimator extends BaseViewAnimator {
-    @Override
-    public void prepare(View target) {
-        getAnimatorAgent().playTogether(
-                ObjectAnimator.ofFloat(target, "alpha", 1, 0)
-        );
+    public FadeOutAnimator() {
+        super(KeyframeSpecs.FADE_OUT);
     }
 }
@@ -24,18 +24,16 @@
 
 package com.dl7.drag.animate.out;
 
-import android.animation.ObjectAnimator;
-import android.view.View;
-
-import com.dl7.drag.animate.BaseViewAnimator;
+import com.dl7.drag.animate.KeyframeSpecs;
+import com.dl7.drag.animate.SpecViewAnimator;
 
+/**
+ * @deprecated 直接使用 {@code new SpecViewAnimator(KeyframeSpecs.FLIP_X_OUT)}，这个类只为兼容保留
+ */
+@Deprecated
+public class FlipOutXAnimator extends SpecViewAnimator {
 
-public class FlipOutXAnimator extends BaseViewAnimator {
-    @Override
-    public void prepare(View target) {
-        getAnimatorAgent().playTogether(
-                ObjectAnimator.ofFloat(target, "rotationX", 0, 90),
-                ObjectAnimator.ofFloat(target, "alpha", 1, 0)
-        );
+    public FlipOutXAnimator() {
+        super(KeyframeSpecs.FLIP_X_OUT);
     }
 }
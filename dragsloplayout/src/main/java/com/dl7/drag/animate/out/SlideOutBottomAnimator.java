@@ -24,21 +24,16 @@
 
 package com.dl7.drag.animate.out;
 
-import android.animation.ObjectAnimator;
-import android.view.View;
-import android.view.ViewGroup;
-
-import com.dl7.drag.animate.BaseViewAnimator;
+import com.dl7.drag.animate.KeyframeSpecs;
+import com.dl7.drag.animate.SpecViewAnimator;
 
+/**
+ * @deprecated 直接使用 {@code new SpecViewAnimator(KeyframeSpecs.SLIDE_BOTTOM_OUT)}，这个类只为兼容保留
+ */
+@Deprecated
+public class SlideOutBottomAnimator extends SpecViewAnimator {
 
-public class SlideOutBottomAnimator extends BaseViewAnimator {
-    @Override
-    public void prepare(View target) {
-        ViewGroup parent = (ViewGroup) target.getParent();
-        int distance = parent.getHeight() - target.getTop();
-        getAnimatorAgent().playTogether(
-                ObjectAnimator.ofFloat(target, "alpha", 1, 0),
-                ObjectAnimator.ofFloat(target, "translationY", 0, distance)
-        );
+    public SlideOutBottomAnimator() {
+        super(KeyframeSpecs.SLIDE_BOTTOM_OUT);
     }
 }
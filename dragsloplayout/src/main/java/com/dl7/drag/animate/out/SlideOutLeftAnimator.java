@@ -24,18 +24,16 @@
 
 package com.dl7.drag.animate.out;
 
-import android.animation.ObjectAnimator;
-import android.view.View;
-
-import com.dl7.drag.animate.BaseViewAnimator;
+import com.dl7.drag.animate.KeyframeSpecs;
+import com.dl7.drag.animate.SpecViewAnimator;
 
+/**
+ * @deprecated 直接使用 {@code new SpecViewAnimator(KeyframeSpecs.SLIDE_LEFT_OUT)}，这个类只为兼容保留
+ */
+@Deprecated
+public class SlideOutLeftAnimator extends SpecViewAnimator {
 
-public class SlideOutLeftAnimator extends BaseViewAnimator {
-    @Override
-    public void prepare(View target) {
-        getAnimatorAgent().playTogether(
-                ObjectAnimator.ofFloat(target, "alpha", 1, 0),
-                ObjectAnimator.ofFloat(target, "translationX", 0, -target.getRight())
-        );
+    public SlideOutLeftAnimator() {
+        super(KeyframeSpecs.SLIDE_LEFT_OUT);
     }
 }
@@ -24,19 +24,16 @@
 
 package com.dl7.drag.animate.out;
 
-import android.animation.ObjectAnimator;
-import android.view.View;
-
-import com.dl7.drag.animate.BaseViewAnimator;
+import com.dl7.drag.animate.KeyframeSpecs;
+import com.dl7.drag.animate.SpecViewAnimator;
 
+/**
+ * @deprecated 直接使用 {@code new SpecViewAnimator(KeyframeSpecs.ZOOM_OUT)}，这个类只为兼容保留
+ */
+@Deprecated
+public class ZoomOutAnimator extends SpecViewAnimator {
 
-public class ZoomOutAnimator extends BaseViewAnimator {
-    @Override
-    protected void prepare(View target) {
-        getAnimatorAgent().playTogether(
-                ObjectAnimator.ofFloat(target, "alpha", 1, 0, 0),
-                ObjectAnimator.ofFloat(target, "scaleX", 1, 0.3f, 0),
-                ObjectAnimator.ofFloat(target, "scaleY", 1, 0.3f, 0)
-        );
+    public ZoomOutAnimator() {
+        super(KeyframeSpecs.ZOOM_OUT);
     }
 }
@@ -24,22 +24,16 @@
 
 package com.dl7.drag.animate.out;
 
-import android.animation.ObjectAnimator;
-import android.view.View;
-import android.view.ViewGroup;
+import com.dl7.drag.animate.KeyframeSpecs;
+import com.dl7.drag.animate.SpecViewAnimator;
 
-import com.dl7.drag.animate.BaseViewAnimator;
+/**
+ * @deprecated 直接使用 {@code new SpecViewAnimator(KeyframeSpecs.ZOOM_LEFT_OUT)}，这个类只为兼容保留
+ */
+@Deprecated
+public class ZoomOutLeftAnimator extends SpecViewAnimator {
 
-public class ZoomOutLeftAnimator extends BaseViewAnimator {
-    @Override
-    protected void prepare(View target) {
-        ViewGroup parent = (ViewGroup) target.getParent();
-        int distance = parent.getWidth();
-        getAnimatorAgent().playTogether(
-                ObjectAnimator.ofFloat(target, "alpha", 1, 1, 0),
-                ObjectAnimator.ofFloat(target, "scaleX", 1, 0.5f, 0.1f),
-                ObjectAnimator.ofFloat(target, "scaleY", 1, 0.5f, 0.1f),
-                ObjectAnimator.ofFloat(target, "translationX", 0, distance * 0.2f, -distance)
-        );
+    public ZoomOutLeftAnimator() {
+        super(KeyframeSpecs.ZOOM_LEFT_OUT);
     }
 }
@@ -0,0 +1,91 @@
+package com.dl7.drag.trace;
+
+import android.os.SystemClock;
+import android.support.v4.view.MotionEventCompat;
+import android.support.v4.view.ViewPager;
+import android.view.MotionEvent;
+
+/**
+ * Created by long on 2016/11/29.
+ * 录制 DragSlopLayout 收到的触摸事件和 ViewPager 的滑动回调，生成 {@link GestureTrace}
+ * 使用方法：
+ * <pre>
+ * GestureRecorder recorder = new GestureRecorder();
+ * dragSlopLayout.setGestureRecorder(recorder);
+ * viewPager.addOnPageChangeListener(recorder);
+ * recorder.start();
+ * ...
+ * GestureTrace trace = recorder.stop();
+ * </pre>
+ * 录制时每个事件都会分配内存，只在调试时使用
+ */
+public class GestureRecorder implements ViewPager.OnPageChangeListener {
+
+    private GestureTrace mTrace;
+    // 录制开始的时间，和 MotionEvent 的时间同一时基
+    private long mStartTime;
+
+    /**
+     * 开始录制，之前的录制会被丢弃
+     */
+    public void start() {
+        mTrace = new GestureTrace();
+        mStartTime = SystemClock.uptimeMillis();
+    }
+
+    /**
+     * 停止录制
+     *
+     * @return 录制的轨迹，没有开始录制返回 null
+     */
+    public GestureTrace stop() {
+        GestureTrace trace = mTrace;
+        mTrace = null;
+        return trace;
+    }
+
+    public boolean isRecording() {
+        return mTrace != null;
+    }
+
+    /**
+     * 记录触摸事件，由 DragSlopLayout 调用
+     */
+    public void recordTouch(MotionEvent ev) {
+        if (mTrace == null) {
+            return;
+        }
+        final int action = MotionEventCompat.getActionMasked(ev);
+        // 多点触摸只记录第一个触摸点
+        if (action == MotionEvent.ACTION_POINTER_DOWN || action == MotionEvent.ACTION_POINTER_UP) {
+            return;
+        }
+        mTrace.addTouch(_relativeTime(ev.getEventTime()), action, ev.getX(), ev.getY());
+    }
+
+    @Override
+    public void onPageScrolled(int position, float positionOffset, int positionOffsetPixels) {
+        if (mTrace != null) {
+            mTrace.addPageScrolled(_relativeTime(SystemClock.uptimeMillis()), position, positionOffset,
+                    positionOffsetPixels);
+        }
+    }
+
+    @Override
+    public void onPageSelected(int position) {
+    }
+
+    @Override
+    public void onPageScrollStateChanged(int state) {
+        if (mTrace != null) {
+            mTrace.addPageState(_relativeTime(SystemClock.uptimeMillis()), state);
+        }
+    }
+
+    /**
+     * 事件时间可能略早于开始时间，或者比上一个事件早(触摸事件用的是事件时间)，都调整为不早于上一个事件
+     */
+    private long _relativeTime(long time) {
+        return Math.max(time - mStartTime, mTrace.getDuration());
+    }
+}
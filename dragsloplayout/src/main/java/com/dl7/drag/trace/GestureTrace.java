@@ -0,0 +1,226 @@
+package com.dl7.drag.trace;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+
+/**
+ * Created by long on 2016/11/29.
+ * 一段手势轨迹，包括 DragSlopLayout 收到的触摸事件和 ViewPager 的滑动回调，用于回放做性能回归测试
+ * 事件按时间顺序保存，时间为相对录制开始的毫秒数
+ * 文件格式(大端)：
+ * <pre>
+ * magic "DSLT"、版本号 byte、事件数 int
+ * 每个事件：类型 byte、和上一个事件的时间差 varint，然后按类型保存数据
+ *   TOUCH          动作 byte、x float、y float
+ *   PAGE_SCROLLED  position varint、positionOffset float、positionOffsetPixels varint
+ *   PAGE_STATE     state byte
+ * </pre>
+ */
+public final class GestureTrace {
+
+    // 事件类型
+    public static final int TYPE_TOUCH = 0;
+    public static final int TYPE_PAGE_SCROLLED = 1;
+    public static final int TYPE_PAGE_STATE = 2;
+
+    private static final int MAGIC = ('D' << 24) | ('S' << 16) | ('L' << 8) | 'T';
+    private static final int VERSION = 1;
+
+    private final ArrayList<Event> mEvents = new ArrayList<>();
+
+    /**
+     * 添加触摸事件，只记录第一个触摸点
+     *
+     * @param timeMs 相对录制开始的时间
+     * @param action MotionEvent 的动作，不包含触摸点下标
+     * @param x      x 坐标
+     * @param y      y 坐标
+     */
+    public GestureTrace addTouch(long timeMs, int action, float x, float y) {
+        _add(new Event(TYPE_TOUCH, timeMs, action, 0, x, y));
+        return this;
+    }
+
+    /**
+     * 添加 ViewPager 的 onPageScrolled 回调
+     */
+    public GestureTrace addPageScrolled(long timeMs, int position, float positionOffset, int positionOffsetPixels) {
+        _add(new Event(TYPE_PAGE_SCROLLED, timeMs, position, positionOffsetPixels, positionOffset, 0));
+        return this;
+    }
+
+    /**
+     * 添加 ViewPager 的 onPageScrollStateChanged 回调
+     */
+    public GestureTrace addPageState(long timeMs, int state) {
+        _add(new Event(TYPE_PAGE_STATE, timeMs, state, 0, 0, 0));
+        return this;
+    }
+
+    private void _add(Event event) {
+        if (event.timeMs < getDuration()) {
+            throw new IllegalArgumentException("Events must be added in time order: " + event.timeMs);
+        }
+        mEvents.add(event);
+    }
+
+    public int size() {
+        return mEvents.size();
+    }
+
+    /**
+     * 最后一个事件的时间
+     */
+    public long getDuration() {
+        return mEvents.isEmpty() ? 0 : mEvents.get(mEvents.size() - 1).timeMs;
+    }
+
+    public int getType(int index) {
+        return mEvents.get(index).type;
+    }
+
+    public long getTime(int index) {
+        return mEvents.get(index).timeMs;
+    }
+
+    /**
+     * TOUCH 为动作，PAGE_SCROLLED 为 position，PAGE_STATE 为 state
+     */
+    public int getInt(int index) {
+        return mEvents.get(index).intValue;
+    }
+
+    /**
+     * PAGE_SCROLLED 的 positionOffsetPixels
+     */
+    public int getOffsetPixels(int index) {
+        return mEvents.get(index).intValue2;
+    }
+
+    /**
+     * TOUCH 为 x，PAGE_SCROLLED 为 positionOffset
+     */
+    public float getX(int index) {
+        return mEvents.get(index).x;
+    }
+
+    public float getY(int index) {
+        return mEvents.get(index).y;
+    }
+
+    /**
+     * 写入输出流，不关闭流
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.writeInt(mEvents.size());
+        long lastTime = 0;
+        for (Event event : mEvents) {
+            data.writeByte(event.type);
+            _writeVarInt(data, event.timeMs - lastTime);
+            lastTime = event.timeMs;
+            switch (event.type) {
+                case TYPE_TOUCH:
+                    data.writeByte(event.intValue);
+                    data.writeFloat(event.x);
+                    data.writeFloat(event.y);
+                    break;
+                case TYPE_PAGE_SCROLLED:
+                    _writeVarInt(data, event.intValue);
+                    data.writeFloat(event.x);
+                    _writeVarInt(data, event.intValue2);
+                    break;
+                case TYPE_PAGE_STATE:
+                    data.writeByte(event.intValue);
+                    break;
+            }
+        }
+        data.flush();
+    }
+
+    /**
+     * 从输入流读取，不关闭流
+     */
+    public static GestureTrace readFrom(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a gesture trace.");
+        }
+        final int version = data.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported gesture trace version: " + version);
+        }
+        final int count = data.readInt();
+        GestureTrace trace = new GestureTrace();
+        long time = 0;
+        for (int i = 0; i < count; i++) {
+            final int type = data.readUnsignedByte();
+            time += _readVarInt(data);
+            switch (type) {
+                case TYPE_TOUCH:
+                    trace.addTouch(time, data.readUnsignedByte(), data.readFloat(), data.readFloat());
+                    break;
+                case TYPE_PAGE_SCROLLED:
+                    trace.addPageScrolled(time, (int) _readVarInt(data), data.readFloat(), (int) _readVarInt(data));
+                    break;
+                case TYPE_PAGE_STATE:
+                    trace.addPageState(time, data.readUnsignedByte());
+                    break;
+                default:
+                    throw new IOException("Unknown event type: " + type);
+            }
+        }
+        return trace;
+    }
+
+    /**
+     * 变长整数，负数用 zigzag 编码，小的数值只占一个字节
+     */
+    private static void _writeVarInt(DataOutputStream out, long value) throws IOException {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.writeByte((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.writeByte((int) zigzag);
+    }
+
+    private static long _readVarInt(DataInputStream in) throws IOException {
+        long zigzag = 0;
+        int shift = 0;
+        int b;
+        do {
+            if (shift > 63) {
+                throw new IOException("Malformed varint.");
+            }
+            b = in.readUnsignedByte();
+            zigzag |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    private static final class Event {
+        final int type;
+        final long timeMs;
+        final int intValue;
+        final int intValue2;
+        final float x;
+        final float y;
+
+        Event(int type, long timeMs, int intValue, int intValue2, float x, float y) {
+            this.type = type;
+            this.timeMs = timeMs;
+            this.intValue = intValue;
+            this.intValue2 = intValue2;
+            this.x = x;
+            this.y = y;
+        }
+    }
+}
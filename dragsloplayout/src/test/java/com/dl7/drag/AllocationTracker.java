@@ -0,0 +1,111 @@
+package com.dl7.drag;
+
+import org.junit.Assume;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static org.junit.Assert.fail;
+
+/**
+ * Created by long on 2016/11/30.
+ * 通过 com.sun.management.ThreadMXBean 统计当前线程分配的字节数，检查每帧执行的代码不分配内存
+ * 预热的帧数很少，测量时代码基本还是解释执行，没有逃逸分析，统计到的就是代码本身的分配
+ * JVM 不支持统计时跳过测试
+ */
+final class AllocationTracker {
+
+    // 预热的帧数，用于完成延迟初始化和数组扩容
+    static final int WARMUP_FRAMES = 20;
+    // 测量的帧数
+    static final int MEASURE_FRAMES = 200;
+
+    /**
+     * 每帧执行的代码
+     */
+    interface Frame {
+        /**
+         * @param frame 帧序号，用于计算每帧的输入，避免在测量代码中分配内存
+         */
+        void doFrame(int frame);
+    }
+
+    private AllocationTracker() {
+        throw new Error("Do not need instantiate!");
+    }
+
+    static boolean isSupported() {
+        return allocatedBytes() >= 0;
+    }
+
+    /**
+     * 当前线程分配的字节数，JVM 不支持时返回 -1
+     */
+    static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    /**
+     * 预热后测量 frames 帧分配的字节数，已经减去统计接口本身的分配
+     */
+    static long measure(Frame frame, int warmupFrames, int frames) {
+        for (int i = 0; i < warmupFrames; i++) {
+            frame.doFrame(i);
+        }
+        final long overhead = _overhead();
+        final long start = allocatedBytes();
+        for (int i = 0; i < frames; i++) {
+            frame.doFrame(warmupFrames + i);
+        }
+        final long end = allocatedBytes();
+        return Math.max(end - start - overhead, 0);
+    }
+
+    /**
+     * 检查预热后每帧都不分配内存
+     *
+     * @param name  名称，用于失败信息
+     * @param frame 每帧执行的代码
+     */
+    static void assertNoAllocation(String name, Frame frame) {
+        Assume.assumeTrue("Thread allocation counting is not supported.", isSupported());
+        final long bytes = measure(frame, WARMUP_FRAMES, MEASURE_FRAMES);
+        if (bytes > 0) {
+            fail(name + " allocated " + bytes + " bytes in " + MEASURE_FRAMES + " frames, expected 0.");
+        }
+    }
+
+    /**
+     * 检查预热后每帧分配的内存不超过基准帧，基准帧只执行测试环境本身的工作，
+     * 如通过 Robolectric 的虚拟时钟推进一帧时调度器自身的分配
+     *
+     * @param name     名称，用于失败信息
+     * @param frame    每帧执行的代码
+     * @param baseline 只有测试环境开销的基准帧
+     */
+    static void assertNoAllocationBeyond(String name, Frame frame, Frame baseline) {
+        Assume.assumeTrue("Thread allocation counting is not supported.", isSupported());
+        final long baselineBytes = measure(baseline, WARMUP_FRAMES, MEASURE_FRAMES);
+        final long bytes = measure(frame, WARMUP_FRAMES, MEASURE_FRAMES);
+        if (bytes > baselineBytes) {
+            fail(name + " allocated " + (bytes - baselineBytes) + " bytes beyond the baseline in "
+                    + MEASURE_FRAMES + " frames, expected 0.");
+        }
+    }
+
+    /**
+     * 部分 JVM 的统计接口每次调用会分配数组，取几次连续调用的最小值
+     */
+    private static long _overhead() {
+        long overhead = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            final long start = allocatedBytes();
+            overhead = Math.min(overhead, allocatedBytes() - start);
+        }
+        return overhead;
+    }
+}
@@ -0,0 +1,70 @@
+package com.dl7.drag;
+
+import org.junit.Test;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created by long on 2016/11/30.
+ */
+public class DragMetricsTest {
+
+    private static final long MILLIS = 1000000;
+
+    @Test
+    public void increment_accumulatesIntoGlobal() {
+        final long globalBlur = DragMetrics.global().snapshot().getCounter(DragMetrics.COUNTER_BLUR);
+        DragMetrics first = DragMetrics.create();
+        DragMetrics second = DragMetrics.create();
+        first.increment(DragMetrics.COUNTER_BLUR);
+        first.increment(DragMetrics.COUNTER_BLUR_CACHE_HIT);
+        second.increment(DragMetrics.COUNTER_BLUR);
+        assertEquals(1, first.snapshot().getCounter(DragMetrics.COUNTER_BLUR));
+        assertEquals(1, first.snapshot().getBlurCacheHitRate(), 0);
+        assertEquals(0, second.snapshot().getBlurCacheHitRate(), 0);
+        assertEquals(globalBlur + 2, DragMetrics.global().snapshot().getCounter(DragMetrics.COUNTER_BLUR));
+        // 单个实例清空不影响全局
+        first.reset();
+        assertEquals(0, first.snapshot().getCounter(DragMetrics.COUNTER_BLUR));
+        assertEquals(globalBlur + 2, DragMetrics.global().snapshot().getCounter(DragMetrics.COUNTER_BLUR));
+    }
+
+    @Test
+    public void recordLatency_fillsPowerOfTwoBuckets() {
+        DragMetrics metrics = DragMetrics.create();
+        metrics.recordLatency(DragMetrics.HISTOGRAM_SETTLE_DURATION, MILLIS / 2);
+        metrics.recordLatency(DragMetrics.HISTOGRAM_SETTLE_DURATION, 3 * MILLIS);
+        metrics.recordLatency(DragMetrics.HISTOGRAM_SETTLE_DURATION, 5 * MILLIS);
+        metrics.recordLatency(DragMetrics.HISTOGRAM_SETTLE_DURATION, 2000 * MILLIS);
+        DragMetrics.Histogram histogram = metrics.snapshot().getHistogram(DragMetrics.HISTOGRAM_SETTLE_DURATION);
+        long[] buckets = histogram.getBuckets();
+        assertEquals(DragMetrics.BUCKET_COUNT, buckets.length);
+        assertEquals(1, buckets[0]);
+        assertEquals(1, buckets[2]);
+        assertEquals(1, buckets[3]);
+        assertEquals(1, buckets[DragMetrics.BUCKET_COUNT - 1]);
+        assertEquals(4, histogram.getCount());
+        assertEquals(2000, histogram.getMaxMillis(), 1e-3f);
+        assertEquals(4, histogram.getPercentileMillis(50), 0);
+        assertEquals(2000, histogram.getPercentileMillis(100), 1e-3f);
+        assertEquals(0, metrics.snapshot().getHistogram(DragMetrics.HISTOGRAM_BLUR_LATENCY).getCount());
+    }
+
+    @Test
+    public void dump_writesCountersAndHistograms() {
+        DragMetrics metrics = DragMetrics.create();
+        metrics.increment(DragMetrics.COUNTER_TOUCH_INTERCEPTED);
+        metrics.increment(DragMetrics.COUNTER_TOUCH_PASSED);
+        metrics.recordLatency(DragMetrics.HISTOGRAM_BLUR_LATENCY, 12 * MILLIS);
+        StringWriter out = new StringWriter();
+        metrics.dump(new PrintWriter(out));
+        final String dump = out.toString();
+        assertTrue(dump, dump.contains("touchIntercepted=1"));
+        assertTrue(dump, dump.contains("touchInterceptRate=50.0%"));
+        assertTrue(dump, dump.contains("blurLatency: count=1"));
+    }
+}
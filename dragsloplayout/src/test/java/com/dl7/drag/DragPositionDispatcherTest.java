@@ -0,0 +1,78 @@
+package com.dl7.drag;
+
+import com.dl7.drag.DragSlopLayout.OnDragPositionListener;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Created by long on 2016/11/29.
+ * 只测试不需要调度帧回调的部分
+ */
+public class DragPositionDispatcherTest {
+
+    private final DragPositionDispatcher mDispatcher = new DragPositionDispatcher(null);
+    private final List<String> mEvents = new ArrayList<>();
+
+    private OnDragPositionListener _recorder(final String name) {
+        return new OnDragPositionListener() {
+            @Override
+            public void onDragPosition(int visibleHeight, float percent, boolean isUp) {
+                mEvents.add(name + visibleHeight);
+            }
+        };
+    }
+
+    @Test
+    public void dispatch_callsListenersInOrder() {
+        mDispatcher.addPositionListener(_recorder("a"));
+        mDispatcher.addPositionListener(_recorder("b"));
+        mDispatcher.dispatch(10, 0.5f, true);
+        assertEquals(Arrays.asList("a10", "b10"), mEvents);
+    }
+
+    @Test
+    public void addPositionListener_ignoresDuplicate() {
+        OnDragPositionListener listener = _recorder("a");
+        mDispatcher.addPositionListener(listener);
+        mDispatcher.addPositionListener(listener);
+        mDispatcher.dispatch(1, 0, false);
+        assertEquals(Arrays.asList("a1"), mEvents);
+    }
+
+    @Test
+    public void dispatch_changesDuringDispatchApplyNextTime() {
+        final OnDragPositionListener late = _recorder("late");
+        final OnDragPositionListener removed = _recorder("removed");
+        mDispatcher.addPositionListener(new OnDragPositionListener() {
+            @Override
+            public void onDragPosition(int visibleHeight, float percent, boolean isUp) {
+                mEvents.add("first" + visibleHeight);
+                mDispatcher.removePositionListener(removed);
+                mDispatcher.addPositionListener(late);
+            }
+        });
+        mDispatcher.addPositionListener(removed);
+        mDispatcher.dispatch(1, 0, false);
+        mDispatcher.dispatch(2, 0, false);
+        assertEquals(Arrays.asList("first1", "removed1", "first2", "late2"), mEvents);
+    }
+
+    @Test
+    public void removePositionListener_unknownIsIgnored() {
+        mDispatcher.addPositionListener(_recorder("a"));
+        mDispatcher.removePositionListener(_recorder("b"));
+        mDispatcher.dispatch(3, 0, false);
+        assertEquals(Arrays.asList("a3"), mEvents);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void addPositionListener_nullThrows() {
+        mDispatcher.addPositionListener(null);
+    }
+}
@@ -0,0 +1,97 @@
+package com.dl7.drag;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created by long on 2016/11/29.
+ */
+public class DragStateMachineTest {
+
+    private final List<String> mEvents = new ArrayList<>();
+
+    private final DragStateMachine.Callback mRecorder = new DragStateMachine.Callback() {
+        @Override
+        public void onStateChanged(DragState oldState, DragState newState) {
+            mEvents.add(oldState + ">" + newState);
+        }
+    };
+
+    @Test
+    public void transitionTo_settledStatesPassThroughScroll() {
+        DragStateMachine machine = new DragStateMachine(DragState.COLLAPSED,
+                EnumSet.allOf(DragState.class), mRecorder);
+        machine.transitionTo(DragState.EXPANDED);
+        assertEquals(Arrays.asList("COLLAPSED>SCROLL", "SCROLL>EXPANDED"), mEvents);
+        assertEquals(DragState.EXPANDED, machine.getState());
+    }
+
+    @Test
+    public void transitionTo_intermediateIsSettled() {
+        DragStateMachine machine = new DragStateMachine(DragState.COLLAPSED,
+                EnumSet.allOf(DragState.class), mRecorder);
+        machine.transitionTo(DragState.SCROLL);
+        machine.transitionTo(DragState.INTERMEDIATE);
+        machine.transitionTo(DragState.EXPANDED);
+        assertTrue(DragState.INTERMEDIATE.isSettled());
+        assertEquals(Arrays.asList("COLLAPSED>SCROLL", "SCROLL>INTERMEDIATE", "INTERMEDIATE>SCROLL",
+                "SCROLL>EXPANDED"), mEvents);
+    }
+
+    @Test
+    public void transitionTo_sameStateIsIgnored() {
+        DragStateMachine machine = new DragStateMachine(DragState.COLLAPSED,
+                EnumSet.allOf(DragState.class), mRecorder);
+        machine.transitionTo(DragState.SCROLL);
+        machine.transitionTo(DragState.SCROLL);
+        machine.transitionTo(DragState.COLLAPSED);
+        machine.transitionTo(DragState.COLLAPSED);
+        assertEquals(Arrays.asList("COLLAPSED>SCROLL", "SCROLL>COLLAPSED"), mEvents);
+    }
+
+    @Test
+    public void transitionTo_reentrantCallsAreQueued() {
+        final DragStateMachine[] holder = new DragStateMachine[1];
+        holder[0] = new DragStateMachine(DragState.COLLAPSED, EnumSet.allOf(DragState.class),
+                new DragStateMachine.Callback() {
+                    @Override
+                    public void onStateChanged(DragState oldState, DragState newState) {
+                        mEvents.add(oldState + ">" + newState);
+                        if (newState == DragState.EXPANDED) {
+                            // 监听器中切换状态，当前通知完成后才处理
+                            holder[0].transitionTo(DragState.EXIT);
+                            mEvents.add("after");
+                        }
+                    }
+                });
+        holder[0].transitionTo(DragState.EXPANDED);
+        assertEquals(Arrays.asList("COLLAPSED>SCROLL", "SCROLL>EXPANDED", "after",
+                "EXPANDED>SCROLL", "SCROLL>EXIT"), mEvents);
+        assertTrue(holder[0].is(DragState.EXIT));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void transitionTo_unsupportedStateThrows() {
+        DragStateMachine machine = new DragStateMachine(DragState.EXPANDED,
+                EnumSet.of(DragState.EXPANDED, DragState.EXIT, DragState.SCROLL), mRecorder);
+        machine.transitionTo(DragState.COLLAPSED);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void transitionTo_nullThrows() {
+        new DragStateMachine(DragState.COLLAPSED, EnumSet.allOf(DragState.class), mRecorder)
+                .transitionTo(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_requiresScroll() {
+        new DragStateMachine(DragState.EXPANDED, EnumSet.of(DragState.EXPANDED), mRecorder);
+    }
+}
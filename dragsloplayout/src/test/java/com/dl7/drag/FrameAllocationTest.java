@@ -0,0 +1,116 @@
+package com.dl7.drag;
+
+import com.dl7.drag.animate.KeyframeSpec;
+import com.dl7.drag.animate.KeyframeSpecs;
+
+import org.junit.Test;
+
+import java.util.EnumSet;
+
+/**
+ * Created by long on 2016/11/30.
+ * 每帧执行的、不依赖 Android 框架的代码不能分配内存，DragSlopLayout 本身的帧循环见 LayoutFrameAllocationTest
+ */
+public class FrameAllocationTest {
+
+    private static final int HEIGHT = 1920;
+    private static final int EXPANDED_TOP = 1320;
+    private static final int COLLAPSED_TOP = 1720;
+    private static final int FIX_HEIGHT = 200;
+
+    private final DragStateMachine mStateMachine = new DragStateMachine(DragState.COLLAPSED,
+            EnumSet.allOf(DragState.class), new DragStateMachine.Callback() {
+        @Override
+        public void onStateChanged(DragState oldState, DragState newState) {
+        }
+    });
+    private final DragMetrics mMetrics = DragMetrics.create();
+    private float mSum;
+
+    @Test
+    public void dragFrame_doesNotAllocate() {
+        final DragPositionDispatcher dispatcher = new DragPositionDispatcher(null);
+        dispatcher.addPositionListener(new DragSlopLayout.OnDragPositionListener() {
+            @Override
+            public void onDragPosition(int visibleHeight, float percent, boolean isUp) {
+                mSum += percent;
+            }
+        });
+        AllocationTracker.assertNoAllocation("drag", new AllocationTracker.Frame() {
+            @Override
+            public void doFrame(int frame) {
+                final int top = COLLAPSED_TOP - frame % (COLLAPSED_TOP - EXPANDED_TOP);
+                final int visibleHeight = HEIGHT - top;
+                mStateMachine.transitionTo(DragState.SCROLL);
+                final float percent = DragMath.dragPercent(top, COLLAPSED_TOP, EXPANDED_TOP);
+                mSum += DragMath.blurLevel(visibleHeight, HEIGHT) + DragMath.parallaxTranslation(visibleHeight, 0.5f);
+                dispatcher.dispatch(visibleHeight, percent, true);
+                mMetrics.increment(DragMetrics.COUNTER_TOUCH_INTERCEPTED);
+            }
+        });
+    }
+
+    @Test
+    public void settleFrame_doesNotAllocate() {
+        final FrameMonitor monitor = new FrameMonitor(FrameMonitor.DEFAULT_REFRESH_INTERVAL_NANOS);
+        AllocationTracker.assertNoAllocation("settle", new AllocationTracker.Frame() {
+            @Override
+            public void doFrame(int frame) {
+                // 每 30 帧完成一次滚动
+                final int step = frame % 30;
+                final int top = DragMath.flingFinalTop(EXPANDED_TOP, step * 40f, 0.3f, EXPANDED_TOP, COLLAPSED_TOP);
+                mSum += DragMath.dragPercent(top, COLLAPSED_TOP, EXPANDED_TOP);
+                monitor.recordFrame(frame * FrameMonitor.DEFAULT_REFRESH_INTERVAL_NANOS);
+                if (step == 29) {
+                    mStateMachine.transitionTo(frame % 60 == 29 ? DragState.EXPANDED : DragState.COLLAPSED);
+                    mMetrics.increment(DragMetrics.COUNTER_SETTLE);
+                    mMetrics.recordLatency(DragMetrics.HISTOGRAM_SETTLE_DURATION, 30 * 16000000L);
+                } else {
+                    mStateMachine.transitionTo(DragState.SCROLL);
+                }
+            }
+        });
+    }
+
+    @Test
+    public void pagerHideFrame_doesNotAllocate() {
+        AllocationTracker.assertNoAllocation("pagerHide", new AllocationTracker.Frame() {
+            @Override
+            public void doFrame(int frame) {
+                final float hidePercent = DragMath.pagerHidePercent((frame % 20) / 60f);
+                final int top = DragMath.pagerHideTop(COLLAPSED_TOP, hidePercent, COLLAPSED_TOP, FIX_HEIGHT);
+                mStateMachine.transitionTo(hidePercent >= 1 ? DragState.EXIT : DragState.SCROLL);
+                mSum += DragMath.dragPercent(top, COLLAPSED_TOP, EXPANDED_TOP);
+            }
+        });
+    }
+
+    @Test
+    public void animateFrame_doesNotAllocate() {
+        final KeyframeSpec[] specs = {KeyframeSpecs.SLIDE_BOTTOM_OUT, KeyframeSpecs.SLIDE_LEFT_OUT,
+                KeyframeSpecs.FADE_OUT, KeyframeSpecs.FLIP_X_OUT, KeyframeSpecs.FLIP_Y_OUT,
+                KeyframeSpecs.ZOOM_OUT, KeyframeSpecs.ZOOM_LEFT_OUT, KeyframeSpecs.ZOOM_RIGHT_OUT};
+        final float[] unitScale = {1, 1080, 600, 1080, HEIGHT};
+        final float[] values = new float[KeyframeSpec.PROPERTY_COUNT];
+        AllocationTracker.assertNoAllocation("animateFrame", new AllocationTracker.Frame() {
+            @Override
+            public void doFrame(int frame) {
+                specs[frame % specs.length].evaluateFrame((frame % 20) / 20f, unitScale, values);
+                mSum += values[KeyframeSpec.ALPHA];
+            }
+        });
+    }
+
+    @Test
+    public void stackBlur_reusesBuffer() {
+        final StackBlur blur = new StackBlur();
+        final int[] pixels = new int[64 * 48];
+        AllocationTracker.assertNoAllocation("stackBlur", new AllocationTracker.Frame() {
+            @Override
+            public void doFrame(int frame) {
+                pixels[frame % pixels.length] = frame;
+                blur.blur(pixels, 64, 48, 5);
+            }
+        });
+    }
+}
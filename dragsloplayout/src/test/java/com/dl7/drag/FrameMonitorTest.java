@@ -0,0 +1,53 @@
+package com.dl7.drag;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Created by long on 2016/11/29.
+ * 直接调用 recordFrame()，不经过 Choreographer
+ */
+public class FrameMonitorTest {
+
+    private static final long REFRESH = 16666667;
+
+    @Test
+    public void recordFrame_countsDroppedFramesIntoBuckets() {
+        FrameMonitor monitor = new FrameMonitor(REFRESH);
+        long time = 1000;
+        monitor.recordFrame(time);
+        // 正常、正常、掉 1 帧、掉 3 帧、掉 12 帧
+        final long[] intervals = {REFRESH, REFRESH + 2000000, REFRESH * 2, REFRESH * 4, REFRESH * 13};
+        for (long interval : intervals) {
+            time += interval;
+            monitor.recordFrame(time);
+        }
+        DragSession session = monitor.buildSession(DragState.EXPANDED);
+        assertEquals(5, session.getFrameCount());
+        assertEquals(3, session.getJankFrameCount());
+        assertEquals(16, session.getDroppedFrameCount());
+        assertEquals(REFRESH * 13, session.getMaxFrameIntervalNanos());
+        assertEquals(time - 1000, session.getDurationNanos());
+        assertArrayEquals(new int[]{2, 1, 0, 1, 0, 1}, session.getHistogram());
+        assertEquals(DragState.EXPANDED, session.getEndState());
+    }
+
+    @Test
+    public void recordFrame_slightlyLateFrameIsNotJank() {
+        FrameMonitor monitor = new FrameMonitor(REFRESH);
+        monitor.recordFrame(1);
+        monitor.recordFrame(1 + REFRESH * 14 / 10);
+        assertEquals(0, monitor.buildSession(DragState.COLLAPSED).getJankFrameCount());
+    }
+
+    @Test
+    public void buildSession_needsTwoFrames() {
+        FrameMonitor monitor = new FrameMonitor(REFRESH);
+        assertNull(monitor.buildSession(DragState.EXIT));
+        monitor.recordFrame(1);
+        assertNull(monitor.buildSession(DragState.EXIT));
+    }
+}
@@ -0,0 +1,157 @@
+package com.dl7.drag;
+
+import android.support.v4.view.PagerAdapter;
+import android.support.v4.view.ViewPager;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import com.dl7.drag.trace.GestureTrace;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created by long on 2016/11/29.
+ * 回放典型的拖拽和 ViewPager 滑动轨迹，检查回调频率和布局次数，防止性能回退
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class GestureReplayTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final int DRAG_HEIGHT = 600;
+    private static final int FIX_HEIGHT = 200;
+
+    private ReplayDragSlopLayout mDragLayout;
+    private GestureReplayer mReplayer;
+
+    @Before
+    public void setUp() {
+        mDragLayout = new ReplayDragSlopLayout(RuntimeEnvironment.application,
+                Robolectric.buildAttributeSet()
+                        .addAttribute(R.attr.fix_height, FIX_HEIGHT + "px")
+                        .build());
+        ViewPager viewPager = new ViewPager(RuntimeEnvironment.application);
+        viewPager.setAdapter(new PagerAdapter() {
+            @Override
+            public int getCount() {
+                return 5;
+            }
+
+            @Override
+            public boolean isViewFromObject(View view, Object object) {
+                return view == object;
+            }
+
+            @Override
+            public Object instantiateItem(ViewGroup container, int position) {
+                View view = new View(container.getContext());
+                container.addView(view);
+                return view;
+            }
+
+            @Override
+            public void destroyItem(ViewGroup container, int position, Object object) {
+                container.removeView((View) object);
+            }
+        });
+        mDragLayout.addView(viewPager, new FrameLayout.LayoutParams(
+                FrameLayout.LayoutParams.MATCH_PARENT, FrameLayout.LayoutParams.MATCH_PARENT));
+        mDragLayout.addView(new FrameLayout(RuntimeEnvironment.application),
+                new FrameLayout.LayoutParams(FrameLayout.LayoutParams.MATCH_PARENT, DRAG_HEIGHT));
+        mDragLayout.onFinishInflate();
+        mDragLayout.attachViewPager(viewPager);
+        mReplayer = new GestureReplayer(mDragLayout, WIDTH, HEIGHT);
+        mReplayer.traversal();
+    }
+
+    /**
+     * 从收缩状态向上拖拽到展开，每帧移动 20 像素
+     */
+    private static GestureTrace _dragUpTrace() {
+        final float x = WIDTH / 2;
+        float y = HEIGHT - FIX_HEIGHT / 2;
+        GestureTrace trace = new GestureTrace().addTouch(0, MotionEvent.ACTION_DOWN, x, y);
+        long time = 0;
+        for (int i = 0; i < 30; i++) {
+            time += GestureReplayer.FRAME_INTERVAL_MS;
+            y -= 20;
+            trace.addTouch(time, MotionEvent.ACTION_MOVE, x, y);
+        }
+        return trace.addTouch(time + GestureReplayer.FRAME_INTERVAL_MS, MotionEvent.ACTION_UP, x, y);
+    }
+
+    /**
+     * 向左滑动 ViewPager 到下一页，ViewPager 每帧回调两次 onPageScrolled
+     */
+    private static GestureTrace _pagerSwipeTrace() {
+        GestureTrace trace = new GestureTrace().addPageState(0, ViewPager.SCROLL_STATE_DRAGGING);
+        long time = 0;
+        for (int i = 1; i <= 20; i++) {
+            time += GestureReplayer.FRAME_INTERVAL_MS;
+            final float offset = i / 20f;
+            trace.addPageScrolled(time, 0, offset * 0.99f, (int) (offset * 0.99f * WIDTH));
+            trace.addPageScrolled(time, 0, offset, (int) (offset * WIDTH));
+            if (i == 5) {
+                trace.addPageState(time, ViewPager.SCROLL_STATE_SETTLING);
+            }
+        }
+        return trace.addPageScrolled(time, 1, 0, 0)
+                .addPageState(time, ViewPager.SCROLL_STATE_IDLE);
+    }
+
+    private static GestureTrace _roundTrip(GestureTrace trace) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        trace.writeTo(out);
+        return GestureTrace.readFrom(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    @Test
+    public void replayDragUp_expandsWithoutLayoutPasses() throws IOException {
+        final List<DragSession> sessions = new ArrayList<>();
+        mDragLayout.setOnDragSessionListener(new DragSlopLayout.OnDragSessionListener() {
+            @Override
+            public void onDragSession(DragSession session) {
+                sessions.add(session);
+            }
+        });
+        GestureReplayer.Report report = mReplayer.replay(_roundTrip(_dragUpTrace()));
+        assertEquals(DragState.EXPANDED, mDragLayout.getDragState());
+        assertTrue(report.toString(), report.positionCallbacks > 0);
+        // 按帧合并的监听器每帧最多回调一次
+        assertTrue(report.toString(), report.maxCoalescedCallbacksPerFrame <= 1);
+        assertTrue(report.toString(), report.coalescedCallbacks > 0);
+        // 拖拽通过移动位置完成，不需要重新布局
+        assertEquals(report.toString(), 0, report.layoutPasses);
+        // 手指拖拽和之后的回弹记为一次统计，停止运动后结束
+        assertEquals(1, sessions.size());
+        assertEquals(DragState.EXPANDED, sessions.get(0).getEndState());
+    }
+
+    @Test
+    public void replayPagerSwipe_hidesDragViewWithoutLayoutPasses() throws IOException {
+        GestureReplayer.Report report = mReplayer.replay(_roundTrip(_pagerSwipeTrace()));
+        assertTrue(report.toString(), report.positionCallbacks > 0);
+        // 一帧内的多次 onPageScrolled 合并为一次
+        assertTrue(report.toString(), report.maxPositionCallbacksPerFrame <= 1);
+        assertTrue(report.toString(), report.maxCoalescedCallbacksPerFrame <= 1);
+        assertEquals(report.toString(), 0, report.layoutPasses);
+    }
+}
@@ -0,0 +1,150 @@
+package com.dl7.drag;
+
+import android.os.SystemClock;
+import android.support.v4.view.ViewPager;
+import android.view.MotionEvent;
+import android.view.View;
+
+import com.dl7.drag.trace.GestureTrace;
+
+import org.robolectric.shadows.ShadowLooper;
+
+/**
+ * Created by long on 2016/11/29.
+ * 在 Robolectric 中回放 {@link GestureTrace}，用 Robolectric 的虚拟时钟按帧推进
+ * 每帧依次：分发这一帧之前的事件、计算滚动、执行主线程的消息和帧回调、有布局请求时重新测量布局
+ * ViewPager 的回调直接交给 DragSlopLayout 的联动监听器，不经过真实的 ViewPager
+ */
+final class GestureReplayer {
+
+    static final long FRAME_INTERVAL_MS = 16;
+    // 轨迹结束后继续推进的时间，等待惯性滚动和动画结束
+    private static final long SETTLE_TIME_MS = 1000;
+
+    private final ReplayDragSlopLayout mLayout;
+    private final int mWidth;
+    private final int mHeight;
+    // 当前帧的回调次数
+    private int mFramePositionCount;
+    private int mFrameCoalescedCount;
+
+    GestureReplayer(ReplayDragSlopLayout layout, int width, int height) {
+        mLayout = layout;
+        mWidth = width;
+        mHeight = height;
+        // 联动的回调由轨迹提供，断开真实 ViewPager 的回调
+        if (layout.getViewPagerListener() != null && layout.getChildAt(0) instanceof ViewPager) {
+            ((ViewPager) layout.getChildAt(0)).removeOnPageChangeListener(layout.getViewPagerListener());
+        }
+    }
+
+    /**
+     * 模拟一次 ViewRootImpl 的测量和布局
+     */
+    void traversal() {
+        mLayout.measure(View.MeasureSpec.makeMeasureSpec(mWidth, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(mHeight, View.MeasureSpec.EXACTLY));
+        mLayout.layout(0, 0, mWidth, mHeight);
+    }
+
+    Report replay(GestureTrace trace) {
+        final Report report = new Report();
+        DragSlopLayout.OnDragPositionListener positionListener = new DragSlopLayout.OnDragPositionListener() {
+            @Override
+            public void onDragPosition(int visibleHeight, float percent, boolean isUp) {
+                mFramePositionCount++;
+            }
+        };
+        DragSlopLayout.OnDragFrameListener frameListener = new DragSlopLayout.OnDragFrameListener() {
+            @Override
+            public void onDragFrame(int visibleHeight, float percent, boolean isUp, long frameTimeNanos) {
+                mFrameCoalescedCount++;
+            }
+        };
+        mLayout.addDragPositionListener(positionListener);
+        mLayout.addDragFrameListener(frameListener);
+        mLayout.resetCount();
+
+        final long startTime = SystemClock.uptimeMillis();
+        final long startAllocated = AllocationTracker.allocatedBytes();
+        long downTime = startTime;
+        int index = 0;
+        for (long frameTime = 0; frameTime <= trace.getDuration() + SETTLE_TIME_MS; frameTime += FRAME_INTERVAL_MS) {
+            mFramePositionCount = 0;
+            mFrameCoalescedCount = 0;
+            while (index < trace.size() && trace.getTime(index) <= frameTime) {
+                if (trace.getType(index) == GestureTrace.TYPE_TOUCH && trace.getInt(index) == MotionEvent.ACTION_DOWN) {
+                    downTime = startTime + trace.getTime(index);
+                }
+                _dispatch(trace, index, startTime, downTime);
+                index++;
+            }
+            mLayout.computeScroll();
+            // 推进虚拟时钟，执行这一帧的消息、动画和 Choreographer 回调
+            ShadowLooper.idleMainLooper(FRAME_INTERVAL_MS);
+            if (mLayout.isLayoutRequested()) {
+                traversal();
+            }
+            report.frames++;
+            report.positionCallbacks += mFramePositionCount;
+            report.coalescedCallbacks += mFrameCoalescedCount;
+            report.maxPositionCallbacksPerFrame = Math.max(report.maxPositionCallbacksPerFrame, mFramePositionCount);
+            report.maxCoalescedCallbacksPerFrame = Math.max(report.maxCoalescedCallbacksPerFrame, mFrameCoalescedCount);
+        }
+        report.allocatedBytes = startAllocated < 0 ? -1 : AllocationTracker.allocatedBytes() - startAllocated;
+        report.measurePasses = mLayout.measureCount;
+        report.layoutPasses = mLayout.layoutCount;
+        report.invalidations = mLayout.invalidateCount;
+
+        mLayout.removeDragPositionListener(positionListener);
+        mLayout.removeDragFrameListener(frameListener);
+        return report;
+    }
+
+    private void _dispatch(GestureTrace trace, int index, long startTime, long downTime) {
+        final long eventTime = startTime + trace.getTime(index);
+        switch (trace.getType(index)) {
+            case GestureTrace.TYPE_TOUCH:
+                MotionEvent event = MotionEvent.obtain(downTime, eventTime, trace.getInt(index),
+                        trace.getX(index), trace.getY(index), 0);
+                mLayout.dispatchTouchEvent(event);
+                event.recycle();
+                break;
+            case GestureTrace.TYPE_PAGE_SCROLLED:
+                if (mLayout.getViewPagerListener() != null) {
+                    mLayout.getViewPagerListener().onPageScrolled(trace.getInt(index), trace.getX(index),
+                            trace.getOffsetPixels(index));
+                }
+                break;
+            case GestureTrace.TYPE_PAGE_STATE:
+                if (mLayout.getViewPagerListener() != null) {
+                    mLayout.getViewPagerListener().onPageScrollStateChanged(trace.getInt(index));
+                }
+                break;
+        }
+    }
+
+    static final class Report {
+        int frames;
+        int positionCallbacks;
+        int maxPositionCallbacksPerFrame;
+        int coalescedCallbacks;
+        int maxCoalescedCallbacksPerFrame;
+        int measurePasses;
+        int layoutPasses;
+        int invalidations;
+        // 包含事件对象、消息和 Robolectric 影子类自身的分配，只适合和同一环境下的结果比较
+        long allocatedBytes;
+
+        @Override
+        public String toString() {
+            return "frames=" + frames
+                    + ", positionCallbacks=" + positionCallbacks + " (max " + maxPositionCallbacksPerFrame + "/frame)"
+                    + ", coalescedCallbacks=" + coalescedCallbacks + " (max " + maxCoalescedCallbacksPerFrame + "/frame)"
+                    + ", measurePasses=" + measurePasses
+                    + ", layoutPasses=" + layoutPasses
+                    + ", invalidations=" + invalidations
+                    + ", allocatedBytes=" + allocatedBytes;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.dl7.drag;
+
+import android.os.SystemClock;
+import android.support.v4.view.PagerAdapter;
+import android.support.v4.view.ViewPager;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created by long on 2016/11/30.
+ * 停止运动后空闲任务必须能执行，不能因为停在中间位置或联动回到原页面而一直推迟
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class IdleBusyTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final int DRAG_HEIGHT = 600;
+    private static final int FIX_HEIGHT = 200;
+    private static final long FRAME_INTERVAL_MS = 16;
+
+    private boolean mIsTaskRun;
+
+    private DragSlopLayout _createLayout(String mode) {
+        DragSlopLayout layout = new DragSlopLayout(RuntimeEnvironment.application,
+                Robolectric.buildAttributeSet()
+                        .addAttribute(R.attr.fix_height, FIX_HEIGHT + "px")
+                        .addAttribute(R.attr.mode, mode)
+                        .build());
+        ViewPager viewPager = new ViewPager(RuntimeEnvironment.application);
+        viewPager.setAdapter(new PagerAdapter() {
+            @Override
+            public int getCount() {
+                return 3;
+            }
+
+            @Override
+            public boolean isViewFromObject(View view, Object object) {
+                return view == object;
+            }
+
+            @Override
+            public Object instantiateItem(ViewGroup container, int position) {
+                View view = new View(container.getContext());
+                container.addView(view);
+                return view;
+            }
+
+            @Override
+            public void destroyItem(ViewGroup container, int position, Object object) {
+                container.removeView((View) object);
+            }
+        });
+        layout.addView(viewPager, new FrameLayout.LayoutParams(
+                FrameLayout.LayoutParams.MATCH_PARENT, FrameLayout.LayoutParams.MATCH_PARENT));
+        layout.addView(new FrameLayout(RuntimeEnvironment.application),
+                new FrameLayout.LayoutParams(FrameLayout.LayoutParams.MATCH_PARENT, DRAG_HEIGHT));
+        layout.onFinishInflate();
+        layout.attachViewPager(viewPager);
+        _traversal(layout);
+        return layout;
+    }
+
+    private static void _traversal(DragSlopLayout layout) {
+        layout.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        layout.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    /**
+     * 推进几帧，执行滚动和帧回调，有布局请求时重新布局
+     */
+    private static void _advanceFrames(DragSlopLayout layout, int frames) {
+        for (int i = 0; i < frames; i++) {
+            layout.computeScroll();
+            ShadowLooper.idleMainLooper(FRAME_INTERVAL_MS);
+            if (layout.isLayoutRequested()) {
+                _traversal(layout);
+            }
+        }
+    }
+
+    /**
+     * 提交一个空闲任务并模拟一次主线程空闲
+     */
+    private boolean _runIdleTask(DragSlopLayout layout) {
+        mIsTaskRun = false;
+        IdleScheduler scheduler = layout.getIdleScheduler();
+        IdleScheduler.Task task = scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                mIsTaskRun = true;
+            }
+        });
+        scheduler.queueIdle();
+        task.cancel();
+        return mIsTaskRun;
+    }
+
+    private static void _touch(DragSlopLayout layout, long downTime, long eventTime, int action, float y) {
+        MotionEvent event = MotionEvent.obtain(downTime, eventTime, action, WIDTH / 2, y, 0);
+        layout.dispatchTouchEvent(event);
+        event.recycle();
+    }
+
+    @Test
+    public void dragOutsideRestingBetweenAnchors_isNotBusy() {
+        final DragSlopLayout layout = _createLayout("drag_outside");
+        final long downTime = SystemClock.uptimeMillis();
+        long eventTime = downTime;
+        float y = HEIGHT / 2;
+        _touch(layout, downTime, eventTime, MotionEvent.ACTION_DOWN, y);
+        for (int i = 0; i < 10; i++) {
+            eventTime += FRAME_INTERVAL_MS;
+            y -= 20;
+            _touch(layout, downTime, eventTime, MotionEvent.ACTION_MOVE, y);
+        }
+        // 拖拽期间推迟空闲任务
+        assertEquals(DragState.SCROLL, layout.getDragState());
+        assertFalse(_runIdleTask(layout));
+        // 停住再松手，速度为 0，停在展开和收缩之间
+        for (int i = 0; i < 10; i++) {
+            eventTime += FRAME_INTERVAL_MS;
+            _touch(layout, downTime, eventTime, MotionEvent.ACTION_MOVE, y);
+        }
+        _touch(layout, downTime, eventTime, MotionEvent.ACTION_UP, y);
+        _advanceFrames(layout, 60);
+
+        assertEquals(DragState.INTERMEDIATE, layout.getDragState());
+        assertTrue(_runIdleTask(layout));
+    }
+
+    @Test
+    public void pagerSwipeBackToSamePage_isNotBusy() {
+        final DragSlopLayout layout = _createLayout("drag");
+        final ViewPager.OnPageChangeListener listener = layout.getViewPagerListener();
+        listener.onPageScrollStateChanged(ViewPager.SCROLL_STATE_DRAGGING);
+        for (int i = 1; i <= 10; i++) {
+            final float offset = i / 50f;
+            listener.onPageScrolled(0, offset, (int) (offset * WIDTH));
+            _advanceFrames(layout, 1);
+        }
+        // 联动期间推迟空闲任务
+        assertFalse(_runIdleTask(layout));
+        // 松手后滑回原来的页面
+        listener.onPageScrollStateChanged(ViewPager.SCROLL_STATE_SETTLING);
+        for (int i = 9; i >= 0; i--) {
+            final float offset = i / 50f;
+            listener.onPageScrolled(0, offset, (int) (offset * WIDTH));
+            _advanceFrames(layout, 1);
+        }
+        listener.onPageScrollStateChanged(ViewPager.SCROLL_STATE_IDLE);
+        _advanceFrames(layout, 10);
+
+        assertEquals(DragState.COLLAPSED, layout.getDragState());
+        assertTrue(_runIdleTask(layout));
+    }
+}
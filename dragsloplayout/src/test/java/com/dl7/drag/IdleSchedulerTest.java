@@ -0,0 +1,98 @@
+package com.dl7.drag;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created by long on 2016/11/30.
+ * 直接调用 queueIdle() 模拟主线程空闲
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class IdleSchedulerTest {
+
+    private final List<String> mRecords = new ArrayList<>();
+    private boolean mIsBusy;
+    private IdleScheduler mScheduler;
+
+    @Before
+    public void setUp() {
+        mScheduler = new IdleScheduler(new IdleScheduler.BusyCondition() {
+            @Override
+            public boolean isBusy() {
+                return mIsBusy;
+            }
+        });
+    }
+
+    private Runnable _record(final String name) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                mRecords.add(name);
+            }
+        };
+    }
+
+    @Test
+    public void queueIdle_runsOneTaskPerIdle() {
+        mScheduler.schedule(_record("a"));
+        mScheduler.schedule(_record("b"));
+
+        assertTrue(mScheduler.queueIdle());
+        assertEquals(1, mRecords.size());
+        assertFalse(mScheduler.queueIdle());
+        assertEquals("a", mRecords.get(0));
+        assertEquals("b", mRecords.get(1));
+    }
+
+    @Test
+    public void queueIdle_waitsWhileBusy() {
+        IdleScheduler.Task task = mScheduler.schedule(_record("a"));
+        mIsBusy = true;
+
+        assertTrue(mScheduler.queueIdle());
+        assertTrue(mRecords.isEmpty());
+        assertTrue(task.isPending());
+
+        mIsBusy = false;
+        assertFalse(mScheduler.queueIdle());
+        assertEquals(1, mRecords.size());
+        assertFalse(task.isPending());
+    }
+
+    @Test
+    public void cancel_skipsTask() {
+        IdleScheduler.Task task = mScheduler.schedule(_record("a"));
+        mScheduler.schedule(_record("b"));
+        task.cancel();
+
+        assertEquals(1, mScheduler.getPendingCount());
+        assertFalse(mScheduler.queueIdle());
+        assertEquals(1, mRecords.size());
+        assertEquals("b", mRecords.get(0));
+    }
+
+    @Test
+    public void cancelAll_dropsEveryTask() {
+        IdleScheduler.Task first = mScheduler.schedule(_record("a"));
+        IdleScheduler.Task second = mScheduler.schedule(_record("b"));
+        mScheduler.cancelAll();
+
+        assertFalse(first.isPending());
+        assertFalse(second.isPending());
+        assertEquals(0, mScheduler.getPendingCount());
+        assertFalse(mScheduler.queueIdle());
+        assertTrue(mRecords.isEmpty());
+    }
+}
@@ -0,0 +1,164 @@
+package com.dl7.drag;
+
+import android.os.SystemClock;
+import android.view.Choreographer;
+import android.support.v4.view.PagerAdapter;
+import android.support.v4.view.ViewPager;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+/**
+ * Created by long on 2016/11/30.
+ * DragSlopLayout 的拖拽、自动滚动、ViewPager 联动隐藏和联动动画帧在稳定后每帧都不能分配内存
+ * 直接调用每帧的入口，触摸事件复用同一个 MotionEvent，时间通过 Robolectric 的虚拟时钟推进，测量代码本身不分配内存
+ * ViewPager 联动经过 Choreographer 按帧应用，和只推进一帧的基准比较，扣除 Robolectric 调度器自身的分配
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class LayoutFrameAllocationTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final int DRAG_HEIGHT = 600;
+    private static final int FIX_HEIGHT = 200;
+    private static final long FRAME_INTERVAL_MS = 16;
+
+    private DragSlopLayout _createLayout(String mode) {
+        DragSlopLayout layout = new DragSlopLayout(RuntimeEnvironment.application,
+                Robolectric.buildAttributeSet()
+                        .addAttribute(R.attr.fix_height, FIX_HEIGHT + "px")
+                        .addAttribute(R.attr.mode, mode)
+                        .build());
+        ViewPager viewPager = new ViewPager(RuntimeEnvironment.application);
+        viewPager.setAdapter(new PagerAdapter() {
+            @Override
+            public int getCount() {
+                return 3;
+            }
+
+            @Override
+            public boolean isViewFromObject(View view, Object object) {
+                return view == object;
+            }
+
+            @Override
+            public Object instantiateItem(ViewGroup container, int position) {
+                View view = new View(container.getContext());
+                container.addView(view);
+                return view;
+            }
+
+            @Override
+            public void destroyItem(ViewGroup container, int position, Object object) {
+                container.removeView((View) object);
+            }
+        });
+        layout.addView(viewPager, new FrameLayout.LayoutParams(
+                FrameLayout.LayoutParams.MATCH_PARENT, FrameLayout.LayoutParams.MATCH_PARENT));
+        layout.addView(new FrameLayout(RuntimeEnvironment.application),
+                new FrameLayout.LayoutParams(FrameLayout.LayoutParams.MATCH_PARENT, DRAG_HEIGHT));
+        layout.onFinishInflate();
+        layout.attachViewPager(viewPager);
+        layout.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        layout.layout(0, 0, WIDTH, HEIGHT);
+        return layout;
+    }
+
+    @Test
+    public void dragFrame_doesNotAllocate() {
+        final DragSlopLayout layout = _createLayout("drag");
+        final float x = WIDTH / 2;
+        final float startY = HEIGHT - FIX_HEIGHT / 2;
+        final long downTime = SystemClock.uptimeMillis();
+        final MotionEvent event = MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, x, startY, 0);
+        layout.dispatchTouchEvent(event);
+        event.setAction(MotionEvent.ACTION_MOVE);
+        AllocationTracker.assertNoAllocation("drag", new AllocationTracker.Frame() {
+            @Override
+            public void doFrame(int frame) {
+                // 在收缩和展开之间来回拖拽，每帧移动 10 像素
+                final int step = frame % 80;
+                final float dy = (step < 40 ? step : 80 - step) * 10;
+                event.setLocation(x, startY - dy);
+                layout.dispatchTouchEvent(event);
+            }
+        });
+        event.setAction(MotionEvent.ACTION_UP);
+        layout.dispatchTouchEvent(event);
+        event.recycle();
+    }
+
+    @Test
+    public void settleFrame_doesNotAllocate() {
+        final DragSlopLayout layout = _createLayout("drag");
+        AllocationTracker.assertNoAllocation("settle", new AllocationTracker.Frame() {
+            @Override
+            public void doFrame(int frame) {
+                // 每 40 帧交替滚出和滚进屏幕，每次滚动 320ms
+                if (frame % 40 == 0) {
+                    if (frame % 80 == 0) {
+                        layout.scrollOutScreen(320);
+                    } else {
+                        layout.scrollInScreen(320);
+                    }
+                }
+                SystemClock.setCurrentTimeMillis(SystemClock.uptimeMillis() + FRAME_INTERVAL_MS);
+                layout.computeScroll();
+            }
+        });
+    }
+
+    @Test
+    public void pagerHideFrame_doesNotAllocate() {
+        _assertPagerFramesDoNotAllocate("pagerHide", _createLayout("drag"));
+    }
+
+    @Test
+    public void animateFrame_doesNotAllocate() {
+        _assertPagerFramesDoNotAllocate("animateFrame", _createLayout("animate"));
+    }
+
+    /**
+     * ViewPager 在前 1/3 页内来回滑动，DragView 随之隐藏和显示
+     */
+    private void _assertPagerFramesDoNotAllocate(String name, final DragSlopLayout layout) {
+        final ViewPager.OnPageChangeListener listener = layout.getViewPagerListener();
+        listener.onPageScrollStateChanged(ViewPager.SCROLL_STATE_DRAGGING);
+        // 基准帧：提交一个空的帧回调并推进一帧，只有调度器自身的开销
+        final Choreographer.FrameCallback emptyCallback = new Choreographer.FrameCallback() {
+            @Override
+            public void doFrame(long frameTimeNanos) {
+            }
+        };
+        final AllocationTracker.Frame baseline = new AllocationTracker.Frame() {
+            @Override
+            public void doFrame(int frame) {
+                Choreographer.getInstance().postFrameCallback(emptyCallback);
+                ShadowLooper.idleMainLooper(FRAME_INTERVAL_MS);
+            }
+        };
+        AllocationTracker.assertNoAllocationBeyond(name, new AllocationTracker.Frame() {
+            @Override
+            public void doFrame(int frame) {
+                final int step = frame % 60;
+                final float offset = (step < 30 ? step : 60 - step) / 100f;
+                // 一帧两次回调，合并后在下一帧的 Choreographer 回调中应用
+                listener.onPageScrolled(0, offset * 0.99f, (int) (offset * 0.99f * WIDTH));
+                listener.onPageScrolled(0, offset, (int) (offset * WIDTH));
+                ShadowLooper.idleMainLooper(FRAME_INTERVAL_MS);
+            }
+        }, baseline);
+        listener.onPageScrollStateChanged(ViewPager.SCROLL_STATE_IDLE);
+    }
+}
@@ -0,0 +1,177 @@
+package com.dl7.drag;
+
+import android.os.SystemClock;
+import android.support.v4.view.PagerAdapter;
+import android.support.v4.view.ViewPager;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewStub;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created by long on 2016/11/30.
+ * 第一次按下时才加载 DragView，这一次拖拽不能丢失
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class LazyDragViewTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final int DRAG_HEIGHT = 600;
+    private static final int FIX_HEIGHT = 200;
+    private static final long FRAME_INTERVAL_MS = 16;
+
+    private DragSlopLayout mDragLayout;
+    private ViewPager mViewPager;
+    private View mInflatedView;
+
+    @Before
+    public void setUp() {
+        mDragLayout = new DragSlopLayout(RuntimeEnvironment.application,
+                Robolectric.buildAttributeSet()
+                        .addAttribute(R.attr.fix_height, FIX_HEIGHT + "px")
+                        .build());
+        mViewPager = new ViewPager(RuntimeEnvironment.application);
+        mViewPager.setAdapter(new PagerAdapter() {
+            @Override
+            public int getCount() {
+                return 3;
+            }
+
+            @Override
+            public boolean isViewFromObject(View view, Object object) {
+                return view == object;
+            }
+
+            @Override
+            public Object instantiateItem(ViewGroup container, int position) {
+                View view = new View(container.getContext());
+                container.addView(view);
+                return view;
+            }
+
+            @Override
+            public void destroyItem(ViewGroup container, int position, Object object) {
+                container.removeView((View) object);
+            }
+        });
+        mDragLayout.addView(mViewPager, new FrameLayout.LayoutParams(
+                FrameLayout.LayoutParams.MATCH_PARENT, FrameLayout.LayoutParams.MATCH_PARENT));
+        mDragLayout.addView(new ViewStub(RuntimeEnvironment.application),
+                new FrameLayout.LayoutParams(FrameLayout.LayoutParams.MATCH_PARENT, DRAG_HEIGHT));
+        mDragLayout.onFinishInflate();
+        mDragLayout.setDragViewFactory(new DragSlopLayout.DragViewFactory() {
+            @Override
+            public View onCreateDragView(DragSlopLayout parent) {
+                mInflatedView = new FrameLayout(parent.getContext());
+                return mInflatedView;
+            }
+        });
+        _traversal();
+    }
+
+    private void _traversal() {
+        mDragLayout.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        mDragLayout.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    /**
+     * 推进几帧，执行滚动和帧回调，有布局请求时重新布局
+     */
+    private void _advanceFrames(int frames) {
+        for (int i = 0; i < frames; i++) {
+            mDragLayout.computeScroll();
+            ShadowLooper.idleMainLooper(FRAME_INTERVAL_MS);
+            if (mDragLayout.isLayoutRequested()) {
+                _traversal();
+            }
+        }
+    }
+
+    private void _touch(long downTime, int action, float y) {
+        MotionEvent event = MotionEvent.obtain(downTime, SystemClock.uptimeMillis(), action, WIDTH / 2, y, 0);
+        mDragLayout.dispatchTouchEvent(event);
+        event.recycle();
+    }
+
+    @Test
+    public void firstTouch_inflatesAndDragsWithoutLayoutPass() {
+        assertFalse(mDragLayout.isDragViewInflated());
+        final long downTime = SystemClock.uptimeMillis();
+        float y = HEIGHT - FIX_HEIGHT / 2;
+        _touch(downTime, MotionEvent.ACTION_DOWN, y);
+
+        // 按下时加载的 DragView 立即完成布局，位于收缩位置
+        assertTrue(mDragLayout.isDragViewInflated());
+        assertEquals(DRAG_HEIGHT, mInflatedView.getHeight());
+        assertEquals(HEIGHT - FIX_HEIGHT, mInflatedView.getTop());
+
+        // 中间不经过布局，同一次手势继续拖拽
+        for (int i = 0; i < 10; i++) {
+            y -= 20;
+            _touch(downTime, MotionEvent.ACTION_MOVE, y);
+        }
+        assertTrue(mInflatedView.getTop() < HEIGHT - FIX_HEIGHT);
+        // 手指拖拽期间处于 SCROLL
+        assertEquals(DragState.SCROLL, mDragLayout.getDragState());
+        _touch(downTime, MotionEvent.ACTION_UP, y);
+    }
+
+    @Test
+    public void pagerSwipeBeforeInflate_placeholderShowsAndDrags() {
+        mDragLayout.attachViewPager(mViewPager);
+        final View placeholder = mDragLayout.getChildAt(1);
+        final ViewPager.OnPageChangeListener listener = mDragLayout.getViewPagerListener();
+        // 翻到下一页，占位的 ViewStub 随联动完全隐藏
+        listener.onPageScrollStateChanged(ViewPager.SCROLL_STATE_DRAGGING);
+        for (int i = 1; i <= 9; i++) {
+            final float offset = i / 10f;
+            listener.onPageScrolled(0, offset, (int) (offset * WIDTH));
+            _advanceFrames(1);
+        }
+        listener.onPageScrollStateChanged(ViewPager.SCROLL_STATE_SETTLING);
+        listener.onPageScrolled(1, 0, 0);
+        _advanceFrames(1);
+        assertEquals(DragState.EXIT, mDragLayout.getDragState());
+        assertEquals(HEIGHT, placeholder.getTop());
+
+        // 停止后等自动显示的延迟，再模拟主线程空闲
+        listener.onPageScrollStateChanged(ViewPager.SCROLL_STATE_IDLE);
+        ShadowLooper.idleMainLooper(mDragLayout.getAutoAnimateDelay());
+        mDragLayout.getIdleScheduler().queueIdle();
+        _advanceFrames(1);
+
+        // 占位的 ViewStub 回到收缩位置并离开 EXIT
+        assertFalse(mDragLayout.isDragViewInflated());
+        assertEquals(DragState.COLLAPSED, mDragLayout.getDragState());
+        assertEquals(HEIGHT - FIX_HEIGHT, placeholder.getTop());
+
+        // 仍然可以按下加载并拖拽
+        final long downTime = SystemClock.uptimeMillis();
+        float y = HEIGHT - FIX_HEIGHT / 2;
+        _touch(downTime, MotionEvent.ACTION_DOWN, y);
+        assertTrue(mDragLayout.isDragViewInflated());
+        for (int i = 0; i < 10; i++) {
+            y -= 20;
+            _touch(downTime, MotionEvent.ACTION_MOVE, y);
+        }
+        assertTrue(mInflatedView.getTop() < HEIGHT - FIX_HEIGHT);
+        _touch(downTime, MotionEvent.ACTION_UP, y);
+    }
+}
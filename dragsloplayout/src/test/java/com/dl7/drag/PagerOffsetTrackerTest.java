@@ -0,0 +1,40 @@
+package com.dl7.drag;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Created by long on 2016/11/30.
+ */
+public class PagerOffsetTrackerTest {
+
+    private final PagerOffsetTracker mTracker = new PagerOffsetTracker();
+
+    @Test
+    public void onPageScrolled_idleIsIgnored() {
+        assertEquals(PagerOffsetTracker.NO_PERCENT, mTracker.onPageScrolled(0.3f), 0);
+    }
+
+    @Test
+    public void onPageScrolled_nextPageUsesOffset() {
+        mTracker.onPageScrollStateChanged(PagerDriver.SCROLL_STATE_DRAGGING);
+        assertEquals(0.1f, mTracker.onPageScrolled(0.1f), 0);
+        mTracker.onPageScrollStateChanged(PagerDriver.SCROLL_STATE_SETTLING);
+        assertEquals(0.9f, mTracker.onPageScrolled(0.9f), 0);
+        // 翻到下一页时 offset 回到 0
+        assertEquals(1f, mTracker.onPageScrolled(0), 0);
+    }
+
+    @Test
+    public void onPageScrolled_previousPageUsesReversedOffset() {
+        mTracker.onPageScrollStateChanged(PagerDriver.SCROLL_STATE_DRAGGING);
+        // 向前翻页时 position 减 1，offset 从 0 跳到接近 1
+        assertEquals(0.05f, mTracker.onPageScrolled(0.95f), 1e-6f);
+        assertEquals(0.2f, mTracker.onPageScrolled(0.8f), 1e-6f);
+        mTracker.onPageScrollStateChanged(PagerDriver.SCROLL_STATE_IDLE);
+        // 空闲后恢复默认方向
+        mTracker.onPageScrollStateChanged(PagerDriver.SCROLL_STATE_DRAGGING);
+        assertEquals(0.1f, mTracker.onPageScrolled(0.1f), 0);
+    }
+}
@@ -0,0 +1,49 @@
+package com.dl7.drag;
+
+import android.content.Context;
+import android.util.AttributeSet;
+
+/**
+ * Created by long on 2016/11/29.
+ * 统计测量、布局和重绘请求次数的 DragSlopLayout，用于手势回放
+ */
+class ReplayDragSlopLayout extends DragSlopLayout {
+
+    int measureCount;
+    int layoutCount;
+    int invalidateCount;
+
+    ReplayDragSlopLayout(Context context, AttributeSet attrs) {
+        super(context, attrs);
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        measureCount++;
+        super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        layoutCount++;
+        super.onLayout(changed, l, t, r, b);
+    }
+
+    @Override
+    public void invalidate() {
+        invalidateCount++;
+        super.invalidate();
+    }
+
+    @Override
+    public void postInvalidateOnAnimation() {
+        invalidateCount++;
+        super.postInvalidateOnAnimation();
+    }
+
+    void resetCount() {
+        measureCount = 0;
+        layoutCount = 0;
+        invalidateCount = 0;
+    }
+}
@@ -0,0 +1,97 @@
+package com.dl7.drag;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Created by long on 2016/11/30.
+ */
+public class StackBlurTest {
+
+    @Test
+    public void blur_keepsUniformImage() {
+        int[] pixels = new int[16 * 9];
+        Arrays.fill(pixels, 0x80336699);
+        new StackBlur().blur(pixels, 16, 9, 5);
+        for (int pixel : pixels) {
+            assertEquals(0x80336699, pixel);
+        }
+    }
+
+    @Test
+    public void blur_matchesTriangleKernel() {
+        final int width = 23;
+        final int height = 17;
+        final int radius = 4;
+        Random random = new Random(7);
+        int[] pixels = new int[width * height];
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = random.nextInt();
+        }
+        int[] expected = _naiveBlur(pixels, width, height, radius);
+        StackBlur blur = new StackBlur();
+        blur.blur(pixels, width, height, radius);
+        for (int i = 0; i < pixels.length; i++) {
+            for (int shift = 0; shift < 32; shift += 8) {
+                final int actual = (pixels[i] >>> shift) & 0xFF;
+                final int target = (expected[i] >>> shift) & 0xFF;
+                // 乘法代替除法每次最多进 1，横向和纵向两次
+                assertTrue("pixel " + i + " channel " + shift, actual >= target && actual - target <= 2);
+            }
+        }
+    }
+
+    @Test
+    public void blur_rejectsInvalidRadius() {
+        try {
+            new StackBlur().blur(new int[4], 2, 2, StackBlur.MAX_RADIUS + 1);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    /**
+     * 直接按三角形权重先横向再纵向求和，每个通道向下取整
+     */
+    private static int[] _naiveBlur(int[] pixels, int width, int height, int radius) {
+        final int weightSum = (radius + 1) * (radius + 1);
+        int[] horizontal = new int[pixels.length];
+        int[] result = new int[pixels.length];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int value = 0;
+                for (int shift = 0; shift < 32; shift += 8) {
+                    int sum = 0;
+                    for (int i = -radius; i <= radius; i++) {
+                        final int p = pixels[y * width + Math.min(Math.max(x + i, 0), width - 1)];
+                        sum += ((p >>> shift) & 0xFF) * (radius + 1 - Math.abs(i));
+                    }
+                    value |= (sum / weightSum) << shift;
+                }
+                horizontal[y * width + x] = value;
+            }
+        }
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int value = 0;
+                for (int shift = 0; shift < 32; shift += 8) {
+                    int sum = 0;
+                    for (int i = -radius; i <= radius; i++) {
+                        final int p = horizontal[Math.min(Math.max(y + i, 0), height - 1) * width + x];
+                        sum += ((p >>> shift) & 0xFF) * (radius + 1 - Math.abs(i));
+                    }
+                    value |= (sum / weightSum) << shift;
+                }
+                result[y * width + x] = value;
+            }
+        }
+        return result;
+    }
+}
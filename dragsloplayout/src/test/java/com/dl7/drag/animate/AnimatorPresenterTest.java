@@ -0,0 +1,53 @@
+package com.dl7.drag.animate;
+
+import com.dl7.drag.DragSlopLayout;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Created by long on 2016/11/30.
+ */
+public class AnimatorPresenterTest {
+
+    private static final AnimatorSpec SLIDE_TOP = AnimatorSpecLoader.parse("{"
+            + "\"duration\": 300,"
+            + "\"startDelay\": 50,"
+            + "\"interpolator\": \"decelerate\","
+            + "\"in\": [], \"out\": []}");
+
+    @Test
+    public void specOverrides_onlyApplyWhileSpecIsActive() {
+        AnimatorPresenter presenter = new AnimatorPresenter();
+        presenter.setDuration(500);
+        presenter.setStartDelay(10);
+        final Object interpolator = presenter.getInterpolator();
+
+        presenter.setAnimatorSpec(SLIDE_TOP);
+        assertEquals(300, presenter.getDuration());
+        assertEquals(50, presenter.getStartDelay());
+        assertNotSame(interpolator, presenter.getInterpolator());
+
+        // 切换回内置动画后恢复原来的设置
+        presenter.setAnimatorMode(DragSlopLayout.FADE);
+        assertEquals(500, presenter.getDuration());
+        assertEquals(10, presenter.getStartDelay());
+        assertSame(interpolator, presenter.getInterpolator());
+    }
+
+    @Test
+    public void setter_replacesSpecOverride() {
+        AnimatorPresenter presenter = new AnimatorPresenter();
+        presenter.setAnimatorSpec(SLIDE_TOP);
+        presenter.setDuration(200);
+        assertEquals(200, presenter.getDuration());
+        assertEquals(50, presenter.getStartDelay());
+
+        presenter.setAnimatorMode(DragSlopLayout.FADE);
+        assertEquals(200, presenter.getDuration());
+        assertEquals(0, presenter.getStartDelay());
+    }
+}
@@ -0,0 +1,64 @@
+package com.dl7.drag.animate;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Created by long on 2016/11/27.
+ */
+public class AnimatorSpecLoaderTest {
+
+    private static final float DELTA = 1e-4f;
+
+    private static final String SLIDE_TOP = "{"
+            + "\"duration\": 300,"
+            + "\"interpolator\": \"decelerate\","
+            + "\"in\": ["
+            + "  {\"property\": \"alpha\", \"values\": [0, 1]},"
+            + "  {\"property\": \"translationY\", \"unit\": \"targetHeight\", \"values\": [-1, 0]}"
+            + "],"
+            + "\"out\": ["
+            + "  {\"property\": \"alpha\", \"values\": [1, 0]},"
+            + "  {\"property\": \"translationY\", \"unit\": \"targetHeight\", \"values\": [0, -1]}"
+            + "]}";
+
+    @Test
+    public void parse_readsKeyframesAndSettings() {
+        AnimatorSpec spec = AnimatorSpecLoader.parse(SLIDE_TOP);
+        assertEquals(300, spec.getDuration());
+        assertEquals(-1, spec.getStartDelay());
+        assertEquals(AnimatorSpec.DECELERATE, spec.getInterpolatorName());
+
+        KeyframeSpec out = spec.getOutSpec();
+        assertEquals(2, out.getTrackCount());
+        assertEquals(KeyframeSpec.TRANSLATION_Y, out.getProperty(1));
+        assertEquals(KeyframeSpec.UNIT_TARGET_HEIGHT, out.getUnit(1));
+        float[] unitScale = {1, 0, 200, 0, 0};
+        assertEquals(-100, out.evaluate(1, 0.5f, unitScale), DELTA);
+    }
+
+    @Test
+    public void parse_optionalSettings() {
+        AnimatorSpec spec = AnimatorSpecLoader.parse("{\"in\": [], \"out\": []}");
+        assertEquals(-1, spec.getDuration());
+        assertNull(spec.getInterpolatorName());
+        assertNull(spec.getInterpolator());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parse_rejectsUnknownProperty() {
+        AnimatorSpecLoader.parse("{\"in\": [{\"property\": \"width\", \"values\": [0, 1]}], \"out\": []}");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parse_rejectsUnknownInterpolator() {
+        AnimatorSpecLoader.parse("{\"interpolator\": \"spring\", \"in\": [], \"out\": []}");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parse_rejectsMalformedJson() {
+        AnimatorSpecLoader.parse("{\"in\": [");
+    }
+}
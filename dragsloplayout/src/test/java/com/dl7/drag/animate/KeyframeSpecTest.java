@@ -0,0 +1,79 @@
+package com.dl7.drag.animate;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Created by long on 2016/11/25.
+ */
+public class KeyframeSpecTest {
+
+    private static final float DELTA = 1e-4f;
+    private static final float PARENT_WIDTH = 1080;
+    private static final float TARGET_HEIGHT = 300;
+
+    private final float[] mUnitScale = {1, PARENT_WIDTH, TARGET_HEIGHT, PARENT_WIDTH, 1920};
+    private final float[] mFrame = new float[KeyframeSpec.PROPERTY_COUNT];
+
+    @Test
+    public void evaluate_hitsKeyframes() {
+        KeyframeSpec spec = KeyframeSpecs.FLIP_X_IN;
+        assertEquals(90, spec.evaluate(0, 0, mUnitScale), DELTA);
+        assertEquals(-15, spec.evaluate(0, 1 / 3f, mUnitScale), DELTA);
+        assertEquals(15, spec.evaluate(0, 2 / 3f, mUnitScale), DELTA);
+        assertEquals(0, spec.evaluate(0, 1, mUnitScale), DELTA);
+        assertEquals(37.5f, spec.evaluate(0, 1 / 6f, mUnitScale), DELTA);
+    }
+
+    @Test
+    public void evaluate_extrapolatesOutsideRange() {
+        KeyframeSpec spec = KeyframeSpecs.FADE_OUT;
+        assertEquals(1.1f, spec.evaluate(0, -0.1f, mUnitScale), DELTA);
+        assertEquals(-0.1f, spec.evaluate(0, 1.1f, mUnitScale), DELTA);
+    }
+
+    @Test
+    public void evaluateFrame_fillsDefaults() {
+        KeyframeSpecs.SLIDE_BOTTOM_OUT.evaluateFrame(0.5f, mUnitScale, mFrame);
+        assertEquals(0.5f, mFrame[KeyframeSpec.ALPHA], DELTA);
+        assertEquals(TARGET_HEIGHT / 2, mFrame[KeyframeSpec.TRANSLATION_Y], DELTA);
+        assertEquals(0, mFrame[KeyframeSpec.TRANSLATION_X], DELTA);
+        assertEquals(1, mFrame[KeyframeSpec.SCALE_X], DELTA);
+        assertEquals(1, mFrame[KeyframeSpec.SCALE_Y], DELTA);
+    }
+
+    @Test
+    public void zoomLeftOut_matchesTwoPhasePagerCurve() {
+        for (int i = 0; i <= 100; i++) {
+            final float percent = i / 100f;
+            KeyframeSpecs.ZOOM_LEFT_OUT.evaluateFrame(percent, mUnitScale, mFrame);
+            // ViewPager 联动时原先的两段曲线
+            final float alpha = Math.min(1.0f, (1 - percent) * 2);
+            final float value = PARENT_WIDTH * 0.2f;
+            final float scale;
+            final float translationX;
+            if (percent < 0.5f) {
+                scale = 1 - percent;
+                translationX = percent * 2 * value;
+            } else {
+                scale = (1 - percent) * 0.8f + 0.1f;
+                translationX = value - (percent * 2 - 1.0f) * PARENT_WIDTH * 1.2f;
+            }
+            assertEquals(alpha, mFrame[KeyframeSpec.ALPHA], DELTA);
+            assertEquals(scale, mFrame[KeyframeSpec.SCALE_X], DELTA);
+            assertEquals(scale, mFrame[KeyframeSpec.SCALE_Y], DELTA);
+            assertEquals(translationX, mFrame[KeyframeSpec.TRANSLATION_X], 0.01f);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void builder_rejectsSingleKeyframe() {
+        new KeyframeSpec.Builder().add(KeyframeSpec.ALPHA, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void builder_rejectsDuplicateProperty() {
+        new KeyframeSpec.Builder().add(KeyframeSpec.ALPHA, 0, 1).add(KeyframeSpec.ALPHA, 1, 0);
+    }
+}
@@ -0,0 +1,50 @@
+package com.dl7.drag.animate;
+
+import android.animation.TimeInterpolator;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Created by long on 2016/11/26.
+ */
+public class LutInterpolatorTest {
+
+    // 和 AccelerateDecelerateInterpolator 相同的曲线
+    private static final TimeInterpolator COSINE = new TimeInterpolator() {
+        @Override
+        public float getInterpolation(float input) {
+            return (float) (Math.cos((input + 1) * Math.PI) / 2.0f) + 0.5f;
+        }
+    };
+
+    @Test
+    public void getInterpolation_matchesOriginal() {
+        LutInterpolator lut = new LutInterpolator(COSINE);
+        for (int i = 0; i <= 1000; i++) {
+            float input = i / 1000f;
+            assertEquals(COSINE.getInterpolation(input), lut.getInterpolation(input), 1e-4f);
+        }
+    }
+
+    @Test
+    public void getInterpolation_clampsInput() {
+        LutInterpolator lut = new LutInterpolator(COSINE, 11);
+        assertEquals(0, lut.getInterpolation(-0.5f), 0);
+        assertEquals(1, lut.getInterpolation(1.5f), 0);
+        assertEquals(1, lut.getInterpolation(Math.nextAfter(1f, 0)), 1e-4f);
+    }
+
+    @Test
+    public void wrap_reusesLut() {
+        LutInterpolator lut = LutInterpolator.wrap(COSINE);
+        assertSame(lut, LutInterpolator.wrap(lut));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_rejectsSingleSample() {
+        new LutInterpolator(COSINE, 1);
+    }
+}
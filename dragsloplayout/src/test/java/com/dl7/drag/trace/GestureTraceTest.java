@@ -0,0 +1,66 @@
+package com.dl7.drag.trace;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created by long on 2016/11/29.
+ */
+public class GestureTraceTest {
+
+    private static GestureTrace _copy(GestureTrace trace) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        trace.writeTo(out);
+        return GestureTrace.readFrom(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    @Test
+    public void writeTo_roundTripsAllEventTypes() throws IOException {
+        GestureTrace trace = new GestureTrace()
+                .addTouch(0, 0, 540.5f, 1800)
+                .addPageState(3, 1)
+                .addPageScrolled(20, 2, 0.25f, -270)
+                .addTouch(100000, 1, 540, 200.25f);
+        GestureTrace copy = _copy(trace);
+        assertEquals(4, copy.size());
+        assertEquals(GestureTrace.TYPE_TOUCH, copy.getType(0));
+        assertEquals(540.5f, copy.getX(0), 0);
+        assertEquals(1800, copy.getY(0), 0);
+        assertEquals(GestureTrace.TYPE_PAGE_STATE, copy.getType(1));
+        assertEquals(1, copy.getInt(1));
+        assertEquals(GestureTrace.TYPE_PAGE_SCROLLED, copy.getType(2));
+        assertEquals(2, copy.getInt(2));
+        assertEquals(0.25f, copy.getX(2), 0);
+        assertEquals(-270, copy.getOffsetPixels(2));
+        assertEquals(100000, copy.getTime(3));
+        assertEquals(200.25f, copy.getY(3), 0);
+    }
+
+    @Test
+    public void writeTo_isCompact() throws IOException {
+        GestureTrace trace = new GestureTrace();
+        for (int i = 0; i < 60; i++) {
+            trace.addTouch(i * 16, 2, 540, 1800 - i * 10);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        trace.writeTo(out);
+        // 类型 1 字节 + 时间差 1 字节 + 动作 1 字节 + 坐标 8 字节
+        assertTrue(out.size() <= 9 + 60 * 11);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void addTouch_rejectsOutOfOrderEvents() {
+        new GestureTrace().addTouch(10, 0, 0, 0).addTouch(5, 2, 0, 0);
+    }
+
+    @Test(expected = IOException.class)
+    public void readFrom_rejectsOtherData() throws IOException {
+        GestureTrace.readFrom(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9}));
+    }
+}
@@ -1,8 +1,5 @@
 package com.dl7.simple.drag.activity;
 
-import android.animation.Animator;
-import android.animation.AnimatorSet;
-import android.animation.ObjectAnimator;
 import android.graphics.Color;
 import android.os.Bundle;
 import android.support.v4.content.ContextCompat;
@@ -16,7 +13,8 @@ import android.widget.LinearLayout;
 import android.widget.Toast;
 
 import com.dl7.drag.DragSlopLayout;
-import com.dl7.drag.animate.CustomViewAnimator;
+import com.dl7.drag.animate.BatchViewAnimator;
+import com.dl7.drag.animate.KeyframeSpec;
 import com.dl7.simple.drag.AnimateHelper;
 import com.dl7.simple.drag.adapter.PhotoPagerAdapter;
 import com.dl7.simple.drag.R;
@@ -80,6 +78,8 @@ public class AnimateActivity extends BaseActivity {
         });
 //        mDsLayout.interactWithViewPager(mIsInteract);
         mDsLayout.attachViewPager(mVpPhoto);
+        // 透明度、翻转和缩放动画期间合成缓存的纹理
+        mDsLayout.setEnableHardwareLayer(true);
     }
 
     @OnClick({R.id.iv_favorite, R.id.iv_download, R.id.iv_praise, R.id.iv_share})
@@ -140,6 +140,10 @@ public class AnimateActivity extends BaseActivity {
             case R.id.slide_zoom_right:
                 mDsLayout.setAnimatorMode(DragSlopLayout.ZOOM_RIGHT);
                 return true;
+            case R.id.slide_spec:
+                // res/raw/anim_slide_top.json，只在第一次使用时解析
+                mDsLayout.setAnimatorSpec(R.raw.anim_slide_top);
+                return true;
             case R.id.slide_custom_one:
                 mLlView.setBackgroundColor(Color.TRANSPARENT);
                 _handleCustomOne();
@@ -167,73 +171,29 @@ public class AnimateActivity extends BaseActivity {
      * 自定义动画 1
      */
     private void _handleCustomOne() {
-        mDsLayout.setCustomAnimator(new CustomViewAnimator() {
-            @Override
-            protected Animator doAnimator() {
-                ObjectAnimator one = ObjectAnimator.ofFloat(mIvFavorite, "translationX", mDsLayout.getWidth(), -100, 50, 0);
-                ObjectAnimator two = ObjectAnimator.ofFloat(mIvDownload, "translationX", mDsLayout.getWidth(), -100, 50, 0);
-                two.setStartDelay(100);
-                ObjectAnimator three = ObjectAnimator.ofFloat(mIvPraise, "translationX", mDsLayout.getWidth(), -100, 50, 0);
-                three.setStartDelay(200);
-                ObjectAnimator four = ObjectAnimator.ofFloat(mIvShare, "translationX", mDsLayout.getWidth(), -100, 50, 0);
-                four.setStartDelay(300);
-                AnimatorSet animatorSet = new AnimatorSet();
-                animatorSet.setDuration(700);
-                animatorSet.playTogether(one, two, three, four);
-                return animatorSet;
-            }
-        }, new CustomViewAnimator() {
-            @Override
-            protected Animator doAnimator() {
-                ObjectAnimator one = ObjectAnimator.ofFloat(mIvFavorite, "translationX", 0, mDsLayout.getWidth());
-                one.setStartDelay(300);
-                ObjectAnimator two = ObjectAnimator.ofFloat(mIvDownload, "translationX", 0, mDsLayout.getWidth());
-                two.setStartDelay(200);
-                ObjectAnimator three = ObjectAnimator.ofFloat(mIvPraise, "translationX", 0, mDsLayout.getWidth());
-                three.setStartDelay(100);
-                ObjectAnimator four = ObjectAnimator.ofFloat(mIvShare, "translationX", 0, mDsLayout.getWidth());
-                AnimatorSet animatorSet = new AnimatorSet();
-                animatorSet.setDuration(700);
-                animatorSet.playTogether(four, three, two, one);
-                return animatorSet;
-            }
-        });
+        float width = mDsLayout.getWidth();
+        mDsLayout.setCustomAnimator(new BatchViewAnimator()
+                        .setTrackDuration(700)
+                        .addStaggered(KeyframeSpec.TRANSLATION_X, 100, new float[]{width, -100, 50, 0},
+                                mIvFavorite, mIvDownload, mIvPraise, mIvShare),
+                new BatchViewAnimator()
+                        .setTrackDuration(700)
+                        .addStaggered(KeyframeSpec.TRANSLATION_X, 100, new float[]{0, width},
+                                mIvShare, mIvPraise, mIvDownload, mIvFavorite));
     }
 
     /**
      * 自定义动画 2
      */
     private void _handleCustomTwo() {
-        mDsLayout.setCustomAnimator(new CustomViewAnimator() {
-            @Override
-            protected Animator doAnimator() {
-                ObjectAnimator one = ObjectAnimator.ofFloat(mIvFavorite, "translationY", mLlView.getHeight(), 0);
-                ObjectAnimator two = ObjectAnimator.ofFloat(mIvDownload, "translationY", mLlView.getHeight(), 0);
-                two.setStartDelay(100);
-                ObjectAnimator three = ObjectAnimator.ofFloat(mIvPraise, "translationY", mLlView.getHeight(), 0);
-                three.setStartDelay(200);
-                ObjectAnimator four = ObjectAnimator.ofFloat(mIvShare, "translationY", mLlView.getHeight(), 0);
-                four.setStartDelay(300);
-                AnimatorSet animatorSet = new AnimatorSet();
-                animatorSet.setDuration(300);
-                animatorSet.playTogether(one, two, three, four);
-                return animatorSet;
-            }
-        }, new CustomViewAnimator() {
-            @Override
-            protected Animator doAnimator() {
-                ObjectAnimator one = ObjectAnimator.ofFloat(mIvFavorite, "translationY", 0, mLlView.getHeight());
-                ObjectAnimator two = ObjectAnimator.ofFloat(mIvDownload, "translationY", 0, mLlView.getHeight());
-                two.setStartDelay(100);
-                ObjectAnimator three = ObjectAnimator.ofFloat(mIvPraise, "translationY", 0, mLlView.getHeight());
-                three.setStartDelay(200);
-                ObjectAnimator four = ObjectAnimator.ofFloat(mIvShare, "translationY", 0, mLlView.getHeight());
-                four.setStartDelay(300);
-                AnimatorSet animatorSet = new AnimatorSet();
-                animatorSet.setDuration(300);
-                animatorSet.playTogether(one, two, three, four);
-                return animatorSet;
-            }
-        });
+        float height = mLlView.getHeight();
+        mDsLayout.setCustomAnimator(new BatchViewAnimator()
+                        .setTrackDuration(300)
+                        .addStaggered(KeyframeSpec.TRANSLATION_Y, 100, new float[]{height, 0},
+                                mIvFavorite, mIvDownload, mIvPraise, mIvShare),
+                new BatchViewAnimator()
+                        .setTrackDuration(300)
+                        .addStaggered(KeyframeSpec.TRANSLATION_Y, 100, new float[]{0, height},
+                                mIvFavorite, mIvDownload, mIvPraise, mIvShare));
     }
 }
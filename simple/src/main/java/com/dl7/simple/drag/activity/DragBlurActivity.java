@@ -11,6 +11,7 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import com.dl7.drag.DragSlopLayout;
+import com.dl7.simple.drag.BuildConfig;
 import com.dl7.simple.drag.R;
 
 import butterknife.BindView;
@@ -47,6 +48,8 @@ public class DragBlurActivity extends BaseActivity {
         ButterKnife.bind(this);
         initToolBar(mToolBar, true, "");
         mDragLayout.setEnableBlur(true);
+        // 只在 debug 包中显示调试信息
+        mDragLayout.setDebugOverlayEnabled(BuildConfig.DEBUG);
     }
 
     @Override